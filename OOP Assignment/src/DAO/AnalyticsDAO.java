@@ -0,0 +1,246 @@
+// dao/AnalyticsDAO.java
+package DAO;
+
+import Model.DeliveryPerformance;
+import Model.DriverPerformance;
+import Model.LatenessHistogram;
+import util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) for report figures.
+ * Every figure is computed by the database with a date-range predicate and aggregate
+ * functions, so only the totals cross the wire and the cost follows the size of the period
+ * rather than the size of the table history. The queries benefit from indexes on
+ * Deliveries(actual_delivery_date) and Shipments(created_at).
+ * Shipment volumes (count, package types, locations) are grouped here too, rather than over a
+ * client-side columnar copy of the table, since the rows of a period never need to leave the database.
+ * Periods are inclusive: from the first day 00:00 up to the end of the last day.
+ */
+public class AnalyticsDAO {
+
+    // --- Delivery timeliness, over Deliveries d joined to Shipments s ---
+    // A delivery is due at its shipment's scheduled date and estimated time (the end of the day if no time is set).
+    // A delivery without a recorded time counts from the start of its day.
+    static final String DELIVERED_AT = "TIMESTAMP(d.actual_delivery_date, COALESCE(d.actual_delivery_time, '00:00:00'))";
+    static final String DUE_AT = "TIMESTAMP(s.scheduled_delivery_date, COALESCE(s.estimated_delivery_time, '23:59:59'))";
+    // 1 if delivered by the time it was due, else 0 (also when there is no schedule to meet)
+    static final String ON_TIME = "COALESCE(" + DELIVERED_AT + " <= " + DUE_AT + ", 0)";
+    // The complement of ON_TIME, so every successful delivery is exactly one of on time or late
+    static final String LATE = "(1 - " + ON_TIME + ")";
+    // 1 if delivered after a due time, else 0: the late deliveries that lateness is averaged over
+    static final String OVERDUE = "COALESCE(" + DELIVERED_AT + " > " + DUE_AT + ", 0)";
+    // Seconds past the due time; 0 for deliveries that were on time or had no schedule
+    static final String LATENESS_SECONDS = "COALESCE(GREATEST(TIMESTAMPDIFF(SECOND, " + DUE_AT + ", " + DELIVERED_AT + "), 0), 0)";
+
+    private static final String DELIVERY_PERFORMANCE_SQL =
+            "SELECT COUNT(*) AS completed, " +
+            "COALESCE(SUM(" + ON_TIME + "), 0) AS on_time, " +
+            "COALESCE(SUM(" + LATE + "), 0) AS late, " +
+            "COALESCE(SUM(" + OVERDUE + "), 0) AS overdue, " +
+            "COALESCE(SUM(" + LATENESS_SECONDS + "), 0) AS lateness_seconds " +
+            "FROM Deliveries d LEFT JOIN Shipments s ON s.shipment_id = d.shipment_id " +
+            "WHERE d.actual_delivery_date BETWEEN ? AND ? AND d.delivery_outcome = 'Successful'";
+
+    // One row per driver with a final outcome in the period; the name comes from the same join
+    private static final String DRIVER_PERFORMANCE_SQL =
+            "SELECT d.personnel_id, p.name, " +
+            "SUM(d.delivery_outcome = 'Successful') AS completed, " +
+            "SUM(d.delivery_outcome = 'Failed') AS failed, " +
+            "COALESCE(SUM(CASE WHEN d.delivery_outcome = 'Successful' THEN " + ON_TIME + " END), 0) AS on_time, " +
+            "COALESCE(SUM(CASE WHEN d.delivery_outcome = 'Successful' THEN " + LATE + " END), 0) AS late, " +
+            "COALESCE(SUM(CASE WHEN d.delivery_outcome = 'Successful' THEN " + OVERDUE + " END), 0) AS overdue, " +
+            "COALESCE(SUM(CASE WHEN d.delivery_outcome = 'Successful' THEN " + LATENESS_SECONDS + " END), 0) AS lateness_seconds " +
+            "FROM Deliveries d LEFT JOIN Shipments s ON s.shipment_id = d.shipment_id " +
+            "LEFT JOIN DeliveryPersonnel p ON p.personnel_id = d.personnel_id " +
+            "WHERE d.actual_delivery_date BETWEEN ? AND ? AND d.delivery_outcome IN ('Successful', 'Failed') " +
+            "AND d.personnel_id IS NOT NULL " +
+            "GROUP BY d.personnel_id, p.name";
+
+    private static final String SHIPMENT_COUNT_SQL =
+            "SELECT COUNT(*) FROM Shipments WHERE created_at >= ? AND created_at < ?";
+
+    private static final String SHIPMENTS_BY_PACKAGE_TYPE_SQL =
+            "SELECT " + packageTypeExpression("package_contents") + " AS package_type, COUNT(*) AS shipment_count " +
+            "FROM Shipments WHERE created_at >= ? AND created_at < ? " +
+            "GROUP BY package_type ORDER BY package_type";
+
+    private static final String SHIPMENTS_BY_LOCATION_SQL =
+            "SELECT current_location, COUNT(*) AS shipment_count FROM Shipments " +
+            "WHERE created_at >= ? AND created_at < ? AND current_location IS NOT NULL AND TRIM(current_location) <> '' " +
+            "GROUP BY current_location ORDER BY current_location";
+
+    /**
+     * Computes the delivery performance for successful deliveries made within a period.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return The aggregated figures.
+     * @throws SQLException if a database access error occurs.
+     */
+    public DeliveryPerformance getDeliveryPerformance(Date startDate, Date endDate) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(DELIVERY_PERFORMANCE_SQL);
+            pstmt.setDate(1, startDate);
+            pstmt.setDate(2, endDate);
+            rs = pstmt.executeQuery();
+            rs.next(); // An aggregate without GROUP BY always returns one row
+            return new DeliveryPerformance(rs.getLong("completed"), rs.getLong("on_time"),
+                    rs.getLong("late"), rs.getLong("overdue"), rs.getLong("lateness_seconds"));
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Computes the delivery figures of every driver with a successful or failed delivery within a period,
+     * grouped by personnel ID in one pass over the period's deliveries.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return One entry per driver, in no particular order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<DriverPerformance> getDriverPerformance(Date startDate, Date endDate) throws SQLException {
+        List<DriverPerformance> drivers = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(DRIVER_PERFORMANCE_SQL);
+            pstmt.setDate(1, startDate);
+            pstmt.setDate(2, endDate);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                DeliveryPerformance performance = new DeliveryPerformance(rs.getLong("completed"), rs.getLong("on_time"),
+                        rs.getLong("late"), rs.getLong("overdue"), rs.getLong("lateness_seconds"));
+                drivers.add(new DriverPerformance(rs.getString("personnel_id"), rs.getString("name"),
+                        performance, rs.getLong("failed")));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return drivers;
+    }
+
+    /**
+     * Counts the shipments created within a period.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return The number of shipments.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long countShipmentsCreated(Date startDate, Date endDate) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(SHIPMENT_COUNT_SQL);
+            bindCreatedRange(pstmt, startDate, endDate);
+            rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Counts the shipments created within a period by package type, derived from keywords in the package contents.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return A map from package type to shipment count, ordered by package type.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, Long> countShipmentsByPackageType(Date startDate, Date endDate) throws SQLException {
+        return countGrouped(SHIPMENTS_BY_PACKAGE_TYPE_SQL, startDate, endDate);
+    }
+
+    /**
+     * Counts the shipments created within a period by current location; shipments without a location are left out.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return A map from location to shipment count, ordered by location.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, Long> countShipmentsByLocation(Date startDate, Date endDate) throws SQLException {
+        return countGrouped(SHIPMENTS_BY_LOCATION_SQL, startDate, endDate);
+    }
+
+    /**
+     * Runs a two-column "group, count" query over a created_at range.
+     */
+    private Map<String, Long> countGrouped(String sql, Date startDate, Date endDate) throws SQLException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            bindCreatedRange(pstmt, startDate, endDate);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return counts;
+    }
+
+    /**
+     * Builds the SQL expression that classifies package contents into a package type.
+     * The keyword groups are tried in order, so contents matching several take the first type.
+     * @param column The (possibly qualified) package_contents column.
+     * @return A CASE expression yielding "Parcels", "Documents/Letters", "Fragile Items" or "Other".
+     */
+    static String packageTypeExpression(String column) {
+        String contents = "LOWER(" + column + ")";
+        return "CASE " +
+                "WHEN " + contents + " LIKE '%parcel%' OR " + contents + " LIKE '%box%' THEN 'Parcels' " +
+                "WHEN " + contents + " LIKE '%document%' OR " + contents + " LIKE '%letter%' THEN 'Documents/Letters' " +
+                "WHEN " + contents + " LIKE '%fragile%' THEN 'Fragile Items' " +
+                "ELSE 'Other' END";
+    }
+
+    /**
+     * Builds the SQL expression that maps a lateness in seconds to its bucket, as LatenessHistogram.bucketOf does.
+     * @param latenessSeconds An SQL expression for a non-negative lateness in seconds.
+     * @return An expression yielding the bucket index.
+     */
+    static String latenessBucketExpression(String latenessSeconds) {
+        return "CASE WHEN " + latenessSeconds + " <= 0 THEN 0 ELSE LEAST(" + LatenessHistogram.MAX_BUCKET +
+                ", 1 + FLOOR(LN(" + latenessSeconds + ") / LN(" + LatenessHistogram.GAMMA + "))) END";
+    }
+
+    /**
+     * Binds a half-open created_at range [start 00:00, day after end 00:00), which an index on created_at can serve.
+     */
+    private static void bindCreatedRange(PreparedStatement pstmt, Date startDate, Date endDate) throws SQLException {
+        pstmt.setTimestamp(1, Timestamp.valueOf(startDate.toLocalDate().atStartOfDay()));
+        pstmt.setTimestamp(2, Timestamp.valueOf(endDate.toLocalDate().plusDays(1).atStartOfDay()));
+    }
+}
@@ -0,0 +1,54 @@
+// dao/BatchInsertResult.java
+package DAO;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk insert such as {@link ShipmentDAO#addShipments(java.util.List)}.
+ * Records how many rows were inserted and, for every row that was rejected,
+ * its position in the input list together with the database error message.
+ */
+public class BatchInsertResult {
+
+    private int insertedCount;
+    private final Map<Integer, String> failures = new LinkedHashMap<>(); // Input row index -> error message
+
+    void addInserted(int count) {
+        insertedCount += count;
+    }
+
+    void addFailure(int rowIndex, String message) {
+        failures.put(rowIndex, message);
+    }
+
+    /**
+     * @return The number of rows that were inserted and committed.
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * @return The rejected rows, keyed by their index in the input list, with the error message for each.
+     */
+    public Map<Integer, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if every row was inserted.
+     */
+    public boolean isFullySuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchInsertResult{" +
+                "insertedCount=" + insertedCount +
+                ", failedCount=" + failures.size() +
+                '}';
+    }
+}
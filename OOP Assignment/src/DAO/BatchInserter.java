@@ -0,0 +1,151 @@
+// dao/BatchInserter.java
+package DAO;
+
+import util.DatabaseConnection;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared JDBC batching logic for the bulk insert methods of the DAOs.
+ * Rows are sent in chunks of a configurable size, one transaction per chunk. With the
+ * driver's rewriteBatchedStatements option each chunk travels as a multi-row INSERT.
+ * If a chunk is rejected it is rolled back and replayed row by row, so good rows are
+ * still committed and every bad row is reported individually.
+ */
+class BatchInserter {
+
+    /** Default number of rows per batch and per transaction. */
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Binds the parameters of one row to the INSERT statement.
+     * @param <T> The entity type being inserted.
+     */
+    @FunctionalInterface
+    interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    /**
+     * Runs further statements for the rows of a chunk on the chunk's connection, just before the
+     * chunk commits, so they are written in the same transaction as the rows.
+     * @param <T> The entity type being inserted.
+     */
+    @FunctionalInterface
+    interface ChunkListener<T> {
+        void beforeCommit(Connection conn, List<? extends T> insertedRows) throws SQLException;
+    }
+
+    private BatchInserter() {
+        // No instantiation
+    }
+
+    /**
+     * Inserts all rows using JDBC batching.
+     * @param sql The single-row INSERT statement.
+     * @param rows The rows to insert.
+     * @param batchSize The number of rows per batch and per transaction.
+     * @param binder Binds one row's values to the statement.
+     * @param <T> The entity type being inserted.
+     * @return The number of inserted rows and the rows that failed.
+     * @throws SQLException if a database access error other than a rejected row occurs.
+     */
+    static <T> BatchInsertResult insertAll(String sql, List<? extends T> rows, int batchSize,
+                                           RowBinder<T> binder) throws SQLException {
+        return insertAll(sql, rows, batchSize, binder, null);
+    }
+
+    /**
+     * Inserts all rows using JDBC batching, letting a listener add its own writes to each chunk's transaction.
+     * @param sql The single-row INSERT statement.
+     * @param rows The rows to insert.
+     * @param batchSize The number of rows per batch and per transaction.
+     * @param binder Binds one row's values to the statement.
+     * @param listener Called with the rows actually inserted before each commit; may be null.
+     * @param <T> The entity type being inserted.
+     * @return The number of inserted rows and the rows that failed.
+     * @throws SQLException if a database access error other than a rejected row occurs.
+     */
+    static <T> BatchInsertResult insertAll(String sql, List<? extends T> rows, int batchSize,
+                                           RowBinder<T> binder, ChunkListener<T> listener) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        BatchInsertResult result = new BatchInsertResult();
+        if (rows == null || rows.isEmpty()) {
+            return result;
+        }
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(sql);
+
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, rows.size());
+                try {
+                    for (int i = start; i < end; i++) {
+                        binder.bind(pstmt, rows.get(i));
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    if (listener != null) {
+                        listener.beforeCommit(conn, rows.subList(start, end));
+                    }
+                    conn.commit();
+                    result.addInserted(end - start);
+                } catch (BatchUpdateException e) {
+                    conn.rollback();
+                    pstmt.clearBatch();
+                    insertRowByRow(conn, pstmt, rows, start, end, binder, listener, result);
+                }
+            }
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    System.err.println("Error rolling back bulk insert: " + rollbackError.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn); // The pool restores auto-commit
+        }
+        return result;
+    }
+
+    /**
+     * Replays a rejected chunk one row at a time to find the failing rows, then commits the rest.
+     */
+    private static <T> void insertRowByRow(Connection conn, PreparedStatement pstmt, List<? extends T> rows,
+                                           int start, int end, RowBinder<T> binder, ChunkListener<T> listener,
+                                           BatchInsertResult result) throws SQLException {
+        List<T> inserted = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            try {
+                binder.bind(pstmt, rows.get(i));
+                pstmt.executeUpdate();
+                inserted.add(rows.get(i));
+            } catch (SQLException rowError) {
+                if (rowError.getSQLState() != null && rowError.getSQLState().startsWith("08")) {
+                    throw rowError; // Connection failure, not a bad row
+                }
+                result.addFailure(i, rowError.getMessage());
+            }
+        }
+        if (listener != null) {
+            listener.beforeCommit(conn, inserted);
+        }
+        conn.commit();
+        result.addInserted(inserted.size());
+    }
+}
@@ -5,12 +5,18 @@ import Model.Delivery; // Import the Delivery model class from the 'model' direc
 import util.DatabaseConnection;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) for the Delivery entity.
@@ -19,6 +25,10 @@ import java.util.List;
  */
 public class DeliveryDAO {
 
+    private static final String INSERT_DELIVERY_SQL = "INSERT INTO Deliveries (delivery_id, shipment_id, personnel_id, " +
+            "actual_delivery_date, actual_delivery_time, delivery_outcome, delivery_notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     /**
      * Adds a new delivery record to the database.
      * @param delivery The Delivery object to be added.
@@ -26,21 +36,12 @@ public class DeliveryDAO {
      * @throws SQLException if a database access error occurs.
      */
     public boolean addDelivery(Delivery delivery) throws SQLException {
-        String sql = "INSERT INTO Deliveries (delivery_id, shipment_id, personnel_id, " +
-                "actual_delivery_date, actual_delivery_time, delivery_outcome, delivery_notes) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
         Connection conn = null;
         PreparedStatement pstmt = null;
         try {
             conn = DatabaseConnection.getConnection();
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, delivery.getDeliveryId());
-            pstmt.setString(2, delivery.getShipmentId());
-            pstmt.setString(3, delivery.getPersonnelId());
-            pstmt.setDate(4, delivery.getActualDeliveryDate());
-            pstmt.setTime(5, delivery.getActualDeliveryTime());
-            pstmt.setString(6, delivery.getDeliveryOutcome());
-            pstmt.setString(7, delivery.getDeliveryNotes());
+            pstmt = conn.prepareStatement(INSERT_DELIVERY_SQL);
+            bindDeliveryInsert(pstmt, delivery);
 
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
@@ -50,6 +51,29 @@ public class DeliveryDAO {
         }
     }
 
+    /**
+     * Adds many delivery records using JDBC batching, with the default batch size.
+     * @param deliveries The Delivery objects to be added.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addDeliveries(List<Delivery> deliveries) throws SQLException {
+        return addDeliveries(deliveries, BatchInserter.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Adds many delivery records using JDBC batching.
+     * Each batch is sent as a multi-row INSERT and committed in its own transaction; rows rejected
+     * by the database are reported in the result while the rest of their batch is still committed.
+     * @param deliveries The Delivery objects to be added.
+     * @param batchSize The number of rows per batch and per transaction.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addDeliveries(List<Delivery> deliveries, int batchSize) throws SQLException {
+        return BatchInserter.insertAll(INSERT_DELIVERY_SQL, deliveries, batchSize, this::bindDeliveryInsert);
+    }
+
     /**
      * Retrieves a delivery record from the database by its ID.
      * @param deliveryId The unique ID of the delivery to retrieve.
@@ -69,16 +93,7 @@ public class DeliveryDAO {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                delivery = new Delivery();
-                delivery.setDeliveryId(rs.getString("delivery_id"));
-                delivery.setShipmentId(rs.getString("shipment_id"));
-                delivery.setPersonnelId(rs.getString("personnel_id"));
-                delivery.setActualDeliveryDate(rs.getDate("actual_delivery_date"));
-                delivery.setActualDeliveryTime(rs.getTime("actual_delivery_time"));
-                delivery.setDeliveryOutcome(rs.getString("delivery_outcome"));
-                delivery.setDeliveryNotes(rs.getString("delivery_notes"));
-                delivery.setCreatedAt(rs.getTimestamp("created_at"));
-                delivery.setUpdatedAt(rs.getTimestamp("updated_at"));
+                delivery = mapDelivery(rs);
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -107,17 +122,7 @@ public class DeliveryDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Delivery delivery = new Delivery();
-                delivery.setDeliveryId(rs.getString("delivery_id"));
-                delivery.setShipmentId(rs.getString("shipment_id"));
-                delivery.setPersonnelId(rs.getString("personnel_id"));
-                delivery.setActualDeliveryDate(rs.getDate("actual_delivery_date"));
-                delivery.setActualDeliveryTime(rs.getTime("actual_delivery_time"));
-                delivery.setDeliveryOutcome(rs.getString("delivery_outcome"));
-                delivery.setDeliveryNotes(rs.getString("delivery_notes"));
-                delivery.setCreatedAt(rs.getTimestamp("created_at"));
-                delivery.setUpdatedAt(rs.getTimestamp("updated_at"));
-                deliveries.add(delivery);
+                deliveries.add(mapDelivery(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -127,6 +132,22 @@ public class DeliveryDAO {
         return deliveries;
     }
 
+    /**
+     * Retrieves the deliveries of several shipments at once, using chunked IN-list queries
+     * instead of one query per shipment.
+     * @param shipmentIds The IDs of the shipments (nulls and duplicates are ignored).
+     * @return A map from shipment ID to its deliveries; shipments without deliveries are absent.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, List<Delivery>> getDeliveriesByShipmentIds(Collection<String> shipmentIds) throws SQLException {
+        Map<String, List<Delivery>> deliveriesByShipment = new HashMap<>();
+        InListQuery.forEachRow("SELECT * FROM Deliveries WHERE shipment_id IN", shipmentIds, rs -> {
+            Delivery delivery = mapDelivery(rs);
+            deliveriesByShipment.computeIfAbsent(delivery.getShipmentId(), id -> new ArrayList<>()).add(delivery);
+        });
+        return deliveriesByShipment;
+    }
+
     /**
      * Retrieves all delivery records for a specific delivery personnel.
      * @param personnelId The ID of the delivery personnel.
@@ -146,17 +167,7 @@ public class DeliveryDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Delivery delivery = new Delivery();
-                delivery.setDeliveryId(rs.getString("delivery_id"));
-                delivery.setShipmentId(rs.getString("shipment_id"));
-                delivery.setPersonnelId(rs.getString("personnel_id"));
-                delivery.setActualDeliveryDate(rs.getDate("actual_delivery_date"));
-                delivery.setActualDeliveryTime(rs.getTime("actual_delivery_time"));
-                delivery.setDeliveryOutcome(rs.getString("delivery_outcome"));
-                delivery.setDeliveryNotes(rs.getString("delivery_notes"));
-                delivery.setCreatedAt(rs.getTimestamp("created_at"));
-                delivery.setUpdatedAt(rs.getTimestamp("updated_at"));
-                deliveries.add(delivery);
+                deliveries.add(mapDelivery(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -197,6 +208,39 @@ public class DeliveryDAO {
         }
     }
 
+    /**
+     * Records the outcome of a delivery, updating only the actual date/time, outcome and notes.
+     * @param deliveryId The ID of the delivery to update.
+     * @param actualDeliveryDate The actual date of delivery.
+     * @param actualDeliveryTime The actual time of delivery.
+     * @param deliveryOutcome The outcome of the delivery (e.g., "Successful", "Failed").
+     * @param deliveryNotes Any notes regarding the delivery.
+     * @return true if the delivery was updated successfully, false if it does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean recordDeliveryOutcome(String deliveryId, Date actualDeliveryDate, Time actualDeliveryTime,
+                                         String deliveryOutcome, String deliveryNotes) throws SQLException {
+        String sql = "UPDATE Deliveries SET actual_delivery_date = ?, actual_delivery_time = ?, delivery_outcome = ?, " +
+                "delivery_notes = ?, updated_at = CURRENT_TIMESTAMP WHERE delivery_id = ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setDate(1, actualDeliveryDate);
+            pstmt.setTime(2, actualDeliveryTime);
+            pstmt.setString(3, deliveryOutcome);
+            pstmt.setString(4, deliveryNotes);
+            pstmt.setString(5, deliveryId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } finally {
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
     /**
      * Deletes a delivery record from the database by its ID.
      * @param deliveryId The unique ID of the delivery to delete.
@@ -237,17 +281,7 @@ public class DeliveryDAO {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                Delivery delivery = new Delivery();
-                delivery.setDeliveryId(rs.getString("delivery_id"));
-                delivery.setShipmentId(rs.getString("shipment_id"));
-                delivery.setPersonnelId(rs.getString("personnel_id"));
-                delivery.setActualDeliveryDate(rs.getDate("actual_delivery_date"));
-                delivery.setActualDeliveryTime(rs.getTime("actual_delivery_time"));
-                delivery.setDeliveryOutcome(rs.getString("delivery_outcome"));
-                delivery.setDeliveryNotes(rs.getString("delivery_notes"));
-                delivery.setCreatedAt(rs.getTimestamp("created_at"));
-                delivery.setUpdatedAt(rs.getTimestamp("updated_at"));
-                deliveries.add(delivery);
+                deliveries.add(mapDelivery(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -256,4 +290,94 @@ public class DeliveryDAO {
         }
         return deliveries;
     }
+
+    /**
+     * Streams every delivery record to the given action, one row at a time.
+     * Unlike getAll*, rows are not collected into a list, so memory use stays constant
+     * regardless of table size. The connection is held until the walk completes.
+     * @param action Called once per delivery record, in table order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachDelivery(Consumer<? super Delivery> action) throws SQLException {
+        String sql = "SELECT * FROM Deliveries";
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.createStreamingStatement(conn);
+            rs = stmt.executeQuery(sql);
+
+            while (rs.next()) {
+                action.accept(mapDelivery(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Streams the delivery records whose actual delivery date falls within a period, one row at a time.
+     * The connection is held until the walk completes.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @param action Called once per delivery record.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachDeliveryBetween(Date startDate, Date endDate, Consumer<? super Delivery> action) throws SQLException {
+        String sql = "SELECT * FROM Deliveries WHERE actual_delivery_date BETWEEN ? AND ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = DatabaseConnection.prepareStreamingStatement(conn, sql);
+            pstmt.setDate(1, startDate);
+            pstmt.setDate(2, endDate);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                action.accept(mapDelivery(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Maps the current row of a Deliveries result set to a Delivery object.
+     * @param rs The result set, positioned on a row.
+     * @return The mapped Delivery.
+     * @throws SQLException if a column cannot be read.
+     */
+    private Delivery mapDelivery(ResultSet rs) throws SQLException {
+        Delivery delivery = new Delivery();
+        delivery.setDeliveryId(rs.getString("delivery_id"));
+        delivery.setShipmentId(rs.getString("shipment_id"));
+        delivery.setPersonnelId(rs.getString("personnel_id"));
+        delivery.setActualDeliveryDate(rs.getDate("actual_delivery_date"));
+        delivery.setActualDeliveryTime(rs.getTime("actual_delivery_time"));
+        delivery.setDeliveryOutcome(rs.getString("delivery_outcome"));
+        delivery.setDeliveryNotes(rs.getString("delivery_notes"));
+        delivery.setCreatedAt(rs.getTimestamp("created_at"));
+        delivery.setUpdatedAt(rs.getTimestamp("updated_at"));
+        return delivery;
+    }
+
+    /**
+     * Binds the columns of the INSERT statement for one delivery.
+     */
+    private void bindDeliveryInsert(PreparedStatement pstmt, Delivery delivery) throws SQLException {
+        pstmt.setString(1, delivery.getDeliveryId());
+        pstmt.setString(2, delivery.getShipmentId());
+        pstmt.setString(3, delivery.getPersonnelId());
+        pstmt.setDate(4, delivery.getActualDeliveryDate());
+        pstmt.setTime(5, delivery.getActualDeliveryTime());
+        pstmt.setString(6, delivery.getDeliveryOutcome());
+        pstmt.setString(7, delivery.getDeliveryNotes());
+    }
 }
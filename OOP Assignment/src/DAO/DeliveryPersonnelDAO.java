@@ -2,15 +2,22 @@
 package DAO; // Package declaration for the 'dao' directory
 
 import Model.DeliveryPersonnel; // Import the DeliveryPersonnel model class from the 'model' directory
+import Model.PersonnelSummary;
 import util.DatabaseConnection;
+import util.UnitOfWork;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) for the DeliveryPersonnel entity.
@@ -44,18 +51,31 @@ public class DeliveryPersonnelDAO {
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
         } finally {
+            refreshDirectory(false);
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
         }
     }
 
     /**
-     * Retrieves a delivery personnel record from the database by their ID.
+     * Retrieves a delivery personnel record by their ID, answering from the {@link PersonnelDirectory}
+     * when it is available.
      * @param personnelId The unique ID of the personnel to retrieve.
      * @return The DeliveryPersonnel object if found, null otherwise.
      * @throws SQLException if a database access error occurs.
      */
     public DeliveryPersonnel getPersonnelById(String personnelId) throws SQLException {
+        PersonnelDirectory directory = directory();
+        return directory != null ? directory.getById(personnelId) : loadPersonnelById(personnelId);
+    }
+
+    /**
+     * Reads a delivery personnel record from the database by their ID.
+     * @param personnelId The unique ID of the personnel to retrieve.
+     * @return The DeliveryPersonnel object if found, null otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    private DeliveryPersonnel loadPersonnelById(String personnelId) throws SQLException {
         String sql = "SELECT * FROM DeliveryPersonnel WHERE personnel_id = ?";
         Connection conn = null;
         PreparedStatement pstmt = null;
@@ -68,16 +88,7 @@ public class DeliveryPersonnelDAO {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                personnel = new DeliveryPersonnel();
-                personnel.setPersonnelId(rs.getString("personnel_id"));
-                personnel.setName(rs.getString("name"));
-                personnel.setContactNumber(rs.getString("contact_number"));
-                personnel.setEmail(rs.getString("email"));
-                personnel.setVehicleDetails(rs.getString("vehicle_details"));
-                personnel.setAvailabilityStatus(rs.getString("availability_status"));
-                personnel.setCurrentRoute(rs.getString("current_route"));
-                personnel.setCreatedAt(rs.getTimestamp("created_at"));
-                personnel.setUpdatedAt(rs.getTimestamp("updated_at"));
+                personnel = mapPersonnel(rs);
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -87,6 +98,26 @@ public class DeliveryPersonnelDAO {
         return personnel;
     }
 
+    /**
+     * Retrieves several delivery personnel at once, from the {@link PersonnelDirectory} when it is available
+     * and otherwise using chunked IN-list queries instead of one query per ID.
+     * @param personnelIds The IDs of the personnel to retrieve (nulls and duplicates are ignored).
+     * @return A map from personnel ID to DeliveryPersonnel; IDs that do not exist are absent.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, DeliveryPersonnel> getPersonnelByIds(Collection<String> personnelIds) throws SQLException {
+        PersonnelDirectory directory = directory();
+        if (directory != null) {
+            return directory.getByIds(personnelIds);
+        }
+        Map<String, DeliveryPersonnel> personnelById = new HashMap<>();
+        InListQuery.forEachRow("SELECT * FROM DeliveryPersonnel WHERE personnel_id IN", personnelIds, rs -> {
+            DeliveryPersonnel personnel = mapPersonnel(rs);
+            personnelById.put(personnel.getPersonnelId(), personnel);
+        });
+        return personnelById;
+    }
+
     /**
      * Updates an existing delivery personnel record in the database.
      * @param personnel The DeliveryPersonnel object with updated details.
@@ -113,6 +144,62 @@ public class DeliveryPersonnelDAO {
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
         } finally {
+            refreshDirectory(false);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Updates only the availability status of a delivery personnel record.
+     * @param personnelId The ID of the personnel to update.
+     * @param availabilityStatus The new availability status (e.g., "Available", "On Duty").
+     * @return true if the personnel was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateAvailabilityStatus(String personnelId, String availabilityStatus) throws SQLException {
+        String sql = "UPDATE DeliveryPersonnel SET availability_status = ?, updated_at = CURRENT_TIMESTAMP " +
+                "WHERE personnel_id = ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, availabilityStatus);
+            pstmt.setString(2, personnelId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } finally {
+            refreshDirectory(false);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Updates the availability status of the personnel assigned to a delivery.
+     * The personnel is resolved in the same statement, so the delivery does not have to be read first.
+     * @param deliveryId The ID of the delivery whose personnel should be updated.
+     * @param availabilityStatus The new availability status.
+     * @return true if the personnel was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateAvailabilityStatusForDelivery(String deliveryId, String availabilityStatus) throws SQLException {
+        String sql = "UPDATE DeliveryPersonnel SET availability_status = ?, updated_at = CURRENT_TIMESTAMP " +
+                "WHERE personnel_id = (SELECT personnel_id FROM Deliveries WHERE delivery_id = ?)";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, availabilityStatus);
+            pstmt.setString(2, deliveryId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } finally {
+            refreshDirectory(false);
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
         }
@@ -136,17 +223,23 @@ public class DeliveryPersonnelDAO {
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
         } finally {
+            refreshDirectory(true); // Deletes are invisible to delta polling
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
         }
     }
 
     /**
-     * Retrieves all delivery personnel records from the database.
+     * Retrieves all delivery personnel records.
+     * Served from the {@link PersonnelDirectory} when it is available.
      * @return A List of all DeliveryPersonnel objects.
      * @throws SQLException if a database access error occurs.
      */
     public List<DeliveryPersonnel> getAllPersonnel() throws SQLException {
+        PersonnelDirectory directory = directory();
+        if (directory != null) {
+            return directory.getAll();
+        }
         List<DeliveryPersonnel> personnelList = new ArrayList<>();
         String sql = "SELECT * FROM DeliveryPersonnel";
         Connection conn = null;
@@ -158,23 +251,162 @@ public class DeliveryPersonnelDAO {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                DeliveryPersonnel personnel = new DeliveryPersonnel();
-                personnel.setPersonnelId(rs.getString("personnel_id"));
-                personnel.setName(rs.getString("name"));
-                personnel.setContactNumber(rs.getString("contact_number"));
-                personnel.setEmail(rs.getString("email"));
-                personnel.setVehicleDetails(rs.getString("vehicle_details"));
-                personnel.setAvailabilityStatus(rs.getString("availability_status"));
-                personnel.setCurrentRoute(rs.getString("current_route"));
-                personnel.setCreatedAt(rs.getTimestamp("created_at"));
-                personnel.setUpdatedAt(rs.getTimestamp("updated_at"));
-                personnelList.add(personnel);
+                personnelList.add(mapPersonnel(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return personnelList;
+    }
+
+    /**
+     * Streams every delivery personnel record to the given action, one row at a time.
+     * Unlike getAll*, rows are not collected into a list, so memory use stays constant
+     * regardless of table size. The connection is held until the walk completes.
+     * @param action Called once per delivery personnel record, in table order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachPersonnel(Consumer<? super DeliveryPersonnel> action) throws SQLException {
+        String sql = "SELECT * FROM DeliveryPersonnel";
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.createStreamingStatement(conn);
+            rs = stmt.executeQuery(sql);
+
+            while (rs.next()) {
+                action.accept(mapPersonnel(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
             DatabaseConnection.closeConnection(stmt);
             DatabaseConnection.closeConnection(conn);
         }
+    }
+
+    /**
+     * Retrieves the delivery personnel records created or updated at or after the given time.
+     * Used by {@link PersonnelDirectory} to poll for changes.
+     * @param since The earliest created_at/updated_at to include.
+     * @return A list of DeliveryPersonnel objects, ordered by ID.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<DeliveryPersonnel> getPersonnelModifiedSince(Timestamp since) throws SQLException {
+        List<DeliveryPersonnel> personnelList = new ArrayList<>();
+        String sql = "SELECT * FROM DeliveryPersonnel WHERE updated_at >= ? OR created_at >= ? ORDER BY personnel_id";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setTimestamp(1, since);
+            pstmt.setTimestamp(2, since);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                personnelList.add(mapPersonnel(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
         return personnelList;
     }
+
+    /**
+     * Retrieves the ID, name and availability status of delivery personnel, ordered by ID.
+     * Used to fill selection lists without loading full personnel rows; answered from the
+     * {@link PersonnelDirectory} when it is available.
+     * @param assignableOnly If true, personnel who are "Off Duty" or "On Leave" are left out.
+     * @return A list of PersonnelSummary objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<PersonnelSummary> getPersonnelSummaries(boolean assignableOnly) throws SQLException {
+        PersonnelDirectory directory = directory();
+        if (directory != null) {
+            return directory.getSummaries(assignableOnly);
+        }
+        List<PersonnelSummary> summaries = new ArrayList<>();
+        String sql = "SELECT personnel_id, name, availability_status FROM DeliveryPersonnel" +
+                (assignableOnly ? " WHERE availability_status IS NULL OR availability_status NOT IN ('Off Duty', 'On Leave')" : "") +
+                " ORDER BY personnel_id";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                summaries.add(new PersonnelSummary(
+                        rs.getString("personnel_id"),
+                        rs.getString("name"),
+                        rs.getString("availability_status")
+                ));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return summaries;
+    }
+
+    /**
+     * Returns the personnel directory to answer reads from, loading it on first use.
+     * Returns null inside a unit of work (the directory cannot see uncommitted rows) or if it cannot be loaded.
+     */
+    private static PersonnelDirectory directory() {
+        if (UnitOfWork.isActive()) {
+            return null;
+        }
+        try {
+            return PersonnelDirectory.getInstance();
+        } catch (SQLException e) {
+            System.err.println("Personnel directory unavailable, reading from the database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Brings the personnel directory up to date after a write, or once the current unit of work has ended.
+     * @param fullReload true to reload the whole table, which is needed to drop deleted rows.
+     */
+    private static void refreshDirectory(boolean fullReload) {
+        PersonnelDirectory directory = PersonnelDirectory.getIfLoaded();
+        if (directory == null) {
+            return;
+        }
+        Runnable refresh = fullReload ? directory::reloadQuietly : directory::refreshQuietly;
+        if (!UnitOfWork.runAfterCompletion(refresh)) {
+            refresh.run();
+        }
+    }
+
+    /**
+     * Maps the current row of a DeliveryPersonnel result set to a DeliveryPersonnel object.
+     * @param rs The result set, positioned on a row.
+     * @return The mapped DeliveryPersonnel.
+     * @throws SQLException if a column cannot be read.
+     */
+    private DeliveryPersonnel mapPersonnel(ResultSet rs) throws SQLException {
+        DeliveryPersonnel personnel = new DeliveryPersonnel();
+        personnel.setPersonnelId(rs.getString("personnel_id"));
+        personnel.setName(rs.getString("name"));
+        personnel.setContactNumber(rs.getString("contact_number"));
+        personnel.setEmail(rs.getString("email"));
+        personnel.setVehicleDetails(rs.getString("vehicle_details"));
+        personnel.setAvailabilityStatus(rs.getString("availability_status"));
+        personnel.setCurrentRoute(rs.getString("current_route"));
+        personnel.setCreatedAt(rs.getTimestamp("created_at"));
+        personnel.setUpdatedAt(rs.getTimestamp("updated_at"));
+        return personnel;
+    }
 }
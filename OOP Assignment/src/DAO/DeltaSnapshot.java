@@ -0,0 +1,180 @@
+// dao/DeltaSnapshot.java
+package DAO;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * A client-side copy of a table that is kept current by fetching only what changed.
+ * The first {@link #sync()} loads every row. Each later sync asks the source for rows
+ * created or updated since the last watermark, and for the tombstones of rows deleted since
+ * then, and merges both into the local copy. On a quiet database a sync costs three tiny
+ * queries and transfers no rows.
+ * The watermark is the database clock read at the start of each sync, and every delta query
+ * looks back a short overlap window, so rows committed late with an older timestamp are not missed.
+ * Merging is idempotent, so re-reading rows inside the overlap is harmless.
+ * A snapshot can also start from a base copy held elsewhere (see {@link #startFrom(Timestamp)});
+ * it then keeps only the rows changed since the base was read, and the IDs deleted since.
+ * A snapshot is meant to be used by one thread at a time (the Swing event thread).
+ *
+ * @param <T> The entity type.
+ */
+public class DeltaSnapshot<T> {
+
+    private static final long OVERLAP_MS = 5_000; // Look back this far behind the watermark
+
+    /**
+     * Supplies the full table and its deltas to a {@link DeltaSnapshot}.
+     * @param <T> The entity type.
+     */
+    public interface Source<T> {
+        /** @return Every row of the table. */
+        List<T> loadAll() throws SQLException;
+
+        /** @return The rows created or updated at or after the given time. */
+        List<T> loadModifiedSince(Timestamp since) throws SQLException;
+
+        /** @return The IDs of the rows deleted at or after the given time. */
+        List<String> loadDeletedSince(Timestamp since) throws SQLException;
+
+        /** @return The current time according to the database clock. */
+        Timestamp currentTime() throws SQLException;
+    }
+
+    private final Source<T> source;
+    private final Function<T, String> idOf;
+    private final BiPredicate<T, T> sameRow; // Tells unchanged re-reads apart from real changes
+    private final TreeMap<String, T> rows = new TreeMap<>(); // Ordered by ID; only the changes when there is a base
+    private final Set<String> deletedFromBase = new HashSet<>(); // Only used when there is a base
+    private boolean hasBase;
+    private Timestamp watermark; // Null until the first full load
+
+    /**
+     * Constructor for DeltaSnapshot.
+     * @param source Where the rows and deltas come from.
+     * @param idOf Extracts the primary key of a row.
+     * @param sameRow Tells whether two versions of a row hold the same data. Rows re-read inside
+     *                the overlap window are usually unchanged, and should not be reported as a change.
+     */
+    public DeltaSnapshot(Source<T> source, Function<T, String> idOf, BiPredicate<T, T> sameRow) {
+        this.source = source;
+        this.idOf = idOf;
+        this.sameRow = sameRow;
+    }
+
+    /**
+     * Brings the local copy up to date.
+     * @return true if any row was added, changed or removed.
+     * @throws SQLException if a database access error occurs (the local copy is then left unchanged).
+     */
+    public boolean sync() throws SQLException {
+        Timestamp now = source.currentTime(); // Read first, so nothing committed after it is skipped next time
+        if (watermark == null) {
+            List<T> all = source.loadAll();
+            rows.clear();
+            for (T row : all) {
+                rows.put(idOf.apply(row), row);
+            }
+            watermark = now;
+            return true;
+        }
+
+        Timestamp since = new Timestamp(watermark.getTime() - OVERLAP_MS);
+        List<String> deletedIds = source.loadDeletedSince(since);
+        List<T> modified = source.loadModifiedSince(since);
+
+        // Deletes first: a row that was deleted and then re-created comes back with the modified rows
+        boolean changed = false;
+        for (String id : deletedIds) {
+            changed |= rows.remove(id) != null;
+            if (hasBase) {
+                changed |= deletedFromBase.add(id);
+            }
+        }
+        for (T row : modified) {
+            String id = idOf.apply(row);
+            T previous = rows.put(id, row);
+            changed |= previous == null || !sameRow.test(previous, row);
+            deletedFromBase.remove(id); // Re-created after a delete
+        }
+        watermark = now;
+        return changed;
+    }
+
+    /**
+     * Starts from a base copy of the table held elsewhere, e.g. in a file, instead of loading the table.
+     * From then on the local copy holds only the rows created or updated since the base was read,
+     * and {@link #isDeleted(String)} reports the rows deleted since; each {@link #sync()} fetches
+     * only what changed. The source must keep tombstones at least that long, or deletes in between are missed.
+     * @param asOf The database time at which the base was read.
+     */
+    public void startFrom(Timestamp asOf) {
+        rows.clear();
+        deletedFromBase.clear();
+        hasBase = true;
+        watermark = asOf;
+    }
+
+    /**
+     * @return true once the local copy has been loaded or seeded.
+     */
+    public boolean isLoaded() {
+        return watermark != null;
+    }
+
+    /**
+     * Forgets the local copy, so the next {@link #sync()} reloads everything.
+     */
+    public void invalidate() {
+        rows.clear();
+        deletedFromBase.clear();
+        hasBase = false;
+        watermark = null;
+    }
+
+    /**
+     * @param id The ID of a row.
+     * @return The local version of the row, or null if it is not held locally.
+     */
+    public T get(String id) {
+        return rows.get(id);
+    }
+
+    /**
+     * @param id The ID of a row.
+     * @return true if the row was deleted since the base copy was read and has not been re-created.
+     */
+    public boolean isDeleted(String id) {
+        return deletedFromBase.contains(id);
+    }
+
+    /**
+     * @return The IDs of the rows deleted since the base copy was read; empty without a base.
+     */
+    public Set<String> getDeletedIds() {
+        return Collections.unmodifiableSet(deletedFromBase);
+    }
+
+    /**
+     * @return An unmodifiable list of the rows of the local copy, ordered by ID
+     *         (only the changed rows when there is a base).
+     */
+    public List<T> getAll() {
+        return Collections.unmodifiableList(new ArrayList<>(rows.values()));
+    }
+
+    /**
+     * @return The number of rows in the local copy.
+     */
+    public int size() {
+        return rows.size();
+    }
+}
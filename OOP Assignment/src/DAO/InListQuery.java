@@ -0,0 +1,107 @@
+// dao/InListQuery.java
+package DAO;
+
+import util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Shared logic for the multi-get methods of the DAOs ("WHERE column IN (?, ?, ...)").
+ * Keys are de-duplicated and split into chunks of at most {@link #MAX_IN_LIST_SIZE}, so a
+ * lookup of N keys costs a handful of queries instead of N. Each chunk is padded to a
+ * power-of-two number of placeholders by repeating its last key; this keeps the number of
+ * distinct SQL strings small, so the prepared statement cache stays effective.
+ */
+class InListQuery {
+
+    /** Maximum number of keys bound into a single IN-list. */
+    static final int MAX_IN_LIST_SIZE = 500;
+
+    /**
+     * Handles one row of the result.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private InListQuery() {
+        // No instantiation
+    }
+
+    /**
+     * Runs "sqlPrefix (?, ?, ...)" for all keys, one query per chunk, on a single connection.
+     * @param sqlPrefix The query up to and including "IN", e.g. "SELECT * FROM Shipments WHERE shipment_id IN".
+     * @param keys The keys to look up; nulls and duplicates are ignored.
+     * @param handler Called once for every row returned.
+     * @throws SQLException if a database access error occurs.
+     */
+    static void forEachRow(String sqlPrefix, Collection<String> keys, RowHandler handler) throws SQLException {
+        List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinctKeys.remove(null);
+        if (distinctKeys.isEmpty()) {
+            return;
+        }
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            for (int start = 0; start < distinctKeys.size(); start += MAX_IN_LIST_SIZE) {
+                List<String> chunk = distinctKeys.subList(start, Math.min(start + MAX_IN_LIST_SIZE, distinctKeys.size()));
+                queryChunk(conn, sqlPrefix, chunk, handler);
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static void queryChunk(Connection conn, String sqlPrefix, List<String> chunk,
+                                   RowHandler handler) throws SQLException {
+        int placeholders = paddedSize(chunk.size());
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(sqlPrefix + " (" + placeholderList(placeholders) + ")");
+            for (int i = 0; i < placeholders; i++) {
+                // Padding repeats the last key; IN ignores the duplicates
+                pstmt.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+            }
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                handler.handle(rs);
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+        }
+    }
+
+    /**
+     * Rounds a chunk size up to the next power of two, capped at {@link #MAX_IN_LIST_SIZE}.
+     */
+    private static int paddedSize(int size) {
+        int padded = Integer.highestOneBit(size);
+        if (padded < size) {
+            padded <<= 1;
+        }
+        return Math.min(padded, MAX_IN_LIST_SIZE);
+    }
+
+    static String placeholderList(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,561 @@
+// dao/KpiRollupDAO.java
+package DAO;
+
+import Model.KpiRollup;
+import Model.LatenessBucketCount;
+import util.DatabaseConnection;
+import util.FrequencyCache;
+import util.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the monthly KPI rollup.
+ * MonthlyKpiRollup keeps running totals per (year, month, route, package type, driver). It is
+ * updated in the same transaction as the writes it summarises: when shipments are created, changed
+ * or deleted, and when a delivery outcome is recorded or deleted. Reading a month therefore costs
+ * one row per group, however long the history is.
+ * Delivery figures are also kept per delivery in KpiDeliveryFacts, so that re-recording the
+ * outcome of a delivery first takes its previous contribution back out of the rollup. Shipment
+ * counts are kept per shipment in KpiShipmentFacts in the same way, so that editing, reassigning
+ * or deleting a shipment moves or removes its count.
+ * The tables are created on first use and filled from the existing data, and filled again once
+ * after the rules behind the figures change; {@link #rebuildRollups()} recomputes them from scratch.
+ * The groups and lateness buckets of months that have ended are cached, since only a late change
+ * to a delivery outcome or an older shipment can still alter them. Each read first checks the
+ * month's version (its group count and latest updated_at), so a change made by another client
+ * is picked up as well.
+ */
+public class KpiRollupDAO {
+
+    /**
+     * Stored as the comment of MonthlyKpiRollup. Change it whenever the rules that compute the
+     * stored figures change, and tables written under older rules are rebuilt on first use.
+     */
+    private static final String RULES_VERSION = "kpi-rules-6";
+
+    private static final String CREATE_ROLLUP_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS MonthlyKpiRollup (" +
+            "period_year SMALLINT NOT NULL, period_month TINYINT NOT NULL, " +
+            "route VARCHAR(255) NOT NULL, package_type VARCHAR(32) NOT NULL, driver_id VARCHAR(50) NOT NULL, " +
+            "shipments_created INT NOT NULL DEFAULT 0, deliveries_completed INT NOT NULL DEFAULT 0, " +
+            "on_time_deliveries INT NOT NULL DEFAULT 0, late_deliveries INT NOT NULL DEFAULT 0, " +
+            "overdue_deliveries INT NOT NULL DEFAULT 0, lateness_seconds BIGINT NOT NULL DEFAULT 0, " +
+            "updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), " +
+            "PRIMARY KEY (period_year, period_month, route, package_type, driver_id)) " +
+            "COMMENT = '" + RULES_VERSION + "'";
+
+    private static final String CREATE_FACTS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS KpiDeliveryFacts (" +
+            "delivery_id VARCHAR(50) NOT NULL PRIMARY KEY, delivered_on DATE NOT NULL, " +
+            "period_year SMALLINT NOT NULL, period_month TINYINT NOT NULL, " +
+            "route VARCHAR(255) NOT NULL, package_type VARCHAR(32) NOT NULL, driver_id VARCHAR(50) NOT NULL, " +
+            "on_time TINYINT NOT NULL, late TINYINT NOT NULL, overdue TINYINT NOT NULL, lateness_seconds BIGINT NOT NULL, " +
+            "INDEX idx_kpi_facts_period (period_year, period_month), INDEX idx_kpi_facts_delivered_on (delivered_on))";
+
+    private static final String CREATE_SHIPMENT_FACTS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS KpiShipmentFacts (" +
+            "shipment_id VARCHAR(50) NOT NULL PRIMARY KEY, " +
+            "period_year SMALLINT NOT NULL, period_month TINYINT NOT NULL, " +
+            "route VARCHAR(255) NOT NULL, package_type VARCHAR(32) NOT NULL, driver_id VARCHAR(50) NOT NULL)";
+
+    // The route is the assigned driver's current route when the shipment was created or last changed
+    private static final String SHIPMENT_FACTS_SQL =
+            "INSERT INTO KpiShipmentFacts (shipment_id, period_year, period_month, route, package_type, driver_id) " +
+            "SELECT s.shipment_id, YEAR(s.created_at), MONTH(s.created_at), COALESCE(p.current_route, ''), " +
+            AnalyticsDAO.packageTypeExpression("s.package_contents") + ", COALESCE(s.assigned_driver_id, '') " +
+            "FROM Shipments s LEFT JOIN DeliveryPersonnel p ON p.personnel_id = s.assigned_driver_id " +
+            "WHERE s.created_at IS NOT NULL {filter}";
+
+    private static final String ADD_SHIPMENT_FACTS_SQL =
+            "INSERT INTO MonthlyKpiRollup (period_year, period_month, route, package_type, driver_id, shipments_created) " +
+            "SELECT period_year, period_month, route, package_type, driver_id, COUNT(*) " +
+            "FROM KpiShipmentFacts {filter} " +
+            "GROUP BY period_year, period_month, route, package_type, driver_id " +
+            "ON DUPLICATE KEY UPDATE MonthlyKpiRollup.shipments_created = MonthlyKpiRollup.shipments_created + VALUES(shipments_created)";
+
+    private static final String SUBTRACT_SHIPMENT_FACT_SQL =
+            "UPDATE MonthlyKpiRollup r JOIN KpiShipmentFacts f ON r.period_year = f.period_year " +
+            "AND r.period_month = f.period_month AND r.route = f.route " +
+            "AND r.package_type = f.package_type AND r.driver_id = f.driver_id " +
+            "SET r.shipments_created = r.shipments_created - 1 " +
+            "WHERE f.shipment_id = ?";
+
+    // The same due-time predicates as AnalyticsDAO, so on_time + late is 1 for every fact
+    private static final String DELIVERY_FACTS_SQL =
+            "INSERT INTO KpiDeliveryFacts (delivery_id, delivered_on, period_year, period_month, route, package_type, driver_id, " +
+            "on_time, late, overdue, lateness_seconds) " +
+            "SELECT d.delivery_id, d.actual_delivery_date, YEAR(d.actual_delivery_date), MONTH(d.actual_delivery_date), COALESCE(p.current_route, ''), " +
+            AnalyticsDAO.packageTypeExpression("s.package_contents") + ", COALESCE(d.personnel_id, ''), " +
+            AnalyticsDAO.ON_TIME + ", " + AnalyticsDAO.LATE + ", " + AnalyticsDAO.OVERDUE + ", " + AnalyticsDAO.LATENESS_SECONDS + " " +
+            "FROM Deliveries d LEFT JOIN Shipments s ON s.shipment_id = d.shipment_id " +
+            "LEFT JOIN DeliveryPersonnel p ON p.personnel_id = d.personnel_id " +
+            "WHERE d.delivery_outcome = 'Successful' AND d.actual_delivery_date IS NOT NULL {filter}";
+
+    // The updated columns are qualified because KpiDeliveryFacts has a lateness_seconds column too
+    private static final String ADD_DELIVERY_FACTS_SQL =
+            "INSERT INTO MonthlyKpiRollup (period_year, period_month, route, package_type, driver_id, " +
+            "deliveries_completed, on_time_deliveries, late_deliveries, overdue_deliveries, lateness_seconds) " +
+            "SELECT period_year, period_month, route, package_type, driver_id, COUNT(*), SUM(on_time), SUM(late), SUM(overdue), " +
+            "SUM(lateness_seconds) " +
+            "FROM KpiDeliveryFacts {filter} " +
+            "GROUP BY period_year, period_month, route, package_type, driver_id " +
+            "ON DUPLICATE KEY UPDATE MonthlyKpiRollup.deliveries_completed = MonthlyKpiRollup.deliveries_completed + VALUES(deliveries_completed), " +
+            "MonthlyKpiRollup.on_time_deliveries = MonthlyKpiRollup.on_time_deliveries + VALUES(on_time_deliveries), " +
+            "MonthlyKpiRollup.late_deliveries = MonthlyKpiRollup.late_deliveries + VALUES(late_deliveries), " +
+            "MonthlyKpiRollup.overdue_deliveries = MonthlyKpiRollup.overdue_deliveries + VALUES(overdue_deliveries), " +
+            "MonthlyKpiRollup.lateness_seconds = MonthlyKpiRollup.lateness_seconds + VALUES(lateness_seconds)";
+
+    private static final String SUBTRACT_DELIVERY_FACT_SQL =
+            "UPDATE MonthlyKpiRollup r JOIN KpiDeliveryFacts f ON r.period_year = f.period_year " +
+            "AND r.period_month = f.period_month AND r.route = f.route " +
+            "AND r.package_type = f.package_type AND r.driver_id = f.driver_id " +
+            "SET r.deliveries_completed = r.deliveries_completed - 1, r.on_time_deliveries = r.on_time_deliveries - f.on_time, " +
+            "r.late_deliveries = r.late_deliveries - f.late, r.overdue_deliveries = r.overdue_deliveries - f.overdue, " +
+            "r.lateness_seconds = r.lateness_seconds - f.lateness_seconds " +
+            "WHERE f.delivery_id = ?";
+
+    private static final String MONTHLY_LATENESS_BUCKETS_SQL =
+            "SELECT route, driver_id, " + AnalyticsDAO.latenessBucketExpression("lateness_seconds") + " AS bucket, " +
+            "COUNT(*) AS deliveries FROM KpiDeliveryFacts WHERE period_year = ? AND period_month = ? " +
+            "GROUP BY route, driver_id, bucket";
+
+    // The same buckets over any range of days, for the partial months at the ends of a custom period
+    private static final String LATENESS_BUCKETS_SQL =
+            "SELECT route, driver_id, " + AnalyticsDAO.latenessBucketExpression("lateness_seconds") + " AS bucket, " +
+            "COUNT(*) AS deliveries FROM KpiDeliveryFacts WHERE delivered_on BETWEEN ? AND ? " +
+            "GROUP BY route, driver_id, bucket";
+
+    // Changes whenever a group of the month is added or changed, by this client or any other
+    private static final String MONTH_VERSION_SQL =
+            "SELECT COUNT(*) AS rollup_groups, MAX(updated_at) AS last_updated FROM MonthlyKpiRollup " +
+            "WHERE period_year = ? AND period_month = ?";
+
+    private static final String MONTHLY_ROLLUPS_SQL =
+            "SELECT * FROM MonthlyKpiRollup WHERE period_year = ? AND period_month = ? " +
+            "ORDER BY route, package_type, driver_id";
+
+    private static final int CLOSED_MONTH_CACHE_SIZE = 120; // Ten years of monthly reports
+
+    // Each entry carries the version of the month it was read at, so changes from other clients are noticed
+    private static final FrequencyCache<YearMonth, VersionedMonth<List<KpiRollup>>> CLOSED_MONTH_CACHE =
+            new FrequencyCache<>(CLOSED_MONTH_CACHE_SIZE);
+
+    private static final FrequencyCache<YearMonth, VersionedMonth<List<LatenessBucketCount>>> CLOSED_MONTH_LATENESS_CACHE =
+            new FrequencyCache<>(CLOSED_MONTH_CACHE_SIZE);
+
+    /**
+     * The state of one month's rollup groups: how many there are and when the last one changed.
+     * Rows are only ever added or updated between rebuilds, so equal versions mean equal contents.
+     */
+    private record MonthVersion(long rollupGroups, Timestamp lastUpdated) {
+    }
+
+    private record VersionedMonth<T>(MonthVersion version, T value) {
+    }
+
+    private static volatile boolean tablesReady;
+
+    /**
+     * Creates the rollup tables on first use and, if they did not exist yet or were computed under
+     * older rules, fills them from the existing shipments and deliveries. Tables from older rules
+     * are dropped first, as their columns may differ too. It uses a connection of its own, outside
+     * any unit of work, so call it before starting a unit of work that writes to the rollup.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static void ensureTables() throws SQLException {
+        if (tablesReady) {
+            return;
+        }
+        synchronized (KpiRollupDAO.class) {
+            if (tablesReady) {
+                return;
+            }
+            Connection conn = null;
+            Statement stmt = null;
+            ResultSet rs = null;
+            try {
+                conn = DatabaseConnection.getPool().getConnection();
+                DatabaseMetaData metaData = conn.getMetaData();
+                rs = metaData.getTables(conn.getCatalog(), null, "MonthlyKpiRollup", new String[]{"TABLE"});
+                boolean exists = rs.next();
+                boolean current = exists && RULES_VERSION.equals(rs.getString("REMARKS"));
+                stmt = conn.createStatement();
+                if (exists && !current) {
+                    dropTables(stmt);
+                }
+                createTables(stmt);
+                if (!current) {
+                    rebuild(conn);
+                }
+                tablesReady = true;
+            } finally {
+                DatabaseConnection.closeConnection(rs);
+                DatabaseConnection.closeConnection(stmt);
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the whole rollup from the shipments and deliveries in the database, in one transaction,
+     * into freshly created tables. Must not be called inside a unit of work.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void rebuildRollups() throws SQLException {
+        Connection conn = null;
+        Statement stmt = null;
+        try {
+            conn = DatabaseConnection.getPool().getConnection();
+            stmt = conn.createStatement();
+            dropTables(stmt);
+            createTables(stmt);
+            rebuild(conn);
+            tablesReady = true;
+        } finally {
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn); // The pool restores auto-commit
+        }
+    }
+
+    private static void createTables(Statement stmt) throws SQLException {
+        stmt.executeUpdate(CREATE_ROLLUP_TABLE_SQL);
+        stmt.executeUpdate(CREATE_FACTS_TABLE_SQL);
+        stmt.executeUpdate(CREATE_SHIPMENT_FACTS_TABLE_SQL);
+    }
+
+    private static void dropTables(Statement stmt) throws SQLException {
+        stmt.executeUpdate("DROP TABLE IF EXISTS MonthlyKpiRollup, KpiDeliveryFacts, KpiShipmentFacts");
+    }
+
+    /**
+     * Clears the tables and refills them with one INSERT ... SELECT each, committing once at the end.
+     */
+    private static void rebuild(Connection conn) throws SQLException {
+        Statement stmt = null;
+        try {
+            conn.setAutoCommit(false);
+            stmt = conn.createStatement();
+            stmt.executeUpdate("DELETE FROM KpiDeliveryFacts");
+            stmt.executeUpdate("DELETE FROM KpiShipmentFacts");
+            stmt.executeUpdate("DELETE FROM MonthlyKpiRollup");
+            stmt.executeUpdate(withFilter(SHIPMENT_FACTS_SQL, ""));
+            stmt.executeUpdate(withFilter(ADD_SHIPMENT_FACTS_SQL, ""));
+            stmt.executeUpdate(withFilter(DELIVERY_FACTS_SQL, ""));
+            stmt.executeUpdate(withFilter(ADD_DELIVERY_FACTS_SQL, ""));
+            conn.commit();
+            invalidateCaches();
+            stmt.executeUpdate("ALTER TABLE MonthlyKpiRollup COMMENT = '" + RULES_VERSION + "'"); // After the commit, as DDL commits implicitly
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("Error rolling back KPI rollup rebuild: " + rollbackError.getMessage());
+            }
+            throw e;
+        } finally {
+            DatabaseConnection.closeConnection(stmt);
+        }
+    }
+
+    /**
+     * Fills in the {filter} slot of one of the statements above. (String.format would trip over the LIKE patterns.)
+     */
+    private static String withFilter(String sql, String filter) {
+        return sql.replace("{filter}", filter);
+    }
+
+    /**
+     * Counts newly inserted shipments into the rollup, on the connection that inserted them so
+     * both are committed together.
+     * @param conn The connection (and transaction) the shipments were inserted on.
+     * @param shipmentIds The IDs of the inserted shipments.
+     * @throws SQLException if a database access error occurs.
+     */
+    static void recordShipmentsCreated(Connection conn, List<String> shipmentIds) throws SQLException {
+        for (int start = 0; start < shipmentIds.size(); start += InListQuery.MAX_IN_LIST_SIZE) {
+            List<String> chunk = shipmentIds.subList(start, Math.min(start + InListQuery.MAX_IN_LIST_SIZE, shipmentIds.size()));
+            String inList = "IN (" + InListQuery.placeholderList(chunk.size()) + ")";
+            executeForShipments(conn, withFilter(SHIPMENT_FACTS_SQL, "AND s.shipment_id " + inList), chunk);
+            executeForShipments(conn, withFilter(ADD_SHIPMENT_FACTS_SQL, "WHERE shipment_id " + inList), chunk);
+        }
+    }
+
+    /**
+     * Moves a shipment's count to the group it belongs to now, after its contents or driver were
+     * changed, on the connection that changed it so both are committed together.
+     * @param conn The connection (and transaction) the shipment was updated on.
+     * @param shipmentId The ID of the shipment.
+     * @throws SQLException if a database access error occurs.
+     */
+    static void recordShipmentChanged(Connection conn, String shipmentId) throws SQLException {
+        retractShipment(conn, shipmentId);
+        recordShipmentsCreated(conn, List.of(shipmentId));
+    }
+
+    /**
+     * Takes a shipment's count out of the rollup, on the connection that deletes the shipment.
+     * @param conn The connection (and transaction) the shipment is deleted on.
+     * @param shipmentId The ID of the shipment.
+     * @throws SQLException if a database access error occurs.
+     */
+    static void retractShipment(Connection conn, String shipmentId) throws SQLException {
+        invalidateClosedMonths(); // The shipment may have been created in any month
+        executeForShipments(conn, SUBTRACT_SHIPMENT_FACT_SQL, List.of(shipmentId));
+        executeForShipments(conn, "DELETE FROM KpiShipmentFacts WHERE shipment_id = ?", List.of(shipmentId));
+    }
+
+    private static void executeForShipments(Connection conn, String sql, List<String> shipmentIds) throws SQLException {
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            for (int i = 0; i < shipmentIds.size(); i++) {
+                pstmt.setString(i + 1, shipmentIds.get(i));
+            }
+            pstmt.executeUpdate();
+        } finally {
+            DatabaseConnection.closeConnection(pstmt);
+        }
+    }
+
+    /**
+     * Brings the rollup in line with the outcome just recorded for a delivery: its previous
+     * contribution, if any, is taken out and a successful outcome is counted in the month of its
+     * actual delivery date. Call it inside the unit of work that recorded the outcome.
+     * @param deliveryId The ID of the delivery.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void recordDeliveryOutcome(String deliveryId) throws SQLException {
+        ensureTables();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            retract(conn, deliveryId);
+            executeForDelivery(conn, withFilter(DELIVERY_FACTS_SQL, "AND d.delivery_id = ?"), deliveryId);
+            executeForDelivery(conn, withFilter(ADD_DELIVERY_FACTS_SQL, "WHERE delivery_id = ?"), deliveryId);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Takes a delivery's contribution out of the rollup, before the delivery is deleted.
+     * Call it inside the unit of work that deletes the delivery.
+     * @param deliveryId The ID of the delivery.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void retractDelivery(String deliveryId) throws SQLException {
+        ensureTables();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            retract(conn, deliveryId);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static void retract(Connection conn, String deliveryId) throws SQLException {
+        invalidateClosedMonths(); // The outcome may move a delivery into or out of any month
+        executeForDelivery(conn, SUBTRACT_DELIVERY_FACT_SQL, deliveryId);
+        executeForDelivery(conn, "DELETE FROM KpiDeliveryFacts WHERE delivery_id = ?", deliveryId);
+    }
+
+    private static void executeForDelivery(Connection conn, String sql, String deliveryId) throws SQLException {
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, deliveryId);
+            pstmt.executeUpdate();
+        } finally {
+            DatabaseConnection.closeConnection(pstmt);
+        }
+    }
+
+    /**
+     * Retrieves the rollup groups of one month. Months that ended more than a day ago are served from
+     * the cache while the month's version in the database is unchanged; the current month is always
+     * read from the database.
+     * @param year The calendar year.
+     * @param month The month of the year (1-12).
+     * @return The groups, ordered by route, package type and driver; empty if nothing happened that month.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<KpiRollup> getMonthlyRollups(int year, int month) throws SQLException {
+        ensureTables();
+        YearMonth period = YearMonth.of(year, month);
+        if (isClosed(period) && !UnitOfWork.isActive()) {
+            return getClosedMonth(CLOSED_MONTH_CACHE, period, this::loadMonthlyRollups);
+        }
+        return loadMonthlyRollups(period);
+    }
+
+    /**
+     * Retrieves the lateness histogram buckets of one month's successful deliveries, per route and
+     * driver; cached like {@link #getMonthlyRollups(int, int)}.
+     * @param year The calendar year.
+     * @param month The month of the year (1-12).
+     * @return The non-empty buckets.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<LatenessBucketCount> getMonthlyLatenessBuckets(int year, int month) throws SQLException {
+        ensureTables();
+        YearMonth period = YearMonth.of(year, month);
+        if (isClosed(period) && !UnitOfWork.isActive()) {
+            return getClosedMonth(CLOSED_MONTH_LATENESS_CACHE, period, this::loadMonthlyLatenessBuckets);
+        }
+        return loadMonthlyLatenessBuckets(period);
+    }
+
+    /**
+     * Serves a closed month from a cache if it was read at the month's current version, and reads
+     * and caches it otherwise. The version is read first, so a change made while the month is being
+     * read leaves an entry whose version is already out of date.
+     */
+    private static <T> T getClosedMonth(FrequencyCache<YearMonth, VersionedMonth<T>> cache, YearMonth period,
+                                        FrequencyCache.Loader<YearMonth, T, SQLException> loader) throws SQLException {
+        MonthVersion version = loadMonthVersion(period);
+        VersionedMonth<T> cached = cache.getIfPresent(period);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.value();
+        }
+        long stamp = cache.getInvalidationStamp();
+        T value = loader.load(period);
+        cache.putIfNotInvalidated(period, new VersionedMonth<>(version, value), stamp);
+        return value;
+    }
+
+    private static MonthVersion loadMonthVersion(YearMonth period) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(MONTH_VERSION_SQL);
+            pstmt.setInt(1, period.getYear());
+            pstmt.setInt(2, period.getMonthValue());
+            rs = pstmt.executeQuery();
+            rs.next(); // An aggregate without GROUP BY always returns one row
+            return new MonthVersion(rs.getLong("rollup_groups"), rs.getTimestamp("last_updated"));
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Retrieves the lateness histogram buckets of the successful deliveries made within a period, per
+     * route and driver. Like the monthly buckets they are read from the delivery facts, so a delivery
+     * keeps the route it was recorded under whichever way the period is cut.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @return The non-empty buckets.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<LatenessBucketCount> getLatenessBuckets(Date startDate, Date endDate) throws SQLException {
+        ensureTables();
+        List<LatenessBucketCount> buckets = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(LATENESS_BUCKETS_SQL);
+            pstmt.setDate(1, startDate);
+            pstmt.setDate(2, endDate);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                buckets.add(new LatenessBucketCount(rs.getString("route"), rs.getString("driver_id"),
+                        rs.getInt("bucket"), rs.getLong("deliveries")));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return buckets;
+    }
+
+    /**
+     * Tells whether a month ended more than a day ago. The day of margin covers the difference
+     * between the local and the database clock.
+     */
+    private static boolean isClosed(YearMonth period) {
+        return period.isBefore(YearMonth.from(LocalDate.now().minusDays(1)));
+    }
+
+    private List<LatenessBucketCount> loadMonthlyLatenessBuckets(YearMonth period) throws SQLException {
+        List<LatenessBucketCount> buckets = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(MONTHLY_LATENESS_BUCKETS_SQL);
+            pstmt.setInt(1, period.getYear());
+            pstmt.setInt(2, period.getMonthValue());
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                buckets.add(new LatenessBucketCount(rs.getString("route"), rs.getString("driver_id"),
+                        rs.getInt("bucket"), rs.getLong("deliveries")));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return List.copyOf(buckets);
+    }
+
+    private List<KpiRollup> loadMonthlyRollups(YearMonth period) throws SQLException {
+        List<KpiRollup> rollups = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(MONTHLY_ROLLUPS_SQL);
+            pstmt.setInt(1, period.getYear());
+            pstmt.setInt(2, period.getMonthValue());
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rollups.add(new KpiRollup(rs.getInt("period_year"), rs.getInt("period_month"),
+                        rs.getString("route"), rs.getString("package_type"), rs.getString("driver_id"),
+                        rs.getLong("shipments_created"), rs.getLong("deliveries_completed"),
+                        rs.getLong("on_time_deliveries"), rs.getLong("late_deliveries"),
+                        rs.getLong("overdue_deliveries"), rs.getLong("lateness_seconds")));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return List.copyOf(rollups); // Shared through the cache
+    }
+
+    /**
+     * Drops the cached months now and, inside a unit of work, once more after it ends, so a read
+     * racing with the commit cannot leave stale groups behind.
+     */
+    private static void invalidateClosedMonths() {
+        invalidateCaches();
+        UnitOfWork.runAfterCompletion(KpiRollupDAO::invalidateCaches);
+    }
+
+    private static void invalidateCaches() {
+        CLOSED_MONTH_CACHE.invalidateAll();
+        CLOSED_MONTH_LATENESS_CACHE.invalidateAll();
+    }
+}
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) for the Notification entity.
@@ -19,6 +20,10 @@ import java.util.List;
  */
 public class NotificationDAO {
 
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO Notifications (notification_id, shipment_id, personnel_id, " +
+            "customer_contact, message_content, notification_type, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     /**
      * Adds a new notification record to the database.
      * @param notification The Notification object to be added.
@@ -26,21 +31,12 @@ public class NotificationDAO {
      * @throws SQLException if a database access error occurs.
      */
     public boolean addNotification(Notification notification) throws SQLException {
-        String sql = "INSERT INTO Notifications (notification_id, shipment_id, personnel_id, " +
-                "customer_contact, message_content, notification_type, status) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
         Connection conn = null;
         PreparedStatement pstmt = null;
         try {
             conn = DatabaseConnection.getConnection();
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, notification.getNotificationId());
-            pstmt.setString(2, notification.getShipmentId());   // Can be null
-            pstmt.setString(3, notification.getPersonnelId());  // Can be null
-            pstmt.setString(4, notification.getCustomerContact());
-            pstmt.setString(5, notification.getMessageContent());
-            pstmt.setString(6, notification.getNotificationType());
-            pstmt.setString(7, notification.getStatus());
+            pstmt = conn.prepareStatement(INSERT_NOTIFICATION_SQL);
+            bindNotificationInsert(pstmt, notification);
 
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
@@ -50,6 +46,29 @@ public class NotificationDAO {
         }
     }
 
+    /**
+     * Adds many notification records using JDBC batching, with the default batch size.
+     * @param notifications The Notification objects to be added.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addNotifications(List<Notification> notifications) throws SQLException {
+        return addNotifications(notifications, BatchInserter.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Adds many notification records using JDBC batching.
+     * Each batch is sent as a multi-row INSERT and committed in its own transaction; rows rejected
+     * by the database are reported in the result while the rest of their batch is still committed.
+     * @param notifications The Notification objects to be added.
+     * @param batchSize The number of rows per batch and per transaction.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addNotifications(List<Notification> notifications, int batchSize) throws SQLException {
+        return BatchInserter.insertAll(INSERT_NOTIFICATION_SQL, notifications, batchSize, this::bindNotificationInsert);
+    }
+
     /**
      * Retrieves a notification record from the database by its ID.
      * @param notificationId The unique ID of the notification to retrieve.
@@ -69,15 +88,7 @@ public class NotificationDAO {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                notification = new Notification();
-                notification.setNotificationId(rs.getString("notification_id"));
-                notification.setShipmentId(rs.getString("shipment_id"));
-                notification.setPersonnelId(rs.getString("personnel_id"));
-                notification.setCustomerContact(rs.getString("customer_contact"));
-                notification.setMessageContent(rs.getString("message_content"));
-                notification.setNotificationType(rs.getString("notification_type"));
-                notification.setStatus(rs.getString("status"));
-                notification.setTimestamp(rs.getTimestamp("timestamp"));
+                notification = mapNotification(rs);
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -106,16 +117,7 @@ public class NotificationDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Notification notification = new Notification();
-                notification.setNotificationId(rs.getString("notification_id"));
-                notification.setShipmentId(rs.getString("shipment_id"));
-                notification.setPersonnelId(rs.getString("personnel_id"));
-                notification.setCustomerContact(rs.getString("customer_contact"));
-                notification.setMessageContent(rs.getString("message_content"));
-                notification.setNotificationType(rs.getString("notification_type"));
-                notification.setStatus(rs.getString("status"));
-                notification.setTimestamp(rs.getTimestamp("timestamp"));
-                notifications.add(notification);
+                notifications.add(mapNotification(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -144,16 +146,7 @@ public class NotificationDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Notification notification = new Notification();
-                notification.setNotificationId(rs.getString("notification_id"));
-                notification.setShipmentId(rs.getString("shipment_id"));
-                notification.setPersonnelId(rs.getString("personnel_id"));
-                notification.setCustomerContact(rs.getString("customer_contact"));
-                notification.setMessageContent(rs.getString("message_content"));
-                notification.setNotificationType(rs.getString("notification_type"));
-                notification.setStatus(rs.getString("status"));
-                notification.setTimestamp(rs.getTimestamp("timestamp"));
-                notifications.add(notification);
+                notifications.add(mapNotification(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -233,16 +226,7 @@ public class NotificationDAO {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                Notification notification = new Notification();
-                notification.setNotificationId(rs.getString("notification_id"));
-                notification.setShipmentId(rs.getString("shipment_id"));
-                notification.setPersonnelId(rs.getString("personnel_id"));
-                notification.setCustomerContact(rs.getString("customer_contact"));
-                notification.setMessageContent(rs.getString("message_content"));
-                notification.setNotificationType(rs.getString("notification_type"));
-                notification.setStatus(rs.getString("status"));
-                notification.setTimestamp(rs.getTimestamp("timestamp"));
-                notifications.add(notification);
+                notifications.add(mapNotification(rs));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
@@ -251,4 +235,63 @@ public class NotificationDAO {
         }
         return notifications;
     }
+
+    /**
+     * Streams every notification record to the given action, one row at a time.
+     * Unlike getAll*, rows are not collected into a list, so memory use stays constant
+     * regardless of table size. The connection is held until the walk completes.
+     * @param action Called once per notification record, in table order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachNotification(Consumer<? super Notification> action) throws SQLException {
+        String sql = "SELECT * FROM Notifications";
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.createStreamingStatement(conn);
+            rs = stmt.executeQuery(sql);
+
+            while (rs.next()) {
+                action.accept(mapNotification(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Maps the current row of a Notifications result set to a Notification object.
+     * @param rs The result set, positioned on a row.
+     * @return The mapped Notification.
+     * @throws SQLException if a column cannot be read.
+     */
+    private Notification mapNotification(ResultSet rs) throws SQLException {
+        Notification notification = new Notification();
+        notification.setNotificationId(rs.getString("notification_id"));
+        notification.setShipmentId(rs.getString("shipment_id"));
+        notification.setPersonnelId(rs.getString("personnel_id"));
+        notification.setCustomerContact(rs.getString("customer_contact"));
+        notification.setMessageContent(rs.getString("message_content"));
+        notification.setNotificationType(rs.getString("notification_type"));
+        notification.setStatus(rs.getString("status"));
+        notification.setTimestamp(rs.getTimestamp("timestamp"));
+        return notification;
+    }
+
+    /**
+     * Binds the columns of the INSERT statement for one notification.
+     */
+    private void bindNotificationInsert(PreparedStatement pstmt, Notification notification) throws SQLException {
+        pstmt.setString(1, notification.getNotificationId());
+        pstmt.setString(2, notification.getShipmentId());   // Can be null
+        pstmt.setString(3, notification.getPersonnelId());  // Can be null
+        pstmt.setString(4, notification.getCustomerContact());
+        pstmt.setString(5, notification.getMessageContent());
+        pstmt.setString(6, notification.getNotificationType());
+        pstmt.setString(7, notification.getStatus());
+    }
 }
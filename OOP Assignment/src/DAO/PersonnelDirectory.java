@@ -0,0 +1,330 @@
+// dao/PersonnelDirectory.java
+package DAO;
+
+import Model.AvailabilityStatus;
+import Model.DeliveryPersonnel;
+import Model.PersonnelSummary;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of the 'DeliveryPersonnel' table.
+ * The table is small but read constantly, so it is loaded once and then kept fresh by polling
+ * for rows whose updated_at moved past the newest timestamp seen so far. Secondary indexes by
+ * availability status and current route answer questions such as "all Available drivers"
+ * without a query. Polling cannot see deletes, so the directory is also reloaded in full now
+ * and then, and {@link DeliveryPersonnelDAO} refreshes it right after its own writes.
+ * Readers always see a consistent, immutable snapshot; callers receive copies they may modify.
+ * Subscribed {@link RepositoryListener}s are told whenever the snapshot changes, so every panel
+ * showing personnel is redrawn from this one copy.
+ */
+public class PersonnelDirectory {
+
+    // --- Refresh Configuration ---
+    private static final long POLL_INTERVAL_MS = 5_000; // How often to look for changed rows
+    private static final long FULL_RELOAD_INTERVAL_MS = 5 * 60_000; // How often to reload everything (catches deletes)
+    private static final long POLL_OVERLAP_MS = 5_000; // Re-read this far behind the watermark, for late commits
+
+    private static volatile PersonnelDirectory instance; // Created lazily by getInstance()
+    private static final List<RepositoryListener> listeners = new CopyOnWriteArrayList<>(); // Kept across failed loads
+
+    private final DeliveryPersonnelDAO personnelDAO;
+    private final ScheduledExecutorService poller;
+    private volatile Snapshot snapshot;
+    private long lastFullReloadAt;
+
+    /**
+     * Immutable view of the directory at one point in time.
+     */
+    private static final class Snapshot {
+        final Map<String, DeliveryPersonnel> byId; // Ordered by personnel ID
+        final Map<String, List<String>> idsByStatus;
+        final Map<String, List<String>> idsByRoute;
+        final Timestamp watermark; // Newest updated_at/created_at seen
+
+        Snapshot(TreeMap<String, DeliveryPersonnel> byId) {
+            Map<String, List<String>> byStatus = new HashMap<>();
+            Map<String, List<String>> byRoute = new HashMap<>();
+            Timestamp newest = null;
+            for (DeliveryPersonnel personnel : byId.values()) {
+                if (personnel.getAvailabilityStatus() != null) {
+                    byStatus.computeIfAbsent(personnel.getAvailabilityStatus(), k -> new ArrayList<>()).add(personnel.getPersonnelId());
+                }
+                if (personnel.getCurrentRoute() != null) {
+                    byRoute.computeIfAbsent(personnel.getCurrentRoute(), k -> new ArrayList<>()).add(personnel.getPersonnelId());
+                }
+                newest = newer(newest, newer(personnel.getUpdatedAt(), personnel.getCreatedAt()));
+            }
+            this.byId = Collections.unmodifiableMap(byId);
+            this.idsByStatus = byStatus;
+            this.idsByRoute = byRoute;
+            this.watermark = newest;
+        }
+
+        private static Timestamp newer(Timestamp a, Timestamp b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null || a.after(b) ? a : b;
+        }
+    }
+
+    private PersonnelDirectory(DeliveryPersonnelDAO personnelDAO) {
+        this.personnelDAO = personnelDAO;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "personnel-directory-poller");
+            t.setDaemon(true); // Must not keep the Swing application alive
+            return t;
+        });
+    }
+
+    /**
+     * Returns the shared directory, loading it and starting the background poller on first use.
+     * @return The application-wide `PersonnelDirectory`.
+     * @throws SQLException if the initial load fails (a later call tries again).
+     */
+    public static PersonnelDirectory getInstance() throws SQLException {
+        PersonnelDirectory current = instance;
+        if (current == null) {
+            synchronized (PersonnelDirectory.class) {
+                current = instance;
+                if (current == null) {
+                    current = new PersonnelDirectory(new DeliveryPersonnelDAO());
+                    current.reload();
+                    current.poller.scheduleWithFixedDelay(current::refreshQuietly,
+                            POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the shared directory only if it has already been loaded.
+     * @return The directory, or null if it has not been loaded yet.
+     */
+    static PersonnelDirectory getIfLoaded() {
+        return instance;
+    }
+
+    // --- Refreshing ---
+
+    /**
+     * Reloads the whole table.
+     * @throws SQLException if a database access error occurs.
+     */
+    public synchronized void reload() throws SQLException {
+        TreeMap<String, DeliveryPersonnel> byId = new TreeMap<>();
+        personnelDAO.forEachPersonnel(personnel -> byId.put(personnel.getPersonnelId(), personnel));
+        snapshot = new Snapshot(byId);
+        lastFullReloadAt = System.currentTimeMillis();
+        fireChanged();
+    }
+
+    /**
+     * Applies the rows changed since the last refresh, or reloads everything when a full reload is due.
+     * @throws SQLException if a database access error occurs.
+     */
+    public synchronized void refresh() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null || current.watermark == null
+                || System.currentTimeMillis() - lastFullReloadAt >= FULL_RELOAD_INTERVAL_MS) {
+            reload();
+            return;
+        }
+        Timestamp since = new Timestamp(current.watermark.getTime() - POLL_OVERLAP_MS);
+        List<DeliveryPersonnel> changed = personnelDAO.getPersonnelModifiedSince(since);
+        if (changed.isEmpty()) {
+            return;
+        }
+        TreeMap<String, DeliveryPersonnel> byId = null; // Only copied once something really changed
+        for (DeliveryPersonnel personnel : changed) {
+            if (sameRow(current.byId.get(personnel.getPersonnelId()), personnel)) {
+                continue; // Re-read because of the overlap window
+            }
+            if (byId == null) {
+                byId = new TreeMap<>(current.byId);
+            }
+            byId.put(personnel.getPersonnelId(), personnel);
+        }
+        if (byId != null) {
+            snapshot = new Snapshot(byId);
+            fireChanged();
+        }
+    }
+
+    private static boolean sameRow(DeliveryPersonnel a, DeliveryPersonnel b) {
+        return a != null
+                && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getContactNumber(), b.getContactNumber())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && Objects.equals(a.getVehicleDetails(), b.getVehicleDetails())
+                && Objects.equals(a.getAvailabilityStatus(), b.getAvailabilityStatus())
+                && Objects.equals(a.getCurrentRoute(), b.getCurrentRoute());
+    }
+
+    /**
+     * Same as {@link #refresh()}, but logs failures instead of throwing. Used by the poller and after writes.
+     */
+    void refreshQuietly() {
+        try {
+            refresh();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error refreshing personnel directory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Same as {@link #reload()}, but logs failures instead of throwing. Used after deletes.
+     */
+    void reloadQuietly() {
+        try {
+            reload();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error reloading personnel directory: " + e.getMessage());
+        }
+    }
+
+    // --- Change Notification ---
+
+    /**
+     * Subscribes to change notifications. May be called before the directory is loaded.
+     * Listeners are called on the thread that changed the directory, often the background poller.
+     * @param listener The listener to add.
+     */
+    public static void addListener(RepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes from change notifications.
+     * @param listener The listener to remove.
+     */
+    public static void removeListener(RepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static void fireChanged() {
+        for (RepositoryListener listener : listeners) {
+            listener.repositoryChanged();
+        }
+    }
+
+    /**
+     * Stops the background poller. The directory keeps answering from its last snapshot.
+     */
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    // --- Lookups ---
+
+    /**
+     * @param personnelId The ID of the personnel.
+     * @return A copy of the personnel, or null if unknown.
+     */
+    public DeliveryPersonnel getById(String personnelId) {
+        return personnelId == null ? null : copyOf(snapshot.byId.get(personnelId));
+    }
+
+    /**
+     * @param personnelIds The IDs of the personnel (nulls and unknown IDs are ignored).
+     * @return A map from personnel ID to a copy of the personnel.
+     */
+    public Map<String, DeliveryPersonnel> getByIds(Iterable<String> personnelIds) {
+        Snapshot current = snapshot;
+        Map<String, DeliveryPersonnel> result = new HashMap<>();
+        for (String personnelId : personnelIds) {
+            DeliveryPersonnel personnel = personnelId == null ? null : current.byId.get(personnelId);
+            if (personnel != null) {
+                result.put(personnelId, copyOf(personnel));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Copies of all personnel, ordered by ID.
+     */
+    public List<DeliveryPersonnel> getAll() {
+        List<DeliveryPersonnel> result = new ArrayList<>();
+        for (DeliveryPersonnel personnel : snapshot.byId.values()) {
+            result.add(copyOf(personnel));
+        }
+        return result;
+    }
+
+    /**
+     * @param availabilityStatus The availability status, e.g. "Available".
+     * @return Copies of the personnel with that status, ordered by ID.
+     */
+    public List<DeliveryPersonnel> getByAvailabilityStatus(String availabilityStatus) {
+        Snapshot current = snapshot;
+        return copiesOf(current, current.idsByStatus.get(availabilityStatus));
+    }
+
+    /**
+     * @param currentRoute The route name.
+     * @return Copies of the personnel currently on that route, ordered by ID.
+     */
+    public List<DeliveryPersonnel> getByCurrentRoute(String currentRoute) {
+        Snapshot current = snapshot;
+        return copiesOf(current, current.idsByRoute.get(currentRoute));
+    }
+
+    /**
+     * @param assignableOnly If true, personnel who are "Off Duty" or "On Leave" are left out.
+     * @return ID, name and status of the personnel, ordered by ID.
+     */
+    public List<PersonnelSummary> getSummaries(boolean assignableOnly) {
+        List<PersonnelSummary> result = new ArrayList<>();
+        for (DeliveryPersonnel personnel : snapshot.byId.values()) {
+            AvailabilityStatus status = personnel.getAvailabilityStatusCode();
+            if (assignableOnly && status != null && !status.isAssignable()) {
+                continue;
+            }
+            result.add(new PersonnelSummary(personnel.getPersonnelId(), personnel.getName(), personnel.getAvailabilityStatus()));
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of personnel in the directory.
+     */
+    public int size() {
+        return snapshot.byId.size();
+    }
+
+    private static List<DeliveryPersonnel> copiesOf(Snapshot current, List<String> ids) {
+        List<DeliveryPersonnel> result = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids) {
+                result.add(copyOf(current.byId.get(id)));
+            }
+        }
+        return result;
+    }
+
+    private static DeliveryPersonnel copyOf(DeliveryPersonnel personnel) {
+        if (personnel == null) {
+            return null;
+        }
+        return new DeliveryPersonnel(personnel.getPersonnelId(), personnel.getName(), personnel.getContactNumber(),
+                personnel.getEmail(), personnel.getVehicleDetails(), personnel.getAvailabilityStatus(),
+                personnel.getCurrentRoute(), personnel.getCreatedAt(), personnel.getUpdatedAt());
+    }
+}
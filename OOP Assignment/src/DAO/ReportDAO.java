@@ -2,6 +2,7 @@
 package DAO;
 
 import Model.Report;
+import util.CompressedText;
 import util.DatabaseConnection;
 
 import java.sql.Connection;
@@ -21,7 +22,7 @@ import java.sql.Timestamp;
 public class ReportDAO {
 
     /**
-     * Adds a new report to the database.
+     * Adds a new report to the database. The report data is stored compressed (see {@link CompressedText}).
      * @param report The Report object to add.
      * @return true if the report was added successfully, false otherwise.
      * @throws SQLException If a database access error occurs.
@@ -41,7 +42,7 @@ public class ReportDAO {
             pstmt.setDate(5, report.getEndDate());
             pstmt.setString(6, report.getGeneratedBy());
             pstmt.setString(7, report.getReportType()); // NEW: Set report type
-            pstmt.setString(8, report.getReportData());
+            pstmt.setString(8, CompressedText.compress(report.getReportData()));
             pstmt.setTimestamp(9, new Timestamp(System.currentTimeMillis())); // Set created_at
             pstmt.setTimestamp(10, new Timestamp(System.currentTimeMillis())); // Set updated_at
 
@@ -80,7 +81,7 @@ public class ReportDAO {
                 report.setEndDate(rs.getDate("end_date"));
                 report.setGeneratedBy(rs.getString("generated_by"));
                 report.setReportType(rs.getString("report_type")); // NEW: Get report type
-                report.setReportData(rs.getString("report_data"));
+                report.setStoredReportData(rs.getString("report_data")); // Decompressed on first access
                 report.setCreatedAt(rs.getTimestamp("created_at"));
                 report.setUpdatedAt(rs.getTimestamp("updated_at"));
             }
@@ -93,7 +94,8 @@ public class ReportDAO {
     }
 
     /**
-     * Retrieves all reports from the database.
+     * Retrieves all reports from the database. Report data is transferred compressed and
+     * only decompressed when a report's data is read.
      * @return A list of Report objects.
      * @throws SQLException If a database access error occurs.
      */
@@ -117,7 +119,7 @@ public class ReportDAO {
                 report.setEndDate(rs.getDate("end_date"));
                 report.setGeneratedBy(rs.getString("generated_by"));
                 report.setReportType(rs.getString("report_type")); // NEW: Get report type
-                report.setReportData(rs.getString("report_data"));
+                report.setStoredReportData(rs.getString("report_data")); // Decompressed on first access
                 report.setCreatedAt(rs.getTimestamp("created_at"));
                 report.setUpdatedAt(rs.getTimestamp("updated_at"));
                 reports.add(report);
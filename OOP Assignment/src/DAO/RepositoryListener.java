@@ -0,0 +1,16 @@
+// dao/RepositoryListener.java
+package DAO;
+
+/**
+ * Notified when the data behind a shared repository has changed.
+ * Listeners may be called on any thread, and should return quickly; Swing code must move to
+ * the event thread itself (e.g. with SwingUtilities.invokeLater).
+ */
+@FunctionalInterface
+public interface RepositoryListener {
+
+    /**
+     * Called after the repository's data has changed.
+     */
+    void repositoryChanged();
+}
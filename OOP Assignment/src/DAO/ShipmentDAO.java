@@ -2,15 +2,29 @@
 package DAO; // Package declaration for the 'dao' directory
 
 import Model.Shipment; // Import the Shipment model class from the 'model' directory
+import Model.ShipmentSummary;
 import util.DatabaseConnection;
+import util.FrequencyCache;
+import util.UnitOfWork;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Data Access Object (DAO) for the Shipment entity.
@@ -19,6 +33,48 @@ import java.util.List;
  */
 public class ShipmentDAO {
 
+    private static final String INSERT_SHIPMENT_SQL = "INSERT INTO Shipments (shipment_id, sender_name, sender_address, receiver_name, " +
+            "receiver_address, package_contents, weight_kg, dimensions_cm, delivery_status, " +
+            "current_location, scheduled_delivery_date, estimated_delivery_time, assigned_driver_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Remembers deleted shipment IDs for delta readers (see getDeletedShipmentIdsSince)
+    private static final String CREATE_TOMBSTONE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS ShipmentTombstones (" +
+            "shipment_id VARCHAR(50) NOT NULL PRIMARY KEY, " +
+            "deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "INDEX idx_shipment_tombstones_deleted_at (deleted_at))";
+
+    // The delta reads range over these columns; MySQL has no CREATE INDEX IF NOT EXISTS, so they are checked first
+    private static final String[][] DELTA_INDEXES = {
+            {"idx_shipments_updated_at", "CREATE INDEX idx_shipments_updated_at ON Shipments (updated_at)"},
+            {"idx_shipments_created_at", "CREATE INDEX idx_shipments_created_at ON Shipments (created_at)"}};
+    private static volatile boolean deltaSchemaReady;
+
+    // --- Cache Configuration ---
+    private static final int SHIPMENT_CACHE_SIZE = 1_000; // Shipments kept in memory for getShipmentById
+
+    // Shared by all ShipmentDAO instances so a write through any of them invalidates it
+    private static final FrequencyCache<String, Shipment> SHIPMENT_CACHE = new FrequencyCache<>(SHIPMENT_CACHE_SIZE);
+
+    // Rejects lookups of shipment IDs that cannot exist without querying the database
+    private static final ShipmentIdFilter ID_FILTER = new ShipmentIdFilter(new ShipmentDAO());
+
+    /**
+     * Returns the shared shipment ID filter, mainly to read its statistics.
+     * @return The shipment ID filter.
+     */
+    public static ShipmentIdFilter getShipmentIdFilter() {
+        return ID_FILTER;
+    }
+
+    /**
+     * Returns the shared shipment cache, mainly to read its hit ratio and eviction statistics.
+     * @return The shipment cache.
+     */
+    public static FrequencyCache<String, Shipment> getShipmentCache() {
+        return SHIPMENT_CACHE;
+    }
+
     /**
      * Adds a new shipment record to the database.
      * @param shipment The Shipment object to be added.
@@ -26,45 +82,101 @@ public class ShipmentDAO {
      * @throws SQLException if a database access error occurs.
      */
     public boolean addShipment(Shipment shipment) throws SQLException {
-        String sql = "INSERT INTO Shipments (shipment_id, sender_name, sender_address, receiver_name, " +
-                "receiver_address, package_contents, weight_kg, dimensions_cm, delivery_status, " +
-                "current_location, scheduled_delivery_date, estimated_delivery_time, assigned_driver_id) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        ID_FILTER.recordInserted(shipment.getShipmentId()); // Before the row becomes visible
+        KpiRollupDAO.ensureTables(); // Creates the rollup tables outside the transaction
+        // The row and its KPI rollup count are written together, joining the caller's unit of work if there is one
+        UnitOfWork ownUnitOfWork = UnitOfWork.isActive() ? null : UnitOfWork.begin();
         Connection conn = null;
         PreparedStatement pstmt = null;
         try {
             conn = DatabaseConnection.getConnection(); // Get connection from DatabaseConnection utility
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, shipment.getShipmentId());
-            pstmt.setString(2, shipment.getSenderName());
-            pstmt.setString(3, shipment.getSenderAddress());
-            pstmt.setString(4, shipment.getReceiverName());
-            pstmt.setString(5, shipment.getReceiverAddress());
-            pstmt.setString(6, shipment.getPackageContents());
-            pstmt.setBigDecimal(7, shipment.getWeightKg());
-            pstmt.setString(8, shipment.getDimensionsCm());
-            pstmt.setString(9, shipment.getDeliveryStatus());
-            pstmt.setString(10, shipment.getCurrentLocation());
-            pstmt.setDate(11, shipment.getScheduledDeliveryDate());
-            pstmt.setTime(12, shipment.getEstimatedDeliveryTime());
-            pstmt.setString(13, shipment.getAssignedDriverId()); // Can be null
+            pstmt = conn.prepareStatement(INSERT_SHIPMENT_SQL);
+            bindShipmentInsert(pstmt, shipment);
 
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                KpiRollupDAO.recordShipmentsCreated(conn, List.of(shipment.getShipmentId()));
+            }
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.commit();
+            }
             return rowsAffected > 0;
         } finally {
+            invalidateCached(shipment.getShipmentId());
             // Ensure resources are closed in reverse order of creation
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.close();
+            }
         }
     }
 
     /**
-     * Retrieves a shipment record from the database by its ID.
+     * Adds many shipment records using JDBC batching, with the default batch size.
+     * @param shipments The Shipment objects to be added.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addShipments(List<Shipment> shipments) throws SQLException {
+        return addShipments(shipments, BatchInserter.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Adds many shipment records using JDBC batching.
+     * Each batch is sent as a multi-row INSERT and committed in its own transaction; rows rejected
+     * by the database are reported in the result while the rest of their batch is still committed.
+     * The KPI rollup counts of each batch are committed with it.
+     * @param shipments The Shipment objects to be added.
+     * @param batchSize The number of rows per batch and per transaction.
+     * @return The number of inserted rows and the rows that were rejected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchInsertResult addShipments(List<Shipment> shipments, int batchSize) throws SQLException {
+        for (Shipment shipment : shipments) {
+            ID_FILTER.recordInserted(shipment.getShipmentId()); // Before the rows become visible
+        }
+        KpiRollupDAO.ensureTables();
+        try {
+            return BatchInserter.insertAll(INSERT_SHIPMENT_SQL, shipments, batchSize, this::bindShipmentInsert,
+                    (conn, inserted) -> KpiRollupDAO.recordShipmentsCreated(conn,
+                            inserted.stream().map(Shipment::getShipmentId).collect(Collectors.toList())));
+        } finally {
+            invalidateAllCached();
+        }
+    }
+
+    /**
+     * Retrieves a shipment record by its ID, answering from the shipment cache when possible.
+     * IDs that the {@link ShipmentIdFilter} knows cannot exist are rejected without a query.
+     * Inside a unit of work the cache is bypassed, so uncommitted rows are never cached.
      * @param shipmentId The unique ID of the shipment to retrieve.
-     * @return The Shipment object if found, null otherwise.
+     * @return The Shipment object if found, null otherwise. The caller may modify it freely.
      * @throws SQLException if a database access error occurs.
      */
     public Shipment getShipmentById(String shipmentId) throws SQLException {
+        if (shipmentId == null || !ID_FILTER.mightExist(shipmentId)) {
+            return null; // Rejected without a query
+        }
+        if (UnitOfWork.isActive()) {
+            return loadShipmentById(shipmentId);
+        }
+        // Cached under the normalized ID, so "shp001" and "SHP001" share (and invalidate) one entry
+        Shipment shipment = copyOf(SHIPMENT_CACHE.get(ShipmentIdFilter.normalize(shipmentId),
+                key -> loadShipmentById(shipmentId)));
+        if (shipment == null) {
+            ID_FILTER.recordMissing(shipmentId);
+        }
+        return shipment;
+    }
+
+    /**
+     * Reads a shipment record from the database by its ID.
+     * @param shipmentId The unique ID of the shipment to retrieve.
+     * @return The Shipment object if found, null otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    private Shipment loadShipmentById(String shipmentId) throws SQLException {
         String sql = "SELECT * FROM Shipments WHERE shipment_id = ?";
         Connection conn = null;
         PreparedStatement pstmt = null;
@@ -77,22 +189,7 @@ public class ShipmentDAO {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                shipment = new Shipment(); // Create a new Shipment object
-                shipment.setShipmentId(rs.getString("shipment_id"));
-                shipment.setSenderName(rs.getString("sender_name"));
-                shipment.setSenderAddress(rs.getString("sender_address"));
-                shipment.setReceiverName(rs.getString("receiver_name"));
-                shipment.setReceiverAddress(rs.getString("receiver_address"));
-                shipment.setPackageContents(rs.getString("package_contents"));
-                shipment.setWeightKg(rs.getBigDecimal("weight_kg"));
-                shipment.setDimensionsCm(rs.getString("dimensions_cm"));
-                shipment.setDeliveryStatus(rs.getString("delivery_status"));
-                shipment.setCurrentLocation(rs.getString("current_location"));
-                shipment.setScheduledDeliveryDate(rs.getDate("scheduled_delivery_date"));
-                shipment.setEstimatedDeliveryTime(rs.getTime("estimated_delivery_time"));
-                shipment.setAssignedDriverId(rs.getString("assigned_driver_id"));
-                shipment.setCreatedAt(rs.getTimestamp("created_at"));
-                shipment.setUpdatedAt(rs.getTimestamp("updated_at"));
+                shipment = mapShipment(rs);
             }
         } finally {
             // Ensure resources are closed
@@ -103,6 +200,44 @@ public class ShipmentDAO {
         return shipment;
     }
 
+    /**
+     * Retrieves several shipments at once, using chunked IN-list queries instead of one query per ID.
+     * @param shipmentIds The IDs of the shipments to retrieve (nulls and duplicates are ignored).
+     * @return A map from shipment ID to Shipment; IDs that do not exist are absent.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, Shipment> getShipmentsByIds(Collection<String> shipmentIds) throws SQLException {
+        Map<String, Shipment> shipments = new HashMap<>();
+        if (UnitOfWork.isActive()) {
+            InListQuery.forEachRow("SELECT * FROM Shipments WHERE shipment_id IN", shipmentIds, rs -> {
+                Shipment shipment = mapShipment(rs);
+                shipments.put(shipment.getShipmentId(), shipment);
+            });
+            return shipments;
+        }
+
+        // Answer what we can from the cache and fetch only the rest
+        List<String> missingIds = new ArrayList<>();
+        for (String shipmentId : shipmentIds) {
+            if (shipmentId == null || !ID_FILTER.mightExist(shipmentId)) {
+                continue;
+            }
+            Shipment cached = SHIPMENT_CACHE.getIfPresent(ShipmentIdFilter.normalize(shipmentId));
+            if (cached != null) {
+                shipments.put(shipmentId, copyOf(cached));
+            } else {
+                missingIds.add(shipmentId);
+            }
+        }
+        long stamp = SHIPMENT_CACHE.getInvalidationStamp();
+        InListQuery.forEachRow("SELECT * FROM Shipments WHERE shipment_id IN", missingIds, rs -> {
+            Shipment shipment = mapShipment(rs);
+            SHIPMENT_CACHE.putIfNotInvalidated(ShipmentIdFilter.normalize(shipment.getShipmentId()), shipment, stamp);
+            shipments.put(shipment.getShipmentId(), copyOf(shipment));
+        });
+        return shipments;
+    }
+
     /**
      * Updates an existing shipment record in the database.
      * @param shipment The Shipment object with updated details.
@@ -115,6 +250,9 @@ public class ShipmentDAO {
                 "delivery_status = ?, current_location = ?, scheduled_delivery_date = ?, " +
                 "estimated_delivery_time = ?, assigned_driver_id = ?, updated_at = CURRENT_TIMESTAMP " +
                 "WHERE shipment_id = ?";
+        KpiRollupDAO.ensureTables();
+        // The row and its KPI rollup group are written together, joining the caller's unit of work if there is one
+        UnitOfWork ownUnitOfWork = UnitOfWork.isActive() ? null : UnitOfWork.begin();
         Connection conn = null;
         PreparedStatement pstmt = null;
         try {
@@ -134,9 +272,171 @@ public class ShipmentDAO {
             pstmt.setString(12, shipment.getAssignedDriverId());
             pstmt.setString(13, shipment.getShipmentId());
 
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                KpiRollupDAO.recordShipmentChanged(conn, shipment.getShipmentId()); // Contents or driver may have changed
+            }
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.commit();
+            }
+            return rowsAffected > 0;
+        } finally {
+            invalidateCached(shipment.getShipmentId());
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.close();
+            }
+        }
+    }
+
+    /**
+     * Updates only the location and delivery status of a shipment.
+     * @param shipmentId The ID of the shipment to update.
+     * @param currentLocation The new current location.
+     * @param deliveryStatus The new delivery status.
+     * @return true if the shipment was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateLocationAndStatus(String shipmentId, String currentLocation, String deliveryStatus) throws SQLException {
+        String sql = "UPDATE Shipments SET current_location = ?, delivery_status = ?, updated_at = CURRENT_TIMESTAMP " +
+                "WHERE shipment_id = ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, currentLocation);
+            pstmt.setString(2, deliveryStatus);
+            pstmt.setString(3, shipmentId);
+
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
         } finally {
+            invalidateCached(shipmentId);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Updates only the scheduled delivery date and estimated delivery time of a shipment.
+     * @param shipmentId The ID of the shipment to update.
+     * @param scheduledDeliveryDate The new scheduled delivery date.
+     * @param estimatedDeliveryTime The new estimated delivery time.
+     * @return true if the shipment was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateEta(String shipmentId, Date scheduledDeliveryDate, Time estimatedDeliveryTime) throws SQLException {
+        String sql = "UPDATE Shipments SET scheduled_delivery_date = ?, estimated_delivery_time = ?, " +
+                "updated_at = CURRENT_TIMESTAMP WHERE shipment_id = ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setDate(1, scheduledDeliveryDate);
+            pstmt.setTime(2, estimatedDeliveryTime);
+            pstmt.setString(3, shipmentId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } finally {
+            invalidateCached(shipmentId);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Assigns a driver to a shipment and sets its schedule, without touching the other columns.
+     * @param shipmentId The ID of the shipment to update.
+     * @param assignedDriverId The ID of the driver to assign.
+     * @param scheduledDeliveryDate The scheduled delivery date (can be null).
+     * @param estimatedDeliveryTime The estimated delivery time (can be null).
+     * @param deliveryStatus The new delivery status, or null to keep the current one.
+     * @param currentLocation The new current location, or null to keep the current one.
+     * @return true if the shipment was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean assignDriver(String shipmentId, String assignedDriverId, Date scheduledDeliveryDate,
+                                Time estimatedDeliveryTime, String deliveryStatus, String currentLocation) throws SQLException {
+        String sql = "UPDATE Shipments SET assigned_driver_id = ?, scheduled_delivery_date = ?, estimated_delivery_time = ?, " +
+                "delivery_status = COALESCE(?, delivery_status), current_location = COALESCE(?, current_location), " +
+                "updated_at = CURRENT_TIMESTAMP WHERE shipment_id = ?";
+        KpiRollupDAO.ensureTables();
+        // The assignment and the move to the new driver's KPI rollup group are written together
+        UnitOfWork ownUnitOfWork = UnitOfWork.isActive() ? null : UnitOfWork.begin();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, assignedDriverId);
+            pstmt.setDate(2, scheduledDeliveryDate);
+            pstmt.setTime(3, estimatedDeliveryTime);
+            pstmt.setString(4, deliveryStatus);
+            pstmt.setString(5, currentLocation);
+            pstmt.setString(6, shipmentId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                KpiRollupDAO.recordShipmentChanged(conn, shipmentId);
+            }
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.commit();
+            }
+            return rowsAffected > 0;
+        } finally {
+            invalidateCached(shipmentId);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.close();
+            }
+        }
+    }
+
+    /**
+     * Updates the delivery status of the shipment a delivery belongs to.
+     * The shipment ID is read first, on the same connection, so the row is updated by its key and only
+     * that shipment is dropped from the cache.
+     * @param deliveryId The ID of the delivery whose shipment should be updated.
+     * @param deliveryStatus The new delivery status.
+     * @return true if the shipment was updated successfully, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateStatusForDelivery(String deliveryId, String deliveryStatus) throws SQLException {
+        String selectSql = "SELECT shipment_id FROM Deliveries WHERE delivery_id = ?";
+        String updateSql = "UPDATE Shipments SET delivery_status = ?, updated_at = CURRENT_TIMESTAMP WHERE shipment_id = ?";
+        String shipmentId = null;
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(selectSql);
+            pstmt.setString(1, deliveryId);
+            rs = pstmt.executeQuery();
+            if (rs.next()) {
+                shipmentId = rs.getString("shipment_id");
+            }
+            if (shipmentId == null) {
+                return false;
+            }
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            rs = null;
+
+            pstmt = conn.prepareStatement(updateSql);
+            pstmt.setString(1, deliveryStatus);
+            pstmt.setString(2, shipmentId);
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } finally {
+            invalidateCached(shipmentId); // Ignores null, when the delivery was not found
+            DatabaseConnection.closeConnection(rs);
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
         }
@@ -150,6 +450,10 @@ public class ShipmentDAO {
      */
     public boolean deleteShipment(String shipmentId) throws SQLException {
         String sql = "DELETE FROM Shipments WHERE shipment_id = ?";
+        ensureDeltaSchema(); // DDL commits implicitly in MySQL, so it must run before the transaction starts
+        KpiRollupDAO.ensureTables();
+        // The delete, its tombstone and the KPI rollup count are written together, joining the caller's unit of work if there is one
+        UnitOfWork ownUnitOfWork = UnitOfWork.isActive() ? null : UnitOfWork.begin();
         Connection conn = null;
         PreparedStatement pstmt = null;
         try {
@@ -158,11 +462,189 @@ public class ShipmentDAO {
             pstmt.setString(1, shipmentId);
 
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                recordTombstone(conn, shipmentId);
+                KpiRollupDAO.retractShipment(conn, shipmentId);
+            }
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.commit();
+            }
             return rowsAffected > 0;
         } finally {
+            invalidateCached(shipmentId);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+            if (ownUnitOfWork != null) {
+                ownUnitOfWork.close();
+            }
+        }
+    }
+
+    /**
+     * Remembers that a shipment was deleted, so delta readers can drop it from their local copies.
+     */
+    private void recordTombstone(Connection conn, String shipmentId) throws SQLException {
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement("REPLACE INTO ShipmentTombstones (shipment_id, deleted_at) VALUES (?, CURRENT_TIMESTAMP)");
+            pstmt.setString(1, shipmentId);
+            pstmt.executeUpdate();
+        } finally {
+            DatabaseConnection.closeConnection(pstmt);
+        }
+    }
+
+    /**
+     * Creates the tombstone table and the created_at/updated_at indexes of the delta reads on first use.
+     * It uses a connection of its own, outside any unit of work. While the calling thread has a unit of
+     * work open, the indexes are left for a later call, as building one would wait for that unit's lock
+     * on the Shipments table.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static void ensureDeltaSchema() throws SQLException {
+        if (deltaSchemaReady) {
+            return;
+        }
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getPool().getConnection();
+            stmt = conn.createStatement();
+            stmt.executeUpdate(CREATE_TOMBSTONE_TABLE_SQL);
+            if (UnitOfWork.isActive()) {
+                return;
+            }
+            Set<String> indexNames = new HashSet<>();
+            rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, "Shipments", false, false);
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName != null) {
+                    indexNames.add(indexName.toLowerCase());
+                }
+            }
+            for (String[] index : DELTA_INDEXES) {
+                if (!indexNames.contains(index[0])) {
+                    stmt.executeUpdate(index[1]);
+                }
+            }
+            deltaSchemaReady = true;
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Retrieves the shipment records created or updated at or after the given time.
+     * @param since The earliest created_at/updated_at to include.
+     * @return A list of Shipment objects, ordered by ID.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Shipment> getShipmentsModifiedSince(Timestamp since) throws SQLException {
+        ensureDeltaSchema();
+        List<Shipment> shipments = new ArrayList<>();
+        // A UNION of two range scans, as an OR across two columns would not use either index
+        String sql = "SELECT * FROM Shipments WHERE updated_at >= ? " +
+                "UNION SELECT * FROM Shipments WHERE created_at >= ? ORDER BY shipment_id";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setTimestamp(1, since);
+            pstmt.setTimestamp(2, since);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                shipments.add(mapShipment(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
             DatabaseConnection.closeConnection(pstmt);
             DatabaseConnection.closeConnection(conn);
         }
+        return shipments;
+    }
+
+    /**
+     * Retrieves the IDs of the shipments deleted at or after the given time.
+     * @param since The earliest deletion time to include.
+     * @return A list of shipment IDs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<String> getDeletedShipmentIdsSince(Timestamp since) throws SQLException {
+        ensureDeltaSchema();
+        List<String> shipmentIds = new ArrayList<>();
+        String sql = "SELECT shipment_id FROM ShipmentTombstones WHERE deleted_at >= ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setTimestamp(1, since);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                shipmentIds.add(rs.getString("shipment_id"));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return shipmentIds;
+    }
+
+    /**
+     * Creates a client-side copy of the Shipments table that is kept current with
+     * {@link #getShipmentsModifiedSince} and the delete tombstones.
+     * @return A new, empty snapshot; its first sync() loads every shipment.
+     */
+    public DeltaSnapshot<Shipment> newDeltaSnapshot() {
+        return new DeltaSnapshot<>(new DeltaSnapshot.Source<Shipment>() {
+            @Override
+            public List<Shipment> loadAll() throws SQLException {
+                return getAllShipments();
+            }
+
+            @Override
+            public List<Shipment> loadModifiedSince(Timestamp since) throws SQLException {
+                return getShipmentsModifiedSince(since);
+            }
+
+            @Override
+            public List<String> loadDeletedSince(Timestamp since) throws SQLException {
+                return getDeletedShipmentIdsSince(since);
+            }
+
+            @Override
+            public Timestamp currentTime() throws SQLException {
+                return DatabaseConnection.getDatabaseTime();
+            }
+        }, Shipment::getShipmentId, ShipmentDAO::sameShipment);
+    }
+
+    /**
+     * Tells whether two versions of a shipment hold the same data.
+     */
+    private static boolean sameShipment(Shipment a, Shipment b) {
+        return Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                && Objects.equals(a.getSenderName(), b.getSenderName())
+                && Objects.equals(a.getSenderAddress(), b.getSenderAddress())
+                && Objects.equals(a.getReceiverName(), b.getReceiverName())
+                && Objects.equals(a.getReceiverAddress(), b.getReceiverAddress())
+                && Objects.equals(a.getPackageContents(), b.getPackageContents())
+                && Objects.equals(a.getWeightKg(), b.getWeightKg())
+                && Objects.equals(a.getDimensionsCm(), b.getDimensionsCm())
+                && Objects.equals(a.getDeliveryStatus(), b.getDeliveryStatus())
+                && Objects.equals(a.getCurrentLocation(), b.getCurrentLocation())
+                && Objects.equals(a.getScheduledDeliveryDate(), b.getScheduledDeliveryDate())
+                && Objects.equals(a.getEstimatedDeliveryTime(), b.getEstimatedDeliveryTime())
+                && Objects.equals(a.getAssignedDriverId(), b.getAssignedDriverId());
     }
 
     /**
@@ -182,29 +664,328 @@ public class ShipmentDAO {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                Shipment shipment = new Shipment();
-                shipment.setShipmentId(rs.getString("shipment_id"));
-                shipment.setSenderName(rs.getString("sender_name"));
-                shipment.setSenderAddress(rs.getString("sender_address"));
-                shipment.setReceiverName(rs.getString("receiver_name"));
-                shipment.setReceiverAddress(rs.getString("receiver_address"));
-                shipment.setPackageContents(rs.getString("package_contents"));
-                shipment.setWeightKg(rs.getBigDecimal("weight_kg"));
-                shipment.setDimensionsCm(rs.getString("dimensions_cm"));
-                shipment.setDeliveryStatus(rs.getString("delivery_status"));
-                shipment.setCurrentLocation(rs.getString("current_location"));
-                shipment.setScheduledDeliveryDate(rs.getDate("scheduled_delivery_date"));
-                shipment.setEstimatedDeliveryTime(rs.getTime("estimated_delivery_time"));
-                shipment.setAssignedDriverId(rs.getString("assigned_driver_id"));
-                shipment.setCreatedAt(rs.getTimestamp("created_at"));
-                shipment.setUpdatedAt(rs.getTimestamp("updated_at"));
-                shipments.add(shipment);
+                shipments.add(mapShipment(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return shipments;
+    }
+
+    /**
+     * Streams every shipment record to the given action, one row at a time.
+     * Unlike getAllShipments, rows are not collected into a list, so memory use stays constant
+     * regardless of table size. The connection is held until the walk completes.
+     * @param action Called once per shipment record, in table order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachShipment(Consumer<? super Shipment> action) throws SQLException {
+        String sql = "SELECT * FROM Shipments";
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.createStreamingStatement(conn);
+            rs = stmt.executeQuery(sql);
+
+            while (rs.next()) {
+                action.accept(mapShipment(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(stmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Streams the shipment records created within a period, one row at a time.
+     * Rows are read straight from the database, bypassing the shipment cache.
+     * The connection is held until the walk completes.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period (inclusive).
+     * @param action Called once per shipment record.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachShipmentCreatedBetween(Date startDate, Date endDate, Consumer<? super Shipment> action) throws SQLException {
+        String sql = "SELECT * FROM Shipments WHERE created_at >= ? AND created_at < ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = DatabaseConnection.prepareStreamingStatement(conn, sql);
+            pstmt.setTimestamp(1, Timestamp.valueOf(startDate.toLocalDate().atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(endDate.toLocalDate().plusDays(1).atStartOfDay()));
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                action.accept(mapShipment(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Retrieves the ID, sender, receiver and status of shipments, ordered by ID.
+     * Used to fill selection lists without loading full shipment rows.
+     * @param assignableOnly If true, shipments that are already "Delivered" or "Failed" are left out.
+     * @return A list of ShipmentSummary objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<ShipmentSummary> getShipmentSummaries(boolean assignableOnly) throws SQLException {
+        List<ShipmentSummary> summaries = new ArrayList<>();
+        String sql = "SELECT shipment_id, sender_name, receiver_name, delivery_status FROM Shipments" +
+                (assignableOnly ? " WHERE delivery_status IS NULL OR delivery_status NOT IN ('Delivered', 'Failed')" : "") +
+                " ORDER BY shipment_id";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                summaries.add(new ShipmentSummary(
+                        rs.getString("shipment_id"),
+                        rs.getString("sender_name"),
+                        rs.getString("receiver_name"),
+                        rs.getString("delivery_status")
+                ));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return summaries;
+    }
+
+    /**
+     * Counts the shipment records in the database.
+     * @return The number of shipments.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long countShipments() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Shipments";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Streams every shipment ID to the given action, without loading other columns.
+     * @param action Called once for every shipment ID.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachShipmentId(Consumer<String> action) throws SQLException {
+        String sql = "SELECT shipment_id FROM Shipments";
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = DatabaseConnection.createStreamingStatement(conn);
+            rs = stmt.executeQuery(sql);
+
+            while (rs.next()) {
+                action.accept(rs.getString("shipment_id"));
             }
         } finally {
             DatabaseConnection.closeConnection(rs);
             DatabaseConnection.closeConnection(stmt);
             DatabaseConnection.closeConnection(conn);
         }
+    }
+
+    /**
+     * Retrieves the IDs of the shipments created at or after the given time.
+     * @param since The earliest created_at to include.
+     * @return A list of shipment IDs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<String> getShipmentIdsCreatedSince(Timestamp since) throws SQLException {
+        ensureDeltaSchema();
+        List<String> shipmentIds = new ArrayList<>();
+        String sql = "SELECT shipment_id FROM Shipments WHERE created_at >= ?";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setTimestamp(1, since);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                shipmentIds.add(rs.getString("shipment_id"));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
+        return shipmentIds;
+    }
+
+    /**
+     * Retrieves one page of shipments ordered by shipment ID, using keyset pagination.
+     * Filtering happens in SQL, so only the rows of the requested page are transferred.
+     * @param afterShipmentId Only shipments with an ID greater than this are returned (null for the first page).
+     * @param limit The maximum number of shipments to return.
+     * @param statusFilter Only shipments with this delivery status are returned (null or "All" for any status).
+     * @param idPrefix Only shipments whose ID starts with this text are returned (null or empty for any ID).
+     * @return The page of Shipment objects, in ascending shipment ID order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Shipment> getShipmentsPage(String afterShipmentId, int limit, String statusFilter, String idPrefix) throws SQLException {
+        List<Shipment> shipments = new ArrayList<>();
+        boolean hasAfter = afterShipmentId != null;
+        boolean hasStatus = statusFilter != null && !statusFilter.isEmpty() && !"All".equalsIgnoreCase(statusFilter);
+        boolean hasPrefix = idPrefix != null && !idPrefix.isEmpty();
+
+        // Only 8 distinct SQL strings can be produced here, so they all stay in the statement cache.
+        StringBuilder sql = new StringBuilder("SELECT * FROM Shipments WHERE 1 = 1");
+        if (hasAfter) {
+            sql.append(" AND shipment_id > ?");
+        }
+        if (hasStatus) {
+            sql.append(" AND delivery_status = ?");
+        }
+        if (hasPrefix) {
+            sql.append(" AND shipment_id LIKE ?");
+        }
+        sql.append(" ORDER BY shipment_id LIMIT ?");
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement(sql.toString());
+            int index = 1;
+            if (hasAfter) {
+                pstmt.setString(index++, afterShipmentId);
+            }
+            if (hasStatus) {
+                pstmt.setString(index++, statusFilter);
+            }
+            if (hasPrefix) {
+                pstmt.setString(index++, escapeLike(idPrefix) + "%");
+            }
+            pstmt.setInt(index, limit);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                shipments.add(mapShipment(rs));
+            }
+        } finally {
+            DatabaseConnection.closeConnection(rs);
+            DatabaseConnection.closeConnection(pstmt);
+            DatabaseConnection.closeConnection(conn);
+        }
         return shipments;
     }
+
+    /**
+     * Escapes the LIKE wildcards in user input so it is matched literally.
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Drops a shipment from the cache after a write. Inside a unit of work it is dropped again
+     * once the unit ends, so a read made before the commit cannot leave a stale copy behind.
+     */
+    private static void invalidateCached(String shipmentId) {
+        if (shipmentId == null) {
+            return;
+        }
+        String key = ShipmentIdFilter.normalize(shipmentId);
+        SHIPMENT_CACHE.invalidate(key);
+        UnitOfWork.runAfterCompletion(() -> SHIPMENT_CACHE.invalidate(key));
+    }
+
+    private static void invalidateAllCached() {
+        SHIPMENT_CACHE.invalidateAll();
+        UnitOfWork.runAfterCompletion(SHIPMENT_CACHE::invalidateAll);
+    }
+
+    /**
+     * Copies a shipment so callers can never modify the instance held by the cache.
+     */
+    private static Shipment copyOf(Shipment shipment) {
+        if (shipment == null) {
+            return null;
+        }
+        return new Shipment(shipment.getShipmentId(), shipment.getSenderName(), shipment.getSenderAddress(),
+                shipment.getReceiverName(), shipment.getReceiverAddress(), shipment.getPackageContents(),
+                shipment.getWeightKg(), shipment.getDimensionsCm(), shipment.getDeliveryStatus(),
+                shipment.getCurrentLocation(), shipment.getScheduledDeliveryDate(),
+                shipment.getEstimatedDeliveryTime(), shipment.getAssignedDriverId(),
+                shipment.getCreatedAt(), shipment.getUpdatedAt());
+    }
+
+    /**
+     * Maps the current row of a Shipments result set to a Shipment object.
+     * @param rs The result set, positioned on a row.
+     * @return The mapped Shipment.
+     * @throws SQLException if a column cannot be read.
+     */
+    private Shipment mapShipment(ResultSet rs) throws SQLException {
+        Shipment shipment = new Shipment();
+        shipment.setShipmentId(rs.getString("shipment_id"));
+        shipment.setSenderName(rs.getString("sender_name"));
+        shipment.setSenderAddress(rs.getString("sender_address"));
+        shipment.setReceiverName(rs.getString("receiver_name"));
+        shipment.setReceiverAddress(rs.getString("receiver_address"));
+        shipment.setPackageContents(rs.getString("package_contents"));
+        shipment.setWeightKg(rs.getBigDecimal("weight_kg"));
+        shipment.setDimensionsCm(rs.getString("dimensions_cm"));
+        shipment.setDeliveryStatus(rs.getString("delivery_status"));
+        shipment.setCurrentLocation(rs.getString("current_location"));
+        shipment.setScheduledDeliveryDate(rs.getDate("scheduled_delivery_date"));
+        shipment.setEstimatedDeliveryTime(rs.getTime("estimated_delivery_time"));
+        shipment.setAssignedDriverId(rs.getString("assigned_driver_id"));
+        shipment.setCreatedAt(rs.getTimestamp("created_at"));
+        shipment.setUpdatedAt(rs.getTimestamp("updated_at"));
+        return shipment;
+    }
+
+    /**
+     * Binds the columns of the INSERT statement for one shipment.
+     */
+    private void bindShipmentInsert(PreparedStatement pstmt, Shipment shipment) throws SQLException {
+        pstmt.setString(1, shipment.getShipmentId());
+        pstmt.setString(2, shipment.getSenderName());
+        pstmt.setString(3, shipment.getSenderAddress());
+        pstmt.setString(4, shipment.getReceiverName());
+        pstmt.setString(5, shipment.getReceiverAddress());
+        pstmt.setString(6, shipment.getPackageContents());
+        pstmt.setBigDecimal(7, shipment.getWeightKg());
+        pstmt.setString(8, shipment.getDimensionsCm());
+        pstmt.setString(9, shipment.getDeliveryStatus());
+        pstmt.setString(10, shipment.getCurrentLocation());
+        pstmt.setDate(11, shipment.getScheduledDeliveryDate());
+        pstmt.setTime(12, shipment.getEstimatedDeliveryTime());
+        pstmt.setString(13, shipment.getAssignedDriverId()); // Can be null
+    }
 }
@@ -0,0 +1,256 @@
+// dao/ShipmentIdFilter.java
+package DAO;
+
+import util.BloomFilter;
+import util.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "can this shipment ID exist?" without a query, so lookups of mistyped or unknown
+ * IDs are rejected immediately.
+ * A Bloom filter holds every known shipment ID. It is built in the background on first use,
+ * rebuilt periodically (which also drops deleted IDs), and between rebuilds it picks up IDs
+ * inserted by other clients by polling created_at. Inserts made through {@link ShipmentDAO}
+ * add their IDs before the row is written. Until the first build has finished every ID is
+ * treated as possibly existing.
+ * IDs the filter lets through but the database does not know (false positives, deleted
+ * shipments) are remembered for a few seconds in a small negative cache.
+ * A rejection is answered from the filter and the negative cache alone, without a query; a shipment
+ * another client has just inserted is found once the next poll (within {@code POLL_INTERVAL_MS}) has
+ * added its ID.
+ * IDs are compared in the form MySQL's default collation compares them: with surrounding spaces
+ * removed and in upper case, so "shp001 " is treated like "SHP001".
+ */
+public class ShipmentIdFilter {
+
+    // --- Filter Configuration ---
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final long MIN_CAPACITY = 10_000; // IDs the filter is sized for at the least
+    private static final long POLL_INTERVAL_MS = 5_000; // How often to pick up IDs inserted by other clients
+    private static final long REBUILD_INTERVAL_MS = 10 * 60_000; // How often to rebuild (drops deleted IDs, resizes)
+    private static final long POLL_OVERLAP_MS = 5_000; // Re-read this far behind the watermark, for late commits
+
+    // --- Negative Cache Configuration ---
+    private static final long NEGATIVE_TTL_MS = 10_000; // How long a confirmed miss is remembered
+    private static final int NEGATIVE_CACHE_SIZE = 1_000; // Maximum number of remembered misses
+
+    private final ShipmentDAO shipmentDAO;
+    private ScheduledExecutorService worker; // Started on first use
+    private volatile BloomFilter filter; // Null until the first build has finished
+    private BloomFilter building; // The filter being rebuilt, which must see concurrent inserts too
+    private Timestamp watermark; // Database time up to which inserts are known to be in the filter
+    private long lastRebuildAt;
+    private final LinkedHashMap<String, Long> negativeCache = new LinkedHashMap<>(); // ID -> expiry, oldest first
+
+    private final AtomicLong filterRejections = new AtomicLong();
+    private final AtomicLong negativeCacheHits = new AtomicLong();
+    private final AtomicLong lookupsPassed = new AtomicLong();
+
+    /**
+     * Constructor for ShipmentIdFilter.
+     * @param shipmentDAO The DAO used to read shipment IDs.
+     */
+    ShipmentIdFilter(ShipmentDAO shipmentDAO) {
+        this.shipmentDAO = shipmentDAO;
+    }
+
+    /**
+     * Tells whether a shipment with this ID may exist. Starts the background build on first use.
+     * @param shipmentId The ID to check.
+     * @return false if the shipment definitely does not exist; true if it has to be looked up.
+     */
+    public boolean mightExist(String shipmentId) {
+        startIfNeeded();
+        String key = normalize(shipmentId);
+        AtomicLong rejectedBy = rejectionCounter(key);
+        if (rejectedBy != null) {
+            rejectedBy.incrementAndGet();
+            return false;
+        }
+        lookupsPassed.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Checks a normalized ID against the Bloom filter and the negative cache.
+     * @return The statistic to count the rejection in, or null if the ID has to be looked up.
+     */
+    private AtomicLong rejectionCounter(String key) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(key)) {
+            return filterRejections;
+        }
+        synchronized (negativeCache) {
+            Long expiry = negativeCache.get(key);
+            if (expiry != null) {
+                if (expiry > System.currentTimeMillis()) {
+                    return negativeCacheHits;
+                }
+                negativeCache.remove(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Brings an ID into the form MySQL's default collation compares: trailing spaces and case are ignored.
+     * Leading spaces are stripped too, which can only let more lookups through to the database.
+     * @param shipmentId The ID as given.
+     * @return The key used in the filter and the negative cache.
+     */
+    static String normalize(String shipmentId) {
+        return shipmentId.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Records that a looked-up ID does not exist, so repeated lookups skip the database for a while.
+     * @param shipmentId The ID that was not found.
+     */
+    void recordMissing(String shipmentId) {
+        String key = normalize(shipmentId);
+        long expiry = System.currentTimeMillis() + NEGATIVE_TTL_MS;
+        synchronized (negativeCache) {
+            negativeCache.remove(key); // Re-insert at the end of the expiry order
+            negativeCache.put(key, expiry);
+            Iterator<Long> it = negativeCache.values().iterator();
+            while (negativeCache.size() > NEGATIVE_CACHE_SIZE && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Adds an ID that is about to be inserted. Must be called before the row becomes visible.
+     * @param shipmentId The ID of the new shipment.
+     */
+    void recordInserted(String shipmentId) {
+        if (shipmentId == null) {
+            return;
+        }
+        String key = normalize(shipmentId);
+        synchronized (this) {
+            if (filter != null) {
+                filter.put(key);
+            }
+            if (building != null) {
+                building.put(key);
+            }
+        }
+        synchronized (negativeCache) {
+            negativeCache.remove(key);
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (worker != null) {
+            return;
+        }
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "shipment-id-filter");
+            t.setDaemon(true); // Must not keep the Swing application alive
+            return t;
+        });
+        worker.scheduleWithFixedDelay(this::refreshQuietly, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rebuilds the filter when due, otherwise adds the IDs created since the last poll.
+     */
+    private void refreshQuietly() {
+        try {
+            if (filter == null || System.currentTimeMillis() - lastRebuildAt >= REBUILD_INTERVAL_MS) {
+                rebuild();
+            } else {
+                addRecentlyCreated();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error refreshing shipment ID filter: " + e.getMessage());
+        }
+    }
+
+    private void rebuild() throws SQLException {
+        Timestamp startedAt = DatabaseConnection.getDatabaseTime();
+        long capacity = Math.max(MIN_CAPACITY, shipmentDAO.countShipments() * 2); // Room to grow until the next rebuild
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_PROBABILITY);
+        synchronized (this) {
+            building = rebuilt;
+        }
+        try {
+            shipmentDAO.forEachShipmentId(shipmentId -> rebuilt.put(normalize(shipmentId)));
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                building = null;
+            }
+            throw e;
+        }
+        synchronized (this) { // Swap in one step so no concurrent insert is lost in between
+            filter = rebuilt;
+            building = null;
+            watermark = startedAt;
+            lastRebuildAt = System.currentTimeMillis();
+        }
+    }
+
+    private void addRecentlyCreated() throws SQLException {
+        Timestamp now = DatabaseConnection.getDatabaseTime();
+        Timestamp since;
+        synchronized (this) {
+            since = new Timestamp(watermark.getTime() - POLL_OVERLAP_MS);
+        }
+        for (String shipmentId : shipmentDAO.getShipmentIdsCreatedSince(since)) {
+            recordInserted(shipmentId);
+        }
+        synchronized (this) {
+            watermark = now;
+        }
+    }
+
+    /**
+     * Stops the background worker. The filter keeps answering from its last state.
+     */
+    public synchronized void shutdown() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    // --- Statistics ---
+
+    /**
+     * @return true once the first build has finished and lookups can be rejected.
+     */
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    /**
+     * @return The number of lookups rejected by the Bloom filter.
+     */
+    public long getFilterRejections() {
+        return filterRejections.get();
+    }
+
+    /**
+     * @return The number of lookups rejected by the negative cache.
+     */
+    public long getNegativeCacheHits() {
+        return negativeCacheHits.get();
+    }
+
+    /**
+     * @return The number of lookups that had to go to the cache or the database.
+     */
+    public long getLookupsPassed() {
+        return lookupsPassed.get();
+    }
+}
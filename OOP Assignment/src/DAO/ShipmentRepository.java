@@ -0,0 +1,66 @@
+// dao/ShipmentRepository.java
+package DAO;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The application's single point of notification for shipment changes.
+ * Controllers announce every shipment write they commit here, and each panel that shows
+ * shipments subscribes and reloads what it displays, whichever tab made the change.
+ * No shipment data is held here: it is a notifier only. The one client-side copy of the table is
+ * the snapshot of ShipmentController, which the shipment table and the selection lists on the
+ * other tabs read from; the Track Shipments tab reads keyset pages instead.
+ */
+public class ShipmentRepository {
+
+    private static volatile ShipmentRepository instance; // Created lazily by getInstance()
+
+    private final List<RepositoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    private ShipmentRepository() {
+    }
+
+    /**
+     * Returns the shared repository.
+     * @return The application-wide `ShipmentRepository`.
+     */
+    public static ShipmentRepository getInstance() {
+        ShipmentRepository current = instance;
+        if (current == null) {
+            synchronized (ShipmentRepository.class) {
+                current = instance;
+                if (current == null) {
+                    current = new ShipmentRepository();
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Tells the subscribers that shipments have changed. Called after the change has been committed.
+     */
+    public void shipmentsChanged() {
+        for (RepositoryListener listener : listeners) {
+            listener.repositoryChanged();
+        }
+    }
+
+    /**
+     * Subscribes to change notifications.
+     * @param listener The listener to add.
+     */
+    public void addListener(RepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes from change notifications.
+     * @param listener The listener to remove.
+     */
+    public void removeListener(RepositoryListener listener) {
+        listeners.remove(listener);
+    }
+}
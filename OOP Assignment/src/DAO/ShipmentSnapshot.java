@@ -0,0 +1,228 @@
+// dao/ShipmentSnapshot.java
+package DAO;
+
+import Model.Shipment;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A client-side copy of the 'Shipments' table for display, kept current by delta sync.
+ * With a {@link ShipmentSnapshotFile} as its base, the rows are read from the memory-mapped file
+ * and only the shipments created, updated or deleted since the file was built are held on the
+ * heap. Without a base, the first sync loads the whole table onto the heap, as a plain
+ * {@link DeltaSnapshot} does.
+ * Rows are addressed by position: the live rows of the base in file order, with changed rows
+ * read from the heap in place, followed by the shipments that are not in the base, ordered by ID.
+ * Like DeltaSnapshot, it is meant to be used by one thread at a time (the Swing event thread).
+ */
+public class ShipmentSnapshot implements AutoCloseable {
+
+    private final DeltaSnapshot<Shipment> changes; // Every row without a base, only the changes with one
+    private ShipmentSnapshotFile base; // Null when there is none
+    private int[] liveRecords; // Base record of each position, or null if no base record was deleted
+    private int liveCount; // Number of positions served by base records
+    private Map<Integer, Shipment> changedRecords = new HashMap<>(); // Newer versions of base records
+    private List<Shipment> addedRows = new ArrayList<>(); // Changed rows that are not in the base
+
+    /**
+     * Constructor for ShipmentSnapshot.
+     * @param changes The delta-synced copy that holds the rows, or the changes to the base.
+     */
+    public ShipmentSnapshot(DeltaSnapshot<Shipment> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Takes a snapshot file as the base, releasing the previous base if there was one.
+     * The next {@link #sync()} fetches only the changes made since the file was built.
+     * @param file The new base; it is closed together with this snapshot.
+     */
+    public void useBase(ShipmentSnapshotFile file) {
+        if (base != null && base != file) {
+            base.close();
+        }
+        base = file;
+        changes.startFrom(file.getBuiltAt());
+        reindex();
+    }
+
+    /**
+     * Brings the copy up to date.
+     * @return true if any row was added, changed or removed.
+     * @throws SQLException if a database access error occurs (the copy is then left unchanged).
+     */
+    public boolean sync() throws SQLException {
+        boolean changed = changes.sync();
+        if (changed) {
+            reindex();
+        }
+        return changed;
+    }
+
+    /**
+     * @return true once the copy has been loaded, or given a base.
+     */
+    public boolean isLoaded() {
+        return changes.isLoaded();
+    }
+
+    /**
+     * Releases the base file and forgets the copy, so the next sync starts over.
+     */
+    @Override
+    public void close() {
+        if (base != null) {
+            base.close();
+            base = null;
+        }
+        changes.invalidate();
+        reindex();
+    }
+
+    /**
+     * Works out which base records are still live and which changed rows replace or follow them.
+     * Only the deleted and changed rows are visited, apart from one pass over the record numbers
+     * when a base record has been deleted.
+     */
+    private void reindex() {
+        int baseSize = base == null ? 0 : base.size();
+        boolean[] deleted = null;
+        for (String id : changes.getDeletedIds()) {
+            int record = base == null ? -1 : base.indexOf(id);
+            if (record >= 0) {
+                if (deleted == null) {
+                    deleted = new boolean[baseSize];
+                }
+                deleted[record] = true;
+            }
+        }
+        if (deleted == null) {
+            liveRecords = null;
+            liveCount = baseSize;
+        } else {
+            liveRecords = new int[baseSize];
+            liveCount = 0;
+            for (int record = 0; record < baseSize; record++) {
+                if (!deleted[record]) {
+                    liveRecords[liveCount++] = record;
+                }
+            }
+        }
+
+        Map<Integer, Shipment> changedByRecord = new HashMap<>();
+        List<Shipment> added = new ArrayList<>();
+        for (Shipment shipment : changes.getAll()) {
+            int record = base == null ? -1 : base.indexOf(shipment.getShipmentId());
+            if (record >= 0 && (deleted == null || !deleted[record])) {
+                changedByRecord.put(record, shipment);
+            } else {
+                added.add(shipment); // New, or re-created after its base record was deleted
+            }
+        }
+        changedRecords = changedByRecord;
+        addedRows = added;
+    }
+
+    /**
+     * @return The number of shipments in the copy.
+     */
+    public int size() {
+        return liveCount + addedRows.size();
+    }
+
+    /**
+     * Builds the Shipment at a position.
+     * @param position The position (0 to size() - 1).
+     * @return The shipment, built from the base file unless it changed since.
+     */
+    public Shipment get(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row : base.get(record(position));
+    }
+
+    /**
+     * Looks up a shipment by ID, through the hash index of the base file for unchanged rows.
+     * @param shipmentId The ID of the shipment.
+     * @return The shipment, or null if it is not in the copy.
+     */
+    public Shipment getById(String shipmentId) {
+        Shipment changed = changes.get(shipmentId);
+        if (changed != null) {
+            return changed;
+        }
+        if (base == null || changes.isDeleted(shipmentId)) {
+            return null;
+        }
+        return base.getById(shipmentId);
+    }
+
+    // Single-field reads, so table cells do not build whole Shipment objects from the base file.
+
+    public String getShipmentId(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getShipmentId() : base.getShipmentId(record(position));
+    }
+
+    public String getSenderName(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getSenderName() : base.getSenderName(record(position));
+    }
+
+    public String getReceiverName(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getReceiverName() : base.getReceiverName(record(position));
+    }
+
+    public String getPackageContents(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getPackageContents() : base.getPackageContents(record(position));
+    }
+
+    public String getDeliveryStatus(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getDeliveryStatus() : base.getDeliveryStatus(record(position));
+    }
+
+    public String getCurrentLocation(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getCurrentLocation() : base.getCurrentLocation(record(position));
+    }
+
+    public String getAssignedDriverId(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getAssignedDriverId() : base.getAssignedDriverId(record(position));
+    }
+
+    public Date getScheduledDeliveryDate(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getScheduledDeliveryDate() : base.getScheduledDeliveryDate(record(position));
+    }
+
+    public Time getEstimatedDeliveryTime(int position) {
+        Shipment row = heapRow(position);
+        return row != null ? row.getEstimatedDeliveryTime() : base.getEstimatedDeliveryTime(record(position));
+    }
+
+    /**
+     * @return The heap version of the row at a position, or null if it is read from the base file.
+     */
+    private Shipment heapRow(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+        }
+        if (position >= liveCount) {
+            return addedRows.get(position - liveCount);
+        }
+        return changedRecords.isEmpty() ? null : changedRecords.get(record(position));
+    }
+
+    private int record(int position) {
+        return liveRecords == null ? position : liveRecords[position];
+    }
+}
@@ -0,0 +1,554 @@
+// dao/ShipmentSnapshotFile.java
+package DAO;
+
+import Model.DeliveryStatus;
+import Model.Shipment;
+import Model.ValueDictionary;
+import util.DatabaseConnection;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A read-only copy of the 'Shipments' table kept off the Java heap in a memory-mapped file.
+ * Each shipment is a fixed-width record; its text fields point into a string heap at the end
+ * of the file, and an open-addressing hash index maps shipment IDs to records. Scans and
+ * lookups read straight from the mapping, so millions of shipments cost the GC nothing, and
+ * the operating system pages the data in and out as needed. The file outlives the process,
+ * so a client can reopen the last snapshot on start-up instead of reading the whole table.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * header   magic, version, row count, index slots (ints), built-at millis (long)
+ * records  row count x RECORD_SIZE bytes
+ * index    index slots x int (record number + 1, 0 = empty)
+ * strings  per string: byte length (int), UTF-8 bytes
+ * </pre>
+ * A snapshot is a point-in-time copy; it does not see later changes. It is the base of a
+ * {@link ShipmentSnapshot}, which reads the table through it and keeps only the changes made since
+ * the file was built on the heap. Mapped files are limited to 2 GB.
+ * {@link #close()} releases the mapping; the snapshot must not be read from another thread while it is closed.
+ */
+public class ShipmentSnapshotFile implements Closeable {
+
+    private static final int MAGIC = 0x46545350; // "FTSP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+    // --- Record layout ---
+    private static final int STRING_FIELDS = 10; // Offsets into the string heap, -1 for null
+    private static final int ID = 0, SENDER_NAME = 1, SENDER_ADDRESS = 2, RECEIVER_NAME = 3, RECEIVER_ADDRESS = 4,
+            PACKAGE_CONTENTS = 5, DIMENSIONS = 6, DELIVERY_STATUS = 7, CURRENT_LOCATION = 8, ASSIGNED_DRIVER_ID = 9;
+    private static final int WEIGHT_UNSCALED = STRING_FIELDS * 4; // long
+    private static final int WEIGHT_SCALE = WEIGHT_UNSCALED + 8; // int
+    private static final int SCHEDULED_DAY = WEIGHT_SCALE + 4; // int, epoch day
+    private static final int ESTIMATED_SECOND = SCHEDULED_DAY + 4; // int, second of day
+    private static final int CREATED_AT = ESTIMATED_SECOND + 4; // long, epoch millis
+    private static final int UPDATED_AT = CREATED_AT + 8; // long, epoch millis
+    private static final int RECORD_SIZE = UPDATED_AT + 8;
+
+    private static final int NO_INT = Integer.MIN_VALUE; // Null marker for int fields
+    private static final long NO_LONG = Long.MIN_VALUE; // Null marker for long fields
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int indexSlots;
+    private final int indexStart;
+    private final int stringsStart;
+    private final Timestamp builtAt;
+    private volatile boolean closed;
+
+    private ShipmentSnapshotFile(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a shipment snapshot: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported shipment snapshot version " + buffer.getInt(4) + ": " + file);
+        }
+        this.rowCount = buffer.getInt(8);
+        this.indexSlots = buffer.getInt(12);
+        this.builtAt = new Timestamp(buffer.getLong(16));
+        long stringsStartLong = HEADER_SIZE + (long) rowCount * RECORD_SIZE + (long) indexSlots * 4;
+        if (rowCount < 0 || Integer.bitCount(indexSlots) != 1 || stringsStartLong > buffer.capacity()) {
+            throw new IOException("Corrupt shipment snapshot: " + file);
+        }
+        this.indexStart = HEADER_SIZE + rowCount * RECORD_SIZE;
+        this.stringsStart = (int) stringsStartLong;
+    }
+
+    /**
+     * @return The default snapshot location in the user's home directory.
+     */
+    public static Path defaultPath() {
+        return Paths.get(System.getProperty("user.home"), ".fasttrack", "shipments.snapshot");
+    }
+
+    /**
+     * Maps an existing snapshot file.
+     * @param file The snapshot file.
+     * @return The snapshot.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static ShipmentSnapshotFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Shipment snapshot larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return new ShipmentSnapshotFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Opens the snapshot at the given location if it exists and is recent enough, otherwise
+     * builds a new one there.
+     * @param shipmentDAO The DAO to read from when a new snapshot is needed.
+     * @param file The snapshot file.
+     * @param maxAgeMillis The maximum age of a reused snapshot, measured on the database clock.
+     * @return The snapshot.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException if the file cannot be written.
+     */
+    public static ShipmentSnapshotFile openOrBuild(ShipmentDAO shipmentDAO, Path file, long maxAgeMillis)
+            throws SQLException, IOException {
+        if (Files.isRegularFile(file)) {
+            try {
+                ShipmentSnapshotFile existing = open(file);
+                if (DatabaseConnection.getDatabaseTime().getTime() - existing.getBuiltAt().getTime() <= maxAgeMillis) {
+                    return existing;
+                }
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable shipment snapshot, rebuilding it: " + e.getMessage());
+            }
+        }
+        return build(shipmentDAO, file);
+    }
+
+    /**
+     * Streams the whole 'Shipments' table into a new snapshot file, replacing any existing one.
+     * The file is written next to the target and moved into place when complete, so readers
+     * never see a half-written snapshot.
+     * @param shipmentDAO The DAO to read from.
+     * @param file The snapshot file.
+     * @return The new snapshot.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException if the file cannot be written, or the snapshot would exceed 2 GB.
+     */
+    public static ShipmentSnapshotFile build(ShipmentDAO shipmentDAO, Path file) throws SQLException, IOException {
+        Timestamp builtAt = DatabaseConnection.getDatabaseTime(); // Before the read, so the age is never understated
+        return build(shipmentDAO, file, builtAt);
+    }
+
+    static ShipmentSnapshotFile build(ShipmentDAO shipmentDAO, Path file, Timestamp builtAt) throws SQLException, IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path recordsFile = Files.createTempFile(dir, "shipments", ".records");
+        Path stringsFile = Files.createTempFile(dir, "shipments", ".strings");
+        Path snapshotFile = Files.createTempFile(dir, "shipments", ".tmp");
+        try {
+            RecordWriter writer = new RecordWriter(recordsFile, stringsFile);
+            try {
+                shipmentDAO.forEachShipment(shipment -> {
+                    try {
+                        writer.write(shipment);
+                    } catch (IOException e) {
+                        throw new SnapshotWriteException(e);
+                    }
+                });
+            } catch (SnapshotWriteException e) {
+                throw (IOException) e.getCause();
+            } finally {
+                writer.close();
+            }
+
+            int indexSlots = Integer.highestOneBit(Math.max(2, writer.rowCount * 2 - 1)) << 1; // Load factor <= 0.5
+            long totalSize = HEADER_SIZE + (long) writer.rowCount * RECORD_SIZE + (long) indexSlots * 4 + writer.stringsSize;
+            if (totalSize > Integer.MAX_VALUE) {
+                throw new IOException("Shipment snapshot would exceed 2 GB (" + totalSize + " bytes)");
+            }
+            writeSnapshot(snapshotFile, writer, indexSlots, builtAt, recordsFile, stringsFile);
+            Files.move(snapshotFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(recordsFile);
+            Files.deleteIfExists(stringsFile);
+            Files.deleteIfExists(snapshotFile);
+        }
+        return open(file);
+    }
+
+    private static void writeSnapshot(Path target, RecordWriter writer, int indexSlots, Timestamp builtAt,
+                                      Path recordsFile, Path stringsFile) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(writer.rowCount).putInt(indexSlots).putLong(builtAt.getTime()).flip();
+
+        int[] slots = new int[indexSlots];
+        int mask = indexSlots - 1;
+        for (int row = 0; row < writer.rowCount; row++) {
+            int slot = writer.idHashes[row] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask; // Linear probing
+            }
+            slots[slot] = row + 1;
+        }
+        ByteBuffer index = ByteBuffer.allocate(indexSlots * 4).order(ByteOrder.BIG_ENDIAN);
+        index.asIntBuffer().put(slots);
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel records = FileChannel.open(recordsFile, StandardOpenOption.READ);
+             FileChannel strings = FileChannel.open(stringsFile, StandardOpenOption.READ)) {
+            writeFully(out, header);
+            transferFully(records, out);
+            writeFully(out, index);
+            transferFully(strings, out);
+            out.force(false);
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            out.write(data);
+        }
+    }
+
+    private static void transferFully(FileChannel in, FileChannel out) throws IOException {
+        long position = 0;
+        long size = in.size();
+        while (position < size) {
+            position += in.transferTo(position, size - position, out);
+        }
+    }
+
+    /**
+     * Writes records and strings to two scratch files while the table is streamed,
+     * remembering only the hash of each ID for the index.
+     */
+    private static final class RecordWriter {
+        private final DataOutputStream records;
+        private final DataOutputStream strings;
+        private long stringsSize;
+        private int rowCount;
+        private int[] idHashes = new int[1_024];
+
+        RecordWriter(Path recordsFile, Path stringsFile) throws IOException {
+            this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+            this.strings = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(stringsFile), 1 << 16));
+        }
+
+        void write(Shipment shipment) throws IOException {
+            if (rowCount == idHashes.length) {
+                idHashes = Arrays.copyOf(idHashes, rowCount * 2);
+            }
+            idHashes[rowCount++] = hash(shipment.getShipmentId());
+
+            writeString(shipment.getShipmentId());
+            writeString(shipment.getSenderName());
+            writeString(shipment.getSenderAddress());
+            writeString(shipment.getReceiverName());
+            writeString(shipment.getReceiverAddress());
+            writeString(shipment.getPackageContents());
+            writeString(shipment.getDimensionsCm());
+            writeString(shipment.getDeliveryStatus());
+            writeString(shipment.getCurrentLocation());
+            writeString(shipment.getAssignedDriverId());
+
+            BigDecimal weight = shipment.getWeightKg();
+            boolean weightFits = weight != null && weight.unscaledValue().bitLength() < 64;
+            records.writeLong(weightFits ? weight.unscaledValue().longValue() : 0);
+            records.writeInt(weightFits ? weight.scale() : NO_INT);
+            records.writeInt(shipment.getScheduledDeliveryDate() != null
+                    ? (int) shipment.getScheduledDeliveryDate().toLocalDate().toEpochDay() : NO_INT);
+            records.writeInt(shipment.getEstimatedDeliveryTime() != null
+                    ? shipment.getEstimatedDeliveryTime().toLocalTime().toSecondOfDay() : NO_INT);
+            records.writeLong(shipment.getCreatedAt() != null ? shipment.getCreatedAt().getTime() : NO_LONG);
+            records.writeLong(shipment.getUpdatedAt() != null ? shipment.getUpdatedAt().getTime() : NO_LONG);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                records.writeInt(-1);
+                return;
+            }
+            if (stringsSize > Integer.MAX_VALUE) {
+                throw new IOException("Shipment snapshot string heap exceeds 2 GB");
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            records.writeInt((int) stringsSize);
+            strings.writeInt(bytes.length);
+            strings.write(bytes);
+            stringsSize += 4 + bytes.length;
+        }
+
+        void close() throws IOException {
+            try {
+                records.close();
+            } finally {
+                strings.close();
+            }
+        }
+    }
+
+    /** Carries an IOException out of the row callback. */
+    private static final class SnapshotWriteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SnapshotWriteException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private static int hash(String shipmentId) {
+        int h = shipmentId == null ? 0 : shipmentId.hashCode(); // Specified by the JLS, so stable across runs
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        return h ^ (h >>> 16);
+    }
+
+    // --- Reading ---
+
+    /**
+     * @return The number of shipments in the snapshot.
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @return The database time at which the snapshot started reading the table.
+     */
+    public Timestamp getBuiltAt() {
+        return new Timestamp(builtAt.getTime());
+    }
+
+    /**
+     * @return The file the snapshot is mapped from.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Finds the record number of a shipment through the hash index.
+     * @param shipmentId The ID of the shipment.
+     * @return The record number, or -1 if the shipment is not in the snapshot.
+     */
+    public int indexOf(String shipmentId) {
+        checkOpen();
+        if (shipmentId == null) {
+            return -1;
+        }
+        byte[] wanted = shipmentId.getBytes(StandardCharsets.UTF_8);
+        int mask = indexSlots - 1;
+        for (int slot = hash(shipmentId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(indexStart + slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            if (stringEquals(stringOffset(row, ID), wanted)) {
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Looks up a shipment by ID.
+     * @param shipmentId The ID of the shipment.
+     * @return A new Shipment built from the snapshot, or null if it is not in the snapshot.
+     */
+    public Shipment getById(String shipmentId) {
+        int row = indexOf(shipmentId);
+        return row < 0 ? null : get(row);
+    }
+
+    /**
+     * Builds a Shipment from one record.
+     * @param row The record number (0 to size() - 1).
+     * @return A new Shipment.
+     */
+    public Shipment get(int row) {
+        checkRow(row);
+        int base = HEADER_SIZE + row * RECORD_SIZE;
+        int scale = buffer.getInt(base + WEIGHT_SCALE);
+        BigDecimal weight = scale == NO_INT ? null
+                : new BigDecimal(BigInteger.valueOf(buffer.getLong(base + WEIGHT_UNSCALED)), scale);
+        int scheduledDay = buffer.getInt(base + SCHEDULED_DAY);
+        int estimatedSecond = buffer.getInt(base + ESTIMATED_SECOND);
+        long createdAt = buffer.getLong(base + CREATED_AT);
+        long updatedAt = buffer.getLong(base + UPDATED_AT);
+        return new Shipment(getString(row, ID), getString(row, SENDER_NAME), getString(row, SENDER_ADDRESS),
+                getString(row, RECEIVER_NAME), getString(row, RECEIVER_ADDRESS), getString(row, PACKAGE_CONTENTS),
+                weight, getString(row, DIMENSIONS), getString(row, DELIVERY_STATUS), getString(row, CURRENT_LOCATION),
+                scheduledDay == NO_INT ? null : Date.valueOf(LocalDate.ofEpochDay(scheduledDay)),
+                estimatedSecond == NO_INT ? null : Time.valueOf(LocalTime.ofSecondOfDay(estimatedSecond)),
+                getString(row, ASSIGNED_DRIVER_ID),
+                createdAt == NO_LONG ? null : new Timestamp(createdAt),
+                updatedAt == NO_LONG ? null : new Timestamp(updatedAt));
+    }
+
+    /**
+     * Passes every shipment to the given action, in the order the table was streamed.
+     * Each Shipment is built on the fly and can be discarded right away.
+     * @param action Called once per shipment.
+     */
+    public void forEach(Consumer<? super Shipment> action) {
+        for (int row = 0; row < rowCount; row++) {
+            action.accept(get(row));
+        }
+    }
+
+    /**
+     * Releases the mapping now instead of whenever the buffer is garbage collected; until then the
+     * file stays mapped, and on Windows cannot be replaced by the next build. Reading the snapshot
+     * afterwards throws an IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        unmap(buffer);
+    }
+
+    /**
+     * Unmaps a buffer through sun.misc.Unsafe.invokeCleaner, the only way before Java 22.
+     * Where that is not available the mapping is released when the buffer is collected.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Shipment snapshot stays mapped until garbage collected: " + e);
+        }
+    }
+
+    // Single-field reads, for scans and table cells that do not need whole Shipment objects.
+
+    public String getShipmentId(int row) {
+        checkRow(row);
+        return getString(row, ID);
+    }
+
+    public String getSenderName(int row) {
+        checkRow(row);
+        return getString(row, SENDER_NAME);
+    }
+
+    public String getReceiverName(int row) {
+        checkRow(row);
+        return getString(row, RECEIVER_NAME);
+    }
+
+    public String getPackageContents(int row) {
+        checkRow(row);
+        return getString(row, PACKAGE_CONTENTS);
+    }
+
+    public String getAssignedDriverId(int row) {
+        checkRow(row);
+        return getString(row, ASSIGNED_DRIVER_ID);
+    }
+
+    /** @return The scheduled delivery date, or null if none. */
+    public Date getScheduledDeliveryDate(int row) {
+        checkRow(row);
+        int scheduledDay = buffer.getInt(HEADER_SIZE + row * RECORD_SIZE + SCHEDULED_DAY);
+        return scheduledDay == NO_INT ? null : Date.valueOf(LocalDate.ofEpochDay(scheduledDay));
+    }
+
+    /** @return The estimated delivery time, or null if none. */
+    public Time getEstimatedDeliveryTime(int row) {
+        checkRow(row);
+        int estimatedSecond = buffer.getInt(HEADER_SIZE + row * RECORD_SIZE + ESTIMATED_SECOND);
+        return estimatedSecond == NO_INT ? null : Time.valueOf(LocalTime.ofSecondOfDay(estimatedSecond));
+    }
+
+    public String getDeliveryStatus(int row) {
+        checkRow(row);
+        return DeliveryStatus.canonical(getString(row, DELIVERY_STATUS));
+    }
+
+    public String getCurrentLocation(int row) {
+        checkRow(row);
+        return ValueDictionary.LOCATIONS.canonical(getString(row, CURRENT_LOCATION));
+    }
+
+    /** @return The creation time in epoch milliseconds, or Long.MIN_VALUE if unknown. */
+    public long getCreatedAtMillis(int row) {
+        checkRow(row);
+        return buffer.getLong(HEADER_SIZE + row * RECORD_SIZE + CREATED_AT);
+    }
+
+    private void checkRow(int row) {
+        checkOpen();
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Shipment snapshot is closed: " + file);
+        }
+    }
+
+    private int stringOffset(int row, int field) {
+        return buffer.getInt(HEADER_SIZE + row * RECORD_SIZE + field * 4);
+    }
+
+    private String getString(int row, int field) {
+        int offset = stringOffset(row, field);
+        if (offset < 0) {
+            return null;
+        }
+        int position = stringsStart + offset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes); // Absolute read: safe for concurrent readers
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean stringEquals(int offset, byte[] wanted) {
+        if (offset < 0) {
+            return false;
+        }
+        int position = stringsStart + offset;
+        if (buffer.getInt(position) != wanted.length) {
+            return false;
+        }
+        for (int i = 0; i < wanted.length; i++) {
+            if (buffer.get(position + 4 + i) != wanted[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -6,6 +6,7 @@ import DAO.DeliveryPersonnelDAO;
 import DAO.NotificationDAO;
 import DAO.DeliveryDAO;
 import DAO.ReportDAO;
+import DAO.KpiRollupDAO;
 
 import controller.ShipmentController;
 import controller.DeliveryPersonnelController;
@@ -43,6 +44,11 @@ public class MainApplication extends JFrame {
     private DeliveryDAO deliveryDAO;
     private ReportDAO reportDAO;
 
+    // --- Shared Controllers ---
+    // One controller per entity for all tabs, so the tables they draw share one in-memory working set
+    private ShipmentController shipmentController;
+    private DeliveryPersonnelController personnelController;
+
     // --- View Panel Instances ---
     private ShipmentPanel shipmentPanel;
     private PersonnelPanel personnelPanel;
@@ -94,26 +100,28 @@ public class MainApplication extends JFrame {
         add(tabbedPane, BorderLayout.CENTER);
 
         // Instantiate all 8 Panels, passing necessary DAOs.
-        // Each Panel creates its own DefaultTableModel and Controller internally,
-        // and then sets that table model in its controller.
+        // Each Panel creates its own DefaultTableModel internally and sets it in its controller.
+        // The shipment and personnel controllers are shared by every panel that needs them.
+        shipmentController = new ShipmentController(shipmentDAO, null);
+        personnelController = new DeliveryPersonnelController(personnelDAO, null);
 
-        shipmentPanel = new ShipmentPanel(new ShipmentController(shipmentDAO, null)); // TableModel set inside panel
+        shipmentPanel = new ShipmentPanel(shipmentController); // TableModel set inside panel
         tabbedPane.addTab("Manage Shipments", shipmentPanel);
 
-        personnelPanel = new PersonnelPanel(new DeliveryPersonnelController(personnelDAO, null)); // TableModel set inside panel
+        personnelPanel = new PersonnelPanel(personnelController); // TableModel set inside panel
         tabbedPane.addTab("Manage Personnel", personnelPanel);
 
-        scheduleDeliveriesPanel = new ScheduleDeliveriesPanel(new DeliveryController(deliveryDAO, shipmentDAO, personnelDAO, null), shipmentDAO, personnelDAO); // TableModel set inside panel
+        scheduleDeliveriesPanel = new ScheduleDeliveriesPanel(new DeliveryController(deliveryDAO, shipmentDAO, personnelDAO, null), shipmentController, personnelDAO); // TableModel set inside panel
         tabbedPane.addTab("Schedule Deliveries", scheduleDeliveriesPanel);
 
-        trackShipmentsPanel = new TrackShipmentsPanel(new ShipmentController(shipmentDAO, null)); // TableModel set inside panel
+        trackShipmentsPanel = new TrackShipmentsPanel(shipmentController); // Draws its own paged table
         tabbedPane.addTab("Track Shipments", trackShipmentsPanel);
 
         // AssignDriversPanel instantiation - KEPT AS IS FROM YOUR PROVIDED CODE
         // since you cannot change its constructor in the submitted assignment.
         assignDriversPanel = new AssignDriversPanel(
-                new ShipmentController(shipmentDAO, null),
-                new DeliveryPersonnelController(personnelDAO, null),
+                shipmentController,
+                personnelController,
                 shipmentDAO,
                 personnelDAO
         );
@@ -123,7 +131,7 @@ public class MainApplication extends JFrame {
         reportPanel = new ReportPanel(new ReportController(reportDAO, deliveryDAO, shipmentDAO, null));
         tabbedPane.addTab("Reports", reportPanel);
 
-        customerNotificationsPanel = new CustomerNotificationsPanel(new NotificationController(notificationDAO, shipmentDAO, personnelDAO, null), shipmentDAO); // TableModel set inside panel
+        customerNotificationsPanel = new CustomerNotificationsPanel(new NotificationController(notificationDAO, shipmentDAO, personnelDAO, null), shipmentController); // TableModel set inside panel
         tabbedPane.addTab("Customer Notifications", customerNotificationsPanel);
 
         personnelNotificationsPanel = new PersonnelNotificationsPanel(new NotificationController(notificationDAO, shipmentDAO, personnelDAO, null), personnelDAO); // TableModel set inside panel
@@ -171,9 +179,21 @@ public class MainApplication extends JFrame {
     /**
      * Main method to run the application.
      * Creates and displays the MainApplication frame.
-     * @param args Command line arguments (not used).
+     * With the argument --rebuild-kpi-rollups it instead recomputes the monthly KPI rollup from
+     * the existing shipments and deliveries, then exits.
+     * @param args Command line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--rebuild-kpi-rollups".equals(args[0])) {
+            try {
+                new KpiRollupDAO().rebuildRollups();
+                System.out.println("KPI rollups rebuilt.");
+            } catch (SQLException e) {
+                System.err.println("Error rebuilding KPI rollups: " + e.getMessage());
+                System.exit(1);
+            }
+            System.exit(0);
+        }
         // Ensure that Swing components are created and updated on the Event Dispatch Thread (EDT)
         SwingUtilities.invokeLater(() -> {
             MainApplication app = new MainApplication();
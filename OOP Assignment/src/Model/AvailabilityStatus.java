@@ -0,0 +1,77 @@
+// model/AvailabilityStatus.java
+package Model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The availability statuses of delivery personnel.
+ * {@link DeliveryPersonnel} stores the canonical label, so the status of every cached
+ * personnel record points at one of four shared strings.
+ */
+public enum AvailabilityStatus {
+    AVAILABLE("Available"),
+    ON_DUTY("On Duty"),
+    OFF_DUTY("Off Duty"),
+    ON_LEAVE("On Leave");
+
+    private static final Map<String, AvailabilityStatus> BY_LABEL = new HashMap<>();
+    private static final Map<String, AvailabilityStatus> BY_LOWER_CASE_LABEL = new HashMap<>();
+
+    static {
+        for (AvailabilityStatus value : values()) {
+            BY_LABEL.put(value.label, value);
+            BY_LOWER_CASE_LABEL.put(value.label.toLowerCase(Locale.ROOT), value);
+        }
+    }
+
+    private final String label;
+
+    AvailabilityStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The label as stored in the database and shown in the UI.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return true if personnel with this status can be given a delivery (not "Off Duty" or "On Leave").
+     */
+    public boolean isAssignable() {
+        return this != OFF_DUTY && this != ON_LEAVE;
+    }
+
+    /**
+     * Finds the constant for a label, ignoring case.
+     * @param label The label to look up (may be null).
+     * @return The matching constant, or null if the label is null or unknown.
+     */
+    public static AvailabilityStatus fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        AvailabilityStatus value = BY_LABEL.get(label); // Canonical labels hit here without any allocation
+        return value != null ? value : BY_LOWER_CASE_LABEL.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the canonical instance of a label: the constant's own label if it is known
+     * (in any letter case), otherwise a shared dictionary instance.
+     * @param label The label read from the database or entered by the user (may be null).
+     * @return The canonical label, or null if the label is null.
+     */
+    public static String canonical(String label) {
+        AvailabilityStatus value = fromLabel(label);
+        return value != null ? value.label : ValueDictionary.OTHER_LABELS.canonical(label);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,31 @@
+// model/DeliveryPerformance.java
+package Model;
+
+/**
+ * Delivery performance figures for a period, as aggregated by the database.
+ *
+ * @param completedDeliveries Number of successful deliveries.
+ * @param onTimeDeliveries Successful deliveries made by their scheduled date and estimated time.
+ * @param lateDeliveries All other successful deliveries, including those without a schedule;
+ *                       on-time and late deliveries add up to the completed deliveries.
+ * @param overdueDeliveries The late deliveries that had a due time, i.e. were made after it.
+ * @param totalLatenessSeconds Sum of how late the overdue deliveries were, in seconds.
+ */
+public record DeliveryPerformance(long completedDeliveries, long onTimeDeliveries,
+                                  long lateDeliveries, long overdueDeliveries, long totalLatenessSeconds) {
+
+    /**
+     * @return The share of successful deliveries that were on time, in percent (0 if there were none).
+     */
+    public double onTimeRate() {
+        return completedDeliveries > 0 ? (double) onTimeDeliveries / completedDeliveries * 100 : 0.0;
+    }
+
+    /**
+     * @return How late the overdue deliveries were on average, in hours (0 if there were none).
+     *         Late deliveries without a schedule have no lateness and are left out of the average.
+     */
+    public double averageLatenessHours() {
+        return overdueDeliveries > 0 ? (double) totalLatenessSeconds / overdueDeliveries / 3600.0 : 0.0;
+    }
+}
@@ -14,8 +14,8 @@ public class DeliveryPersonnel {
     private String contactNumber;
     private String email;
     private String vehicleDetails;
-    private String availabilityStatus; // e.g., 'Available', 'On Duty', 'Off Duty', 'On Leave'
-    private String currentRoute;
+    private String availabilityStatus; // e.g., 'Available', 'On Duty', 'Off Duty', 'On Leave' (canonical instance, see AvailabilityStatus)
+    private String currentRoute; // Canonical instance from ValueDictionary.LOCATIONS
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -46,8 +46,8 @@ public class DeliveryPersonnel {
         this.contactNumber = contactNumber;
         this.email = email;
         this.vehicleDetails = vehicleDetails;
-        this.availabilityStatus = availabilityStatus;
-        this.currentRoute = currentRoute;
+        this.availabilityStatus = AvailabilityStatus.canonical(availabilityStatus);
+        this.currentRoute = ValueDictionary.LOCATIONS.canonical(currentRoute);
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -72,8 +72,8 @@ public class DeliveryPersonnel {
         this.contactNumber = contactNumber;
         this.email = email;
         this.vehicleDetails = vehicleDetails;
-        this.availabilityStatus = availabilityStatus;
-        this.currentRoute = currentRoute;
+        this.availabilityStatus = AvailabilityStatus.canonical(availabilityStatus);
+        this.currentRoute = ValueDictionary.LOCATIONS.canonical(currentRoute);
         this.createdAt = null; // Set to null, expecting DAO/DB to handle actual timestamp
         this.updatedAt = null; // Set to null, expecting DAO/DB to handle actual timestamp
     }
@@ -104,6 +104,13 @@ public class DeliveryPersonnel {
         return availabilityStatus;
     }
 
+    /**
+     * @return The availability status as a constant, or null if it is empty or not a known status.
+     */
+    public AvailabilityStatus getAvailabilityStatusCode() {
+        return AvailabilityStatus.fromLabel(availabilityStatus);
+    }
+
     public String getCurrentRoute() {
         return currentRoute;
     }
@@ -138,11 +145,11 @@ public class DeliveryPersonnel {
     }
 
     public void setAvailabilityStatus(String availabilityStatus) {
-        this.availabilityStatus = availabilityStatus;
+        this.availabilityStatus = AvailabilityStatus.canonical(availabilityStatus);
     }
 
     public void setCurrentRoute(String currentRoute) {
-        this.currentRoute = currentRoute;
+        this.currentRoute = ValueDictionary.LOCATIONS.canonical(currentRoute);
     }
 
     public void setCreatedAt(Timestamp createdAt) {
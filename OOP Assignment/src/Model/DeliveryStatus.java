@@ -0,0 +1,82 @@
+// model/DeliveryStatus.java
+package Model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The delivery statuses a shipment goes through.
+ * Model classes store the label of the matching constant, so equal values share one string
+ * instance and can be classified with {@link #fromLabel(String)} and compared by identity.
+ * Labels that match no constant are kept as they are (through {@link ValueDictionary#OTHER_LABELS}).
+ */
+public enum DeliveryStatus {
+    PENDING("Pending"),
+    ASSIGNED("Assigned"),
+    SCHEDULED("Scheduled"),
+    IN_TRANSIT("In Transit"),
+    OUT_FOR_DELIVERY("Out for Delivery"),
+    DELAYED("Delayed"),
+    DELIVERED("Delivered"),
+    FAILED("Failed");
+
+    private static final Map<String, DeliveryStatus> BY_LABEL = new HashMap<>();
+    private static final Map<String, DeliveryStatus> BY_LOWER_CASE_LABEL = new HashMap<>();
+
+    static {
+        for (DeliveryStatus value : values()) {
+            BY_LABEL.put(value.label, value);
+            BY_LOWER_CASE_LABEL.put(value.label.toLowerCase(Locale.ROOT), value);
+        }
+    }
+
+    private final String label;
+
+    DeliveryStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The label as stored in the database and shown in the UI.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return true if the shipment has reached its end ("Delivered" or "Failed") and can no longer be delivered.
+     */
+    public boolean isFinal() {
+        return this == DELIVERED || this == FAILED;
+    }
+
+    /**
+     * Finds the constant for a label, ignoring case.
+     * @param label The label to look up (may be null).
+     * @return The matching constant, or null if the label is null or unknown.
+     */
+    public static DeliveryStatus fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        DeliveryStatus value = BY_LABEL.get(label); // Canonical labels hit here without any allocation
+        return value != null ? value : BY_LOWER_CASE_LABEL.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the canonical instance of a label: the constant's own label if it is known
+     * (in any letter case), otherwise a shared dictionary instance.
+     * @param label The label read from the database or entered by the user (may be null).
+     * @return The canonical label, or null if the label is null.
+     */
+    public static String canonical(String label) {
+        DeliveryStatus value = fromLabel(label);
+        return value != null ? value.label : ValueDictionary.OTHER_LABELS.canonical(label);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
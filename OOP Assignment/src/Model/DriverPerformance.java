@@ -0,0 +1,29 @@
+// model/DriverPerformance.java
+package Model;
+
+/**
+ * One driver's delivery figures for a period, as grouped by personnel ID in the database.
+ *
+ * @param personnelId The driver's personnel ID.
+ * @param name The driver's name, or null if the driver no longer exists.
+ * @param performance The driver's successful deliveries, on time and late.
+ * @param failedDeliveries Number of deliveries with a "Failed" outcome.
+ */
+public record DriverPerformance(String personnelId, String name, DeliveryPerformance performance,
+                                long failedDeliveries) {
+
+    /**
+     * @return The number of deliveries with a final outcome, successful or failed.
+     */
+    public long attemptedDeliveries() {
+        return performance.completedDeliveries() + failedDeliveries;
+    }
+
+    /**
+     * @return The share of attempted deliveries that failed, in percent (0 if there were none).
+     */
+    public double failureRate() {
+        long attempted = attemptedDeliveries();
+        return attempted > 0 ? (double) failedDeliveries / attempted * 100 : 0.0;
+    }
+}
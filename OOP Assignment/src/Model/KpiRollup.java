@@ -0,0 +1,32 @@
+// model/KpiRollup.java
+package Model;
+
+/**
+ * One group of the monthly KPI rollup: the running totals for one route, package type and
+ * driver in one calendar month. Deliveries count in the month of their actual delivery date,
+ * shipments in the month they were created.
+ *
+ * @param year The calendar year.
+ * @param month The month of the year (1-12).
+ * @param route The driver's route when the event was recorded, or "" if there was none.
+ * @param packageType The package type derived from the package contents.
+ * @param driverId The delivering or assigned driver, or "" if there was none.
+ * @param shipmentsCreated Number of shipments created.
+ * @param deliveriesCompleted Number of successful deliveries.
+ * @param onTimeDeliveries Successful deliveries made by their due time: the scheduled date at the
+ *                         estimated delivery time, or at 23:59:59 if no time was estimated.
+ * @param lateDeliveries All other successful deliveries, including those without a scheduled date.
+ * @param overdueDeliveries The late deliveries that had a due time.
+ * @param latenessSeconds Sum of how late the overdue deliveries were, in seconds.
+ */
+public record KpiRollup(int year, int month, String route, String packageType, String driverId,
+                        long shipmentsCreated, long deliveriesCompleted, long onTimeDeliveries,
+                        long lateDeliveries, long overdueDeliveries, long latenessSeconds) {
+
+    /**
+     * @return The delivery figures of this group.
+     */
+    public DeliveryPerformance deliveryPerformance() {
+        return new DeliveryPerformance(deliveriesCompleted, onTimeDeliveries, lateDeliveries, overdueDeliveries, latenessSeconds);
+    }
+}
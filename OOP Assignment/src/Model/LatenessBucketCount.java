@@ -0,0 +1,13 @@
+// model/LatenessBucketCount.java
+package Model;
+
+/**
+ * The number of successful deliveries of one route and driver that fall into one {@link LatenessHistogram} bucket.
+ *
+ * @param route The driver's route when the delivery was recorded, or "" if there was none.
+ * @param driverId The delivering driver, or "" if there was none.
+ * @param bucket The histogram bucket index.
+ * @param deliveries The number of deliveries in the bucket.
+ */
+public record LatenessBucketCount(String route, String driverId, int bucket, long deliveries) {
+}
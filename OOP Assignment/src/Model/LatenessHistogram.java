@@ -0,0 +1,98 @@
+// model/LatenessHistogram.java
+package Model;
+
+/**
+ * A fixed-size histogram of delivery lateness from which percentiles can be read.
+ * Bucket 0 holds deliveries that were not late; bucket i (i >= 1) holds lateness in
+ * [GAMMA^(i-1), GAMMA^i) seconds, with everything beyond the last bucket clamped into it.
+ * The buckets grow geometrically, so a percentile is accurate to within about 2.5% of its
+ * value whatever the scale, and two histograms merge exactly by adding their counts. This lets
+ * months, drivers and threads be combined without keeping the individual deliveries.
+ */
+public class LatenessHistogram {
+
+    /** Growth factor between consecutive bucket bounds. */
+    public static final double GAMMA = 1.05;
+
+    /** Index of the last bucket; GAMMA^MAX_BUCKET seconds is a little over a year. */
+    public static final int MAX_BUCKET = 360;
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final long[] counts = new long[MAX_BUCKET + 1];
+    private long totalCount;
+
+    /**
+     * Returns the bucket a lateness falls into.
+     * @param latenessSeconds How late a delivery was, in seconds; zero or negative if it was not late.
+     * @return The bucket index, between 0 and MAX_BUCKET.
+     */
+    public static int bucketOf(long latenessSeconds) {
+        if (latenessSeconds <= 0) {
+            return 0;
+        }
+        return (int) Math.min(MAX_BUCKET, 1 + (long) Math.floor(Math.log(latenessSeconds) / LOG_GAMMA));
+    }
+
+    /**
+     * Records one delivery.
+     * @param latenessSeconds How late the delivery was, in seconds; zero or negative if it was not late.
+     */
+    public void record(long latenessSeconds) {
+        recordBucket(bucketOf(latenessSeconds), 1);
+    }
+
+    /**
+     * Records deliveries that were already bucketed, e.g. by a GROUP BY in the database.
+     * @param bucket The bucket index, as computed by {@link #bucketOf(long)}.
+     * @param deliveries The number of deliveries in that bucket.
+     */
+    public void recordBucket(int bucket, long deliveries) {
+        counts[Math.max(0, Math.min(MAX_BUCKET, bucket))] += deliveries;
+        totalCount += deliveries;
+    }
+
+    /**
+     * Adds the counts of another histogram to this one.
+     * @param other The histogram to merge; it is left unchanged.
+     * @return This histogram.
+     */
+    public LatenessHistogram merge(LatenessHistogram other) {
+        for (int i = 0; i <= MAX_BUCKET; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    /**
+     * @return A copy of this histogram.
+     */
+    public LatenessHistogram copy() {
+        return new LatenessHistogram().merge(this);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Estimates a percentile of the recorded lateness.
+     * @param percentile The percentile, between 0 and 100 (e.g. 95 for p95).
+     * @return The estimated lateness in seconds: 0 if that share of deliveries was on time or nothing was recorded.
+     */
+    public double percentileSeconds(double percentile) {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i <= MAX_BUCKET; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0.0 : Math.pow(GAMMA, i - 0.5); // Geometric middle of the bucket
+            }
+        }
+        return Math.pow(GAMMA, MAX_BUCKET - 0.5);
+    }
+}
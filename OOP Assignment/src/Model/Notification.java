@@ -14,8 +14,8 @@ public class Notification {
     private String personnelId; // Can be null if not personnel-specific
     private String customerContact; // E.g., phone number or email of the customer
     private String messageContent;
-    private String notificationType; // E.g., 'SMS', 'Email', 'In-App'
-    private String status; // E.g., 'Sent', 'Failed', 'Pending'
+    private String notificationType; // E.g., 'SMS', 'Email', 'In-App' (canonical instance, see NotificationType)
+    private String status; // E.g., 'Sent', 'Failed', 'Pending' (canonical instance, see NotificationStatus)
     private Timestamp timestamp; // When the notification was created/sent
 
     /**
@@ -43,8 +43,8 @@ public class Notification {
         this.personnelId = personnelId;
         this.customerContact = customerContact;
         this.messageContent = messageContent;
-        this.notificationType = notificationType;
-        this.status = status;
+        this.notificationType = NotificationType.canonical(notificationType);
+        this.status = NotificationStatus.canonical(status);
         this.timestamp = timestamp;
     }
 
@@ -77,6 +77,20 @@ public class Notification {
         return status;
     }
 
+    /**
+     * @return The notification type as a constant, or null if it is empty or not a known type.
+     */
+    public NotificationType getNotificationTypeCode() {
+        return NotificationType.fromLabel(notificationType);
+    }
+
+    /**
+     * @return The status as a constant, or null if it is empty or not a known status.
+     */
+    public NotificationStatus getStatusCode() {
+        return NotificationStatus.fromLabel(status);
+    }
+
     public Timestamp getTimestamp() {
         return timestamp;
     }
@@ -103,11 +117,11 @@ public class Notification {
     }
 
     public void setNotificationType(String notificationType) {
-        this.notificationType = notificationType;
+        this.notificationType = NotificationType.canonical(notificationType);
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        this.status = NotificationStatus.canonical(status);
     }
 
     public void setTimestamp(Timestamp timestamp) {
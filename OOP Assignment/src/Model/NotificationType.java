@@ -0,0 +1,68 @@
+// model/NotificationType.java
+package Model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The channels a notification can be sent through.
+ * {@link Notification} stores the canonical label; see {@link DeliveryStatus}.
+ */
+public enum NotificationType {
+    SMS("SMS"),
+    EMAIL("Email"),
+    IN_APP("In-App");
+
+    private static final Map<String, NotificationType> BY_LABEL = new HashMap<>();
+    private static final Map<String, NotificationType> BY_LOWER_CASE_LABEL = new HashMap<>();
+
+    static {
+        for (NotificationType value : values()) {
+            BY_LABEL.put(value.label, value);
+            BY_LOWER_CASE_LABEL.put(value.label.toLowerCase(Locale.ROOT), value);
+        }
+    }
+
+    private final String label;
+
+    NotificationType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The label as stored in the database and shown in the UI.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Finds the constant for a label, ignoring case.
+     * @param label The label to look up (may be null).
+     * @return The matching constant, or null if the label is null or unknown.
+     */
+    public static NotificationType fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        NotificationType value = BY_LABEL.get(label); // Canonical labels hit here without any allocation
+        return value != null ? value : BY_LOWER_CASE_LABEL.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the canonical instance of a label: the constant's own label if it is known
+     * (in any letter case), otherwise a shared dictionary instance.
+     * @param label The label read from the database or entered by the user (may be null).
+     * @return The canonical label, or null if the label is null.
+     */
+    public static String canonical(String label) {
+        NotificationType value = fromLabel(label);
+        return value != null ? value.label : ValueDictionary.OTHER_LABELS.canonical(label);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,17 @@
+// model/PersonnelSummary.java
+package Model;
+
+/**
+ * A compact, read-only view of a delivery personnel record holding only what a selection list needs.
+ * Loaded by projection queries instead of full 'DeliveryPersonnel' rows.
+ *
+ * @param personnelId Unique identifier for the personnel.
+ * @param name Full name of the personnel.
+ * @param availabilityStatus Current availability status.
+ */
+public record PersonnelSummary(String personnelId, String name, String availabilityStatus) {
+
+    public PersonnelSummary {
+        availabilityStatus = AvailabilityStatus.canonical(availabilityStatus);
+    }
+}
@@ -1,6 +1,8 @@
 // model/Report.java
 package Model;
 
+import util.CompressedText;
+
 import java.sql.Date;
 import java.sql.Timestamp;
 
@@ -18,6 +20,7 @@ public class Report {
     private String generatedBy;
     private String reportType; // e.g., "Monthly Logistics", "Delivery Performance"
     private String reportData; // Actual content or summary of the report
+    private String storedReportData; // Report data as stored, decompressed on first access
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -113,7 +116,15 @@ public class Report {
         return reportType;
     }
 
+    /**
+     * Returns the report content, decompressing it on first access if it was loaded in stored form.
+     * @return The report content.
+     */
     public String getReportData() {
+        if (storedReportData != null) {
+            reportData = CompressedText.decompress(storedReportData);
+            storedReportData = null;
+        }
         return reportData;
     }
 
@@ -156,6 +167,17 @@ public class Report {
 
     public void setReportData(String reportData) {
         this.reportData = reportData;
+        this.storedReportData = null;
+    }
+
+    /**
+     * Sets the report content in the form it is stored in the database, possibly compressed.
+     * It is only decompressed when {@link #getReportData()} is first called.
+     * @param storedReportData The stored report content, as written by {@link CompressedText#compress(String)}.
+     */
+    public void setStoredReportData(String storedReportData) {
+        this.reportData = null;
+        this.storedReportData = storedReportData;
     }
 
     public void setCreatedAt(Timestamp createdAt) {
@@ -180,7 +202,7 @@ public class Report {
                 ", endDate=" + endDate +
                 ", generatedBy='" + generatedBy + '\'' +
                 ", reportType='" + reportType + '\'' +
-                ", reportData='" + reportData + '\'' +
+                ", reportData='" + getReportData() + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -0,0 +1,188 @@
+// model/ReportAccumulator.java
+package Model;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Collects every figure of a logistics report in a single pass over the KPI rollup groups.
+ * Partial accumulators built on different threads (or for different months) can be merged with
+ * {@link #combine(ReportAccumulator)}, so the groups can be folded with a parallel stream or on a
+ * fork-join pool. An accumulator is not thread-safe; each thread works on its own partial.
+ */
+public class ReportAccumulator {
+
+    private long shipmentsCreated;
+    private long deliveriesCompleted;
+    private long onTimeDeliveries;
+    private long lateDeliveries;
+    private long overdueDeliveries;
+    private long latenessSeconds;
+    private final Map<String, Long> shipmentsByPackageType = new TreeMap<>();
+    private final Map<String, Long> shipmentsByLocation = new TreeMap<>();
+    private final LatenessHistogram lateness = new LatenessHistogram();
+    private final Map<YearMonth, LatenessHistogram> latenessByMonth = new TreeMap<>();
+    private final Map<String, LatenessHistogram> latenessByRoute = new TreeMap<>();
+    private final Map<String, LatenessHistogram> latenessByDriver = new TreeMap<>();
+
+    /**
+     * @return A collector that folds rollup groups into one accumulator; safe to use with parallel streams.
+     */
+    public static Collector<KpiRollup, ?, ReportAccumulator> collector() {
+        return Collector.of(ReportAccumulator::new, ReportAccumulator::add, ReportAccumulator::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Adds one rollup group.
+     * @param rollup The group to add.
+     */
+    public void add(KpiRollup rollup) {
+        shipmentsCreated += rollup.shipmentsCreated();
+        deliveriesCompleted += rollup.deliveriesCompleted();
+        onTimeDeliveries += rollup.onTimeDeliveries();
+        lateDeliveries += rollup.lateDeliveries();
+        overdueDeliveries += rollup.overdueDeliveries();
+        latenessSeconds += rollup.latenessSeconds();
+        if (rollup.shipmentsCreated() > 0) {
+            shipmentsByPackageType.merge(rollup.packageType(), rollup.shipmentsCreated(), Long::sum);
+        }
+    }
+
+    /**
+     * Adds delivery figures aggregated elsewhere, e.g. for the part of a month the rollup cannot split off.
+     * @param performance The figures to add.
+     */
+    public void addDeliveryPerformance(DeliveryPerformance performance) {
+        deliveriesCompleted += performance.completedDeliveries();
+        onTimeDeliveries += performance.onTimeDeliveries();
+        lateDeliveries += performance.lateDeliveries();
+        overdueDeliveries += performance.overdueDeliveries();
+        latenessSeconds += performance.totalLatenessSeconds();
+    }
+
+    /**
+     * Adds shipment counts by package type; every shipment has exactly one package type.
+     * @param countsByPackageType A map from package type to shipment count.
+     */
+    public void addPackageTypeCounts(Map<String, Long> countsByPackageType) {
+        countsByPackageType.forEach((type, count) -> {
+            shipmentsCreated += count;
+            shipmentsByPackageType.merge(type, count, Long::sum);
+        });
+    }
+
+    /**
+     * Adds shipment counts by current location, which the rollup does not track.
+     * @param countsByLocation A map from location to shipment count.
+     */
+    public void addLocationCounts(Map<String, Long> countsByLocation) {
+        countsByLocation.forEach((location, count) -> shipmentsByLocation.merge(location, count, Long::sum));
+    }
+
+    /**
+     * Adds the lateness of successful deliveries, already counted per histogram bucket.
+     * @param month The month the deliveries were made in.
+     * @param buckets The bucket counts per route and driver.
+     */
+    public void addLatenessBuckets(YearMonth month, List<LatenessBucketCount> buckets) {
+        LatenessHistogram monthHistogram = latenessByMonth.computeIfAbsent(month, key -> new LatenessHistogram());
+        for (LatenessBucketCount bucket : buckets) {
+            lateness.recordBucket(bucket.bucket(), bucket.deliveries());
+            monthHistogram.recordBucket(bucket.bucket(), bucket.deliveries());
+            latenessByRoute.computeIfAbsent(bucket.route(), key -> new LatenessHistogram())
+                    .recordBucket(bucket.bucket(), bucket.deliveries());
+            latenessByDriver.computeIfAbsent(bucket.driverId(), key -> new LatenessHistogram())
+                    .recordBucket(bucket.bucket(), bucket.deliveries());
+        }
+    }
+
+    /**
+     * Merges another partial into this one.
+     * @param other The partial to merge; it is left unchanged.
+     * @return This accumulator.
+     */
+    public ReportAccumulator combine(ReportAccumulator other) {
+        shipmentsCreated += other.shipmentsCreated;
+        deliveriesCompleted += other.deliveriesCompleted;
+        onTimeDeliveries += other.onTimeDeliveries;
+        lateDeliveries += other.lateDeliveries;
+        overdueDeliveries += other.overdueDeliveries;
+        latenessSeconds += other.latenessSeconds;
+        other.shipmentsByPackageType.forEach((type, count) -> shipmentsByPackageType.merge(type, count, Long::sum));
+        addLocationCounts(other.shipmentsByLocation);
+        lateness.merge(other.lateness);
+        mergeHistograms(latenessByMonth, other.latenessByMonth);
+        mergeHistograms(latenessByRoute, other.latenessByRoute);
+        mergeHistograms(latenessByDriver, other.latenessByDriver);
+        return this;
+    }
+
+    private static <K> void mergeHistograms(Map<K, LatenessHistogram> target, Map<K, LatenessHistogram> source) {
+        source.forEach((key, histogram) -> {
+            LatenessHistogram existing = target.get(key);
+            if (existing == null) {
+                target.put(key, histogram.copy()); // Never share a histogram between partials
+            } else {
+                existing.merge(histogram);
+            }
+        });
+    }
+
+    /**
+     * @return The delivery figures accumulated so far.
+     */
+    public DeliveryPerformance deliveryPerformance() {
+        return new DeliveryPerformance(deliveriesCompleted, onTimeDeliveries, lateDeliveries, overdueDeliveries, latenessSeconds);
+    }
+
+    public long getShipmentsCreated() {
+        return shipmentsCreated;
+    }
+
+    /**
+     * @return Shipments created by package type, ordered by package type.
+     */
+    public Map<String, Long> getShipmentsByPackageType() {
+        return Collections.unmodifiableMap(shipmentsByPackageType);
+    }
+
+    /**
+     * @return Shipments created by current location, ordered by location.
+     */
+    public Map<String, Long> getShipmentsByLocation() {
+        return Collections.unmodifiableMap(shipmentsByLocation);
+    }
+
+    /**
+     * @return The lateness of all successful deliveries.
+     */
+    public LatenessHistogram getLateness() {
+        return lateness;
+    }
+
+    /**
+     * @return The lateness of successful deliveries by month, in calendar order.
+     */
+    public Map<YearMonth, LatenessHistogram> getLatenessByMonth() {
+        return Collections.unmodifiableMap(latenessByMonth);
+    }
+
+    /**
+     * @return The lateness of successful deliveries by route ("" for none), ordered by route.
+     */
+    public Map<String, LatenessHistogram> getLatenessByRoute() {
+        return Collections.unmodifiableMap(latenessByRoute);
+    }
+
+    /**
+     * @return The lateness of successful deliveries by driver ("" for none), ordered by driver ID.
+     */
+    public Map<String, LatenessHistogram> getLatenessByDriver() {
+        return Collections.unmodifiableMap(latenessByDriver);
+    }
+}
@@ -20,8 +20,8 @@ public class Shipment {
     private String packageContents;
     private BigDecimal weightKg;
     private String dimensionsCm;
-    private String deliveryStatus; // e.g., 'Pending', 'In Transit', 'Delivered', 'Failed'
-    private String currentLocation;
+    private String deliveryStatus; // e.g., 'Pending', 'In Transit', 'Delivered', 'Failed' (canonical instance, see DeliveryStatus)
+    private String currentLocation; // Canonical instance from ValueDictionary.LOCATIONS
     private Date scheduledDeliveryDate;
     private Time estimatedDeliveryTime;
     private String assignedDriverId; // Personnel ID
@@ -67,8 +67,8 @@ public class Shipment {
         this.packageContents = packageContents;
         this.weightKg = weightKg;
         this.dimensionsCm = dimensionsCm;
-        this.deliveryStatus = deliveryStatus;
-        this.currentLocation = currentLocation;
+        this.deliveryStatus = DeliveryStatus.canonical(deliveryStatus);
+        this.currentLocation = ValueDictionary.LOCATIONS.canonical(currentLocation);
         this.scheduledDeliveryDate = scheduledDeliveryDate;
         this.estimatedDeliveryTime = estimatedDeliveryTime;
         this.assignedDriverId = assignedDriverId;
@@ -109,8 +109,8 @@ public class Shipment {
         this.packageContents = packageContents;
         this.weightKg = weightKg;
         this.dimensionsCm = dimensionsCm;
-        this.deliveryStatus = deliveryStatus;
-        this.currentLocation = currentLocation;
+        this.deliveryStatus = DeliveryStatus.canonical(deliveryStatus);
+        this.currentLocation = ValueDictionary.LOCATIONS.canonical(currentLocation);
         this.scheduledDeliveryDate = scheduledDeliveryDate;
         this.estimatedDeliveryTime = estimatedDeliveryTime;
         this.assignedDriverId = assignedDriverId;
@@ -156,6 +156,13 @@ public class Shipment {
         return deliveryStatus;
     }
 
+    /**
+     * @return The delivery status as a constant, or null if it is empty or not a known status.
+     */
+    public DeliveryStatus getDeliveryStatusCode() {
+        return DeliveryStatus.fromLabel(deliveryStatus);
+    }
+
     public String getCurrentLocation() {
         return currentLocation;
     }
@@ -214,11 +221,11 @@ public class Shipment {
     }
 
     public void setDeliveryStatus(String deliveryStatus) {
-        this.deliveryStatus = deliveryStatus;
+        this.deliveryStatus = DeliveryStatus.canonical(deliveryStatus);
     }
 
     public void setCurrentLocation(String currentLocation) {
-        this.currentLocation = currentLocation;
+        this.currentLocation = ValueDictionary.LOCATIONS.canonical(currentLocation);
     }
 
     public void setScheduledDeliveryDate(Date scheduledDeliveryDate) {
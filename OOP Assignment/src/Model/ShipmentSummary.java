@@ -0,0 +1,18 @@
+// model/ShipmentSummary.java
+package Model;
+
+/**
+ * A compact, read-only view of a shipment holding only what a selection list needs.
+ * Loaded by projection queries instead of full 'Shipments' rows.
+ *
+ * @param shipmentId Unique identifier for the shipment.
+ * @param senderName Name of the sender.
+ * @param receiverName Name of the receiver.
+ * @param deliveryStatus Current status of the delivery.
+ */
+public record ShipmentSummary(String shipmentId, String senderName, String receiverName, String deliveryStatus) {
+
+    public ShipmentSummary {
+        deliveryStatus = DeliveryStatus.canonical(deliveryStatus);
+    }
+}
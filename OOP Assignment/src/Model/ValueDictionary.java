@@ -0,0 +1,59 @@
+// model/ValueDictionary.java
+package Model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary of canonical string instances for low-cardinality text columns.
+ * Every row read from the database brings its own copy of values such as "Warehouse";
+ * passing them through a dictionary makes all equal values share one instance, so cached
+ * rows hold a reference instead of a string each. The dictionary is bounded: once full,
+ * new values are returned as they are, so an unexpectedly high-cardinality column cannot
+ * make it grow without limit.
+ */
+public final class ValueDictionary {
+
+    /** Shipment locations and personnel routes. */
+    public static final ValueDictionary LOCATIONS = new ValueDictionary(10_000);
+
+    /** Status and type labels that are not one of the known enum values. */
+    public static final ValueDictionary OTHER_LABELS = new ValueDictionary(1_000);
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for ValueDictionary.
+     * @param maxSize The maximum number of distinct values kept.
+     */
+    public ValueDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the canonical instance of a value, adding it to the dictionary if there is room.
+     * @param value The value to look up (may be null).
+     * @return An instance equal to the value; the same instance for every equal value once it is in the dictionary.
+     */
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = values.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (values.size() >= maxSize) {
+            return value; // Full: do not grow any further
+        }
+        existing = values.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * @return The number of distinct values in the dictionary.
+     */
+    public int size() {
+        return values.size();
+    }
+}
@@ -4,9 +4,10 @@ package controller;
 import DAO.DeliveryDAO;
 import DAO.ShipmentDAO; // Required to update shipment status
 import DAO.DeliveryPersonnelDAO; // Required to update personnel status
+import DAO.ShipmentRepository; // Tells the shipment panels on the other tabs to reload
+import DAO.KpiRollupDAO; // Keeps the monthly KPI rollup in step with deliveries and assignments
 import Model.Delivery;
-import Model.Shipment; // To update shipment status
-import Model.DeliveryPersonnel; // To update personnel status
+import util.UnitOfWork; // Shares one connection and transaction across the DAO calls
 
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
@@ -25,6 +26,7 @@ public class DeliveryController {
     private DeliveryDAO deliveryDAO;
     private ShipmentDAO shipmentDAO; // To update associated shipment status
     private DeliveryPersonnelDAO personnelDAO; // To update associated personnel status
+    private KpiRollupDAO kpiRollupDAO; // To count outcomes into the monthly KPI rollup
     private DefaultTableModel deliveryTableModel; // Can be null initially, set by the view
 
     /**
@@ -39,6 +41,7 @@ public class DeliveryController {
         this.deliveryDAO = deliveryDAO;
         this.shipmentDAO = shipmentDAO;
         this.personnelDAO = personnelDAO;
+        this.kpiRollupDAO = new KpiRollupDAO();
         this.deliveryTableModel = deliveryTableModel;
     }
 
@@ -61,34 +64,38 @@ public class DeliveryController {
      */
     public boolean scheduleDelivery(String shipmentId, String personnelId, Date scheduledDate, Time estimatedTime) {
         String deliveryId = "DEL-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        // The delivery, the shipment assignment and the personnel status are written in one transaction.
+        // They are three different statements, each run once, so there is nothing for a JDBC batch to
+        // group: addBatch/executeBatch repeats one prepared statement with several parameter sets.
+        boolean success;
         try {
+            KpiRollupDAO.ensureTables(); // The driver assignment moves the shipment's rollup count
+        } catch (SQLException e) {
+            System.err.println("Error preparing KPI rollup: " + e.getMessage());
+            return false;
+        }
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
             Delivery delivery = new Delivery(deliveryId, shipmentId, personnelId,
                     scheduledDate, estimatedTime, null, null); // Outcome and Notes are null initially
-            boolean success = deliveryDAO.addDelivery(delivery);
+            success = deliveryDAO.addDelivery(delivery);
 
             if (success) {
-                // Update associated Shipment status to 'Scheduled' and assign driver
-                Shipment shipment = shipmentDAO.getShipmentById(shipmentId);
-                if (shipment != null) {
-                    shipment.setDeliveryStatus("Scheduled");
-                    shipment.setAssignedDriverId(personnelId);
-                    shipment.setScheduledDeliveryDate(scheduledDate);
-                    shipment.setEstimatedDeliveryTime(estimatedTime);
-                    shipmentDAO.updateShipment(shipment);
-                }
+                // Update associated Shipment status to 'Scheduled' and assign driver (location is kept)
+                shipmentDAO.assignDriver(shipmentId, personnelId, scheduledDate, estimatedTime, "Scheduled", null);
 
                 // Update associated Personnel status to 'On Duty' or similar
-                DeliveryPersonnel personnel = personnelDAO.getPersonnelById(personnelId);
-                if (personnel != null) {
-                    personnel.setAvailabilityStatus("On Duty");
-                    personnelDAO.updatePersonnel(personnel); // Use overloaded method
-                }
+                personnelDAO.updateAvailabilityStatus(personnelId, "On Duty");
+
+                unitOfWork.commit();
             }
-            return success;
         } catch (SQLException e) {
             System.err.println("Error scheduling delivery: " + e.getMessage());
             return false;
         }
+        if (success) {
+            refreshShipmentRepository();
+        }
+        return success;
     }
 
     /**
@@ -102,48 +109,55 @@ public class DeliveryController {
      */
     public boolean updateDeliveryStatus(String deliveryId, Date actualDate, Time actualTime,
                                         String deliveryOutcome, String deliveryNotes) {
+        // The delivery, its shipment, its personnel and the KPI rollup are updated in one transaction,
+        // as separate statements for the same reason as in scheduleDelivery.
         try {
-            Delivery delivery = deliveryDAO.getDeliveryById(deliveryId);
-            if (delivery == null) {
+            KpiRollupDAO.ensureTables(); // DDL and the first backfill must run before the transaction starts
+        } catch (SQLException e) {
+            System.err.println("Error preparing KPI rollup: " + e.getMessage());
+            return false;
+        }
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            boolean success = deliveryDAO.recordDeliveryOutcome(deliveryId, actualDate, actualTime,
+                    deliveryOutcome, deliveryNotes);
+            if (!success) {
                 System.err.println("Delivery with ID " + deliveryId + " not found. Cannot update status.");
                 return false;
             }
+            kpiRollupDAO.recordDeliveryOutcome(deliveryId);
+
+            // Update associated Shipment status based on delivery outcome
+            boolean finalOutcome = "Successful".equalsIgnoreCase(deliveryOutcome) || "Failed".equalsIgnoreCase(deliveryOutcome);
+            String shipmentStatus;
+            if ("Successful".equalsIgnoreCase(deliveryOutcome)) {
+                shipmentStatus = "Delivered";
+            } else if ("Failed".equalsIgnoreCase(deliveryOutcome)) {
+                shipmentStatus = "Failed";
+            } else {
+                shipmentStatus = "In Transit"; // Or other appropriate status if outcome is not final
+            }
+            shipmentDAO.updateStatusForDelivery(deliveryId, shipmentStatus);
 
-            delivery.setActualDeliveryDate(actualDate);
-            delivery.setActualDeliveryTime(actualTime);
-            delivery.setDeliveryOutcome(deliveryOutcome);
-            delivery.setDeliveryNotes(deliveryNotes);
-
-            boolean success = deliveryDAO.updateDelivery(delivery);
-
-            if (success) {
-                // Update associated Shipment status based on delivery outcome
-                Shipment shipment = shipmentDAO.getShipmentById(delivery.getShipmentId());
-                if (shipment != null) {
-                    if ("Successful".equalsIgnoreCase(deliveryOutcome)) {
-                        shipment.setDeliveryStatus("Delivered");
-                    } else if ("Failed".equalsIgnoreCase(deliveryOutcome)) {
-                        shipment.setDeliveryStatus("Failed");
-                    } else {
-                        shipment.setDeliveryStatus("In Transit"); // Or other appropriate status if outcome is not final
-                    }
-                    shipmentDAO.updateShipment(shipment);
-                }
-
-                // Update associated Personnel status (e.g., if 'Delivered', personnel might become 'Available')
-                DeliveryPersonnel personnel = personnelDAO.getPersonnelById(delivery.getPersonnelId());
-                if (personnel != null) {
-                    if ("Successful".equalsIgnoreCase(deliveryOutcome) || "Failed".equalsIgnoreCase(deliveryOutcome)) {
-                        personnel.setAvailabilityStatus("Available");
-                    }
-                    personnelDAO.updatePersonnel(personnel); // Use overloaded method
-                }
+            // Update associated Personnel status (e.g., if 'Delivered', personnel might become 'Available')
+            if (finalOutcome) {
+                personnelDAO.updateAvailabilityStatusForDelivery(deliveryId, "Available");
             }
-            return success;
+
+            unitOfWork.commit();
         } catch (SQLException e) {
             System.err.println("Error updating delivery status: " + e.getMessage());
             return false;
         }
+        refreshShipmentRepository();
+        return true;
+    }
+
+    /**
+     * Announces the shipment changes made by a committed delivery, so the shipment tables on the
+     * other tabs reload. Called after the unit of work has ended.
+     */
+    private void refreshShipmentRepository() {
+        ShipmentRepository.getInstance().shipmentsChanged();
     }
 
     /**
@@ -153,8 +167,17 @@ public class DeliveryController {
      */
     public boolean deleteDelivery(String deliveryId) {
         try {
+            KpiRollupDAO.ensureTables();
+        } catch (SQLException e) {
+            System.err.println("Error preparing KPI rollup: " + e.getMessage());
+            return false;
+        }
+        // The delivery leaves the KPI rollup in the same transaction that deletes it
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            kpiRollupDAO.retractDelivery(deliveryId);
             boolean success = deliveryDAO.deleteDelivery(deliveryId);
             if (success) {
+                unitOfWork.commit();
                 // No table refresh here; handled by panel's refreshDeliveryTable
             }
             return success;
@@ -2,8 +2,10 @@
 package controller;
 
 import DAO.DeliveryPersonnelDAO;
+import DAO.PersonnelDirectory;
 import Model.DeliveryPersonnel;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
 import java.sql.SQLException;
 import java.util.List;
@@ -12,6 +14,8 @@ import java.util.UUID;
 /**
  * Controller for managing Delivery Personnel.
  * This class handles the business logic for adding, updating, and deleting personnel.
+ * The personnel table is redrawn whenever the shared {@link PersonnelDirectory} changes,
+ * whichever panel or client caused it.
  */
 public class DeliveryPersonnelController {
 
@@ -26,6 +30,7 @@ public class DeliveryPersonnelController {
     public DeliveryPersonnelController(DeliveryPersonnelDAO personnelDAO, DefaultTableModel personnelTableModel) {
         this.personnelDAO = personnelDAO;
         this.personnelTableModel = personnelTableModel;
+        PersonnelDirectory.addListener(() -> SwingUtilities.invokeLater(this::refreshPersonnelTable));
     }
 
     /**
@@ -113,6 +118,21 @@ public class DeliveryPersonnelController {
         );
     }
 
+    /**
+     * Updates only the availability status of a delivery personnel record.
+     * @param personnelId The ID of the personnel to update.
+     * @param availabilityStatus The new availability status.
+     * @return true if personnel was successfully updated, false otherwise.
+     */
+    public boolean updateAvailabilityStatus(String personnelId, String availabilityStatus) {
+        try {
+            return personnelDAO.updateAvailabilityStatus(personnelId, availabilityStatus);
+        } catch (SQLException e) {
+            System.err.println("Error updating personnel availability: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Deletes a delivery personnel record from the system.
      * @param personnelId The ID of the personnel to delete.
@@ -146,7 +166,7 @@ public class DeliveryPersonnelController {
     }
 
     /**
-     * Refreshes the personnel table in the UI by fetching all personnel from the database.
+     * Refreshes the personnel table in the UI from the shared personnel directory.
      */
     public void refreshPersonnelTable() {
         if (personnelTableModel == null) { // Defensive check
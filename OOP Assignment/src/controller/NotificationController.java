@@ -10,7 +10,11 @@ import Model.DeliveryPersonnel;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -88,6 +92,41 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Sends the same notification to the customers of several shipments.
+     * All shipments are looked up with one multi-get and all notifications are recorded in one batch.
+     * @param shipmentIds The IDs of the shipments.
+     * @param messageContent The content of the message.
+     * @param notificationType The type of notification (e.g., "SMS", "Email").
+     * @return The number of notifications that were sent (recorded).
+     */
+    public int sendCustomerNotifications(Collection<String> shipmentIds, String messageContent, String notificationType) {
+        try {
+            Map<String, Shipment> shipments = shipmentDAO.getShipmentsByIds(shipmentIds);
+            List<Notification> notifications = new ArrayList<>();
+            for (String shipmentId : new LinkedHashSet<>(shipmentIds)) {
+                Shipment shipment = shipments.get(shipmentId);
+                if (shipment == null) {
+                    System.err.println("Shipment with ID " + shipmentId + " not found. Cannot send customer notification.");
+                    continue;
+                }
+                Notification notification = new Notification();
+                notification.setNotificationId("NOT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+                notification.setShipmentId(shipmentId);
+                notification.setPersonnelId(null); // No personnel for customer notification
+                notification.setCustomerContact(shipment.getReceiverName() + " (via shipment " + shipmentId + ")");
+                notification.setMessageContent(messageContent);
+                notification.setNotificationType(notificationType);
+                notification.setStatus("Sent");
+                notifications.add(notification);
+            }
+            return notifications.isEmpty() ? 0 : notificationDAO.addNotifications(notifications).getInsertedCount();
+        } catch (SQLException e) {
+            System.err.println("Error sending customer notifications: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Sends a notification to a delivery personnel.
      * @param personnelId The ID of the personnel.
@@ -128,6 +167,41 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Sends the same notification to several delivery personnel.
+     * All personnel are looked up with one multi-get and all notifications are recorded in one batch.
+     * @param personnelIds The IDs of the personnel.
+     * @param messageContent The content of the message.
+     * @param notificationType The type of notification (e.g., "SMS", "Email").
+     * @return The number of notifications that were sent (recorded).
+     */
+    public int sendPersonnelNotifications(Collection<String> personnelIds, String messageContent, String notificationType) {
+        try {
+            Map<String, DeliveryPersonnel> personnelById = personnelDAO.getPersonnelByIds(personnelIds);
+            List<Notification> notifications = new ArrayList<>();
+            for (String personnelId : new LinkedHashSet<>(personnelIds)) {
+                DeliveryPersonnel personnel = personnelById.get(personnelId);
+                if (personnel == null) {
+                    System.err.println("Personnel with ID " + personnelId + " not found. Cannot send personnel notification.");
+                    continue;
+                }
+                Notification notification = new Notification();
+                notification.setNotificationId("NOT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+                notification.setShipmentId(null); // No shipment for personnel notification directly
+                notification.setPersonnelId(personnelId);
+                notification.setCustomerContact(personnel.getName() + " (" + personnel.getContactNumber() + ")");
+                notification.setMessageContent(messageContent);
+                notification.setNotificationType(notificationType);
+                notification.setStatus("Sent");
+                notifications.add(notification);
+            }
+            return notifications.isEmpty() ? 0 : notificationDAO.addNotifications(notifications).getInsertedCount();
+        } catch (SQLException e) {
+            System.err.println("Error sending personnel notifications: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Deletes a notification record from the system.
      * @param notificationId The ID of the notification to delete.
@@ -4,11 +4,20 @@ package controller;
 import DAO.ReportDAO;
 import DAO.DeliveryDAO; // For delivery performance metrics
 import DAO.ShipmentDAO; // For shipment volume metrics
+import DAO.AnalyticsDAO; // Aggregates the report figures in the database
+import DAO.KpiRollupDAO; // Monthly totals maintained as shipments and deliveries are recorded
 import Model.Report;
-import Model.Delivery;
-import Model.Shipment;
+import Model.DeliveryPerformance;
+import Model.DriverPerformance;
+import Model.KpiRollup;
+import Model.LatenessHistogram;
+import Model.ReportAccumulator;
+import util.RecordFileWriter; // Streams exported rows to CSV or JSON Lines
 
 import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -17,10 +26,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Period; // For date difference
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.text.DecimalFormat; // For formatting percentages and averages
 
 /**
@@ -29,9 +44,17 @@ import java.text.DecimalFormat; // For formatting percentages and averages
  */
 public class ReportController {
 
+    private static final int PARALLEL_FOLD_THRESHOLD = 10_000; // Rollup groups below which a sequential fold is faster
+    private static final int REPORT_PARALLELISM = 4; // Months computed at once; leaves pooled connections for the UI
+
+    // Computes the months of a range report concurrently; its worker threads are daemons
+    private static final ForkJoinPool REPORT_POOL = new ForkJoinPool(REPORT_PARALLELISM);
+
     private ReportDAO reportDAO;
     private DeliveryDAO deliveryDAO;
     private ShipmentDAO shipmentDAO;
+    private AnalyticsDAO analyticsDAO;
+    private KpiRollupDAO kpiRollupDAO;
     private DefaultTableModel reportTableModel;
 
     /**
@@ -45,6 +68,8 @@ public class ReportController {
         this.reportDAO = reportDAO;
         this.deliveryDAO = deliveryDAO;
         this.shipmentDAO = shipmentDAO;
+        this.analyticsDAO = new AnalyticsDAO();
+        this.kpiRollupDAO = new KpiRollupDAO();
         this.reportTableModel = reportTableModel;
     }
 
@@ -65,112 +90,89 @@ public class ReportController {
      * @return The formatted report content string.
      */
     public String generateStructuredReport(String reportName, int month, int year, String generatedBy) {
+        LocalDate periodStart = LocalDate.of(year, month, 1);
+        return generateRangeReport(reportName, periodStart, periodStart.with(TemporalAdjusters.lastDayOfMonth()), generatedBy);
+    }
+
+    /**
+     * Generates a structured report for any range of days (a quarter, a year or custom dates) and saves it.
+     * The range is split into calendar months, which are computed concurrently and then merged.
+     * @param reportName The name of the report.
+     * @param periodStart The first day of the report period.
+     * @param periodEnd The last day of the report period.
+     * @param generatedBy The user generating the report.
+     * @return The formatted report content string.
+     * @throws IllegalArgumentException if the period ends before it starts.
+     */
+    public String generateRangeReport(String reportName, LocalDate periodStart, LocalDate periodEnd, String generatedBy) {
+        if (periodEnd.isBefore(periodStart)) {
+            throw new IllegalArgumentException("The end of the report period is before its start.");
+        }
         String reportContent = "";
         String reportId = "RPT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-
-        LocalDate periodStart = LocalDate.of(year, month, 1);
-        LocalDate periodEnd = periodStart.plusMonths(1).minusDays(1);
+        boolean singleMonth = periodStart.getDayOfMonth() == 1
+                && periodEnd.equals(periodStart.with(TemporalAdjusters.lastDayOfMonth()));
 
         Date startDate = Date.valueOf(periodStart);
         Date endDate = Date.valueOf(periodEnd);
 
         try {
-            // Fetch all data and filter in Java for simplicity (avoids complex SQL for ranges)
-            List<Delivery> allDeliveries = deliveryDAO.getAllDeliveries();
-            List<Shipment> allShipments = shipmentDAO.getAllShipments();
-
-            // Filter data for the specified period
-            List<Delivery> periodDeliveries = allDeliveries.stream()
-                    .filter(d -> d.getActualDeliveryDate() != null) // Only consider completed deliveries
-                    .filter(d -> {
-                        LocalDate actualDate = d.getActualDeliveryDate().toLocalDate();
-                        return !actualDate.isBefore(periodStart) && !actualDate.isAfter(periodEnd);
-                    })
-                    .collect(Collectors.toList());
-
-            List<Shipment> periodShipments = allShipments.stream()
-                    .filter(s -> s.getCreatedAt() != null) // Assuming created_at determines "processed" within period
-                    .filter(s -> {
-                        LocalDate createdAtDate = s.getCreatedAt().toLocalDateTime().toLocalDate();
-                        return !createdAtDate.isBefore(periodStart) && !createdAtDate.isAfter(periodEnd);
-                    })
-                    .collect(Collectors.toList());
+            ReportAccumulator metrics = collectRange(periodStart, periodEnd);
+            metrics.addLocationCounts(analyticsDAO.countShipmentsByLocation(startDate, endDate));
+            DeliveryPerformance performance = metrics.deliveryPerformance();
 
             // --- Generate Report Sections ---
             StringBuilder reportBuilder = new StringBuilder();
             DecimalFormat df = new DecimalFormat("0.00");
 
-            reportBuilder.append("--- Monthly Logistics Report (").append(String.format("%02d", month)).append("/").append(year).append(") ---\n\n");
+            if (singleMonth) {
+                reportBuilder.append("--- Monthly Logistics Report (").append(String.format("%02d", periodStart.getMonthValue()))
+                        .append("/").append(periodStart.getYear()).append(") ---\n\n");
+            } else {
+                reportBuilder.append("--- Logistics Report (").append(periodStart).append(" to ").append(periodEnd).append(") ---\n\n");
+            }
 
             // 1. Delivery Performance
             reportBuilder.append("Delivery Performance\n");
-            long totalDeliveriesCompleted = periodDeliveries.stream()
-                    .filter(d -> "Successful".equalsIgnoreCase(d.getDeliveryOutcome()))
-                    .count();
-            long onTimeDeliveries = periodDeliveries.stream()
-                    .filter(d -> "Successful".equalsIgnoreCase(d.getDeliveryOutcome()))
-                    .filter(d -> {
-                        if (d.getActualDeliveryDate() != null && d.getScheduledDeliveryDate() != null) {
-                            return d.getActualDeliveryDate().toLocalDate().isBefore(d.getScheduledDeliveryDate().toLocalDate()) ||
-                                    d.getActualDeliveryDate().toLocalDate().isEqual(d.getScheduledDeliveryDate().toLocalDate());
-                        }
-                        return false;
-                    })
-                    .count();
-
-            double onTimeDeliveryRate = (totalDeliveriesCompleted > 0) ? ((double) onTimeDeliveries / totalDeliveriesCompleted) * 100 : 0.00;
+            double onTimeDeliveryRate = performance.onTimeRate();
             reportBuilder.append("  - On-time Delivery Rate: ").append(df.format(onTimeDeliveryRate)).append(" %\n");
 
-            // Calculate Average Delivery Time (for successful deliveries)
-            // Using Duration for more precise time differences (assuming actual/scheduled dates have time components if using TIMESTAMP)
-            // If only DATE is stored, then this calculation is less precise, just using days.
-            long totalDurationSeconds = 0;
-            long deliveriesWithTimes = 0;
-            for (Delivery d : periodDeliveries) {
-                if ("Successful".equalsIgnoreCase(d.getDeliveryOutcome()) &&
-                        d.getScheduledDeliveryDate() != null && d.getEstimatedDeliveryTime() != null &&
-                        d.getActualDeliveryDate() != null && d.getActualDeliveryTime() != null) {
-
-                    LocalDateTime scheduledDateTime = LocalDateTime.of(d.getScheduledDeliveryDate().toLocalDate(), d.getEstimatedDeliveryTime().toLocalTime());
-                    LocalDateTime actualDateTime = LocalDateTime.of(d.getActualDeliveryDate().toLocalDate(), d.getActualDeliveryTime().toLocalTime());
-
-                    if (actualDateTime.isAfter(scheduledDateTime)) { // Only count positive duration for 'delivery time'
-                        totalDurationSeconds += Duration.between(scheduledDateTime, actualDateTime).getSeconds();
-                        deliveriesWithTimes++;
-                    }
-                }
-            }
-            double averageDeliveryTimeHours = (deliveriesWithTimes > 0) ? (double)totalDurationSeconds / deliveriesWithTimes / 3600.0 : 0.00; // Convert seconds to hours
+            // Average Delivery Time: how late the successful deliveries that missed their scheduled time were
+            double averageDeliveryTimeHours = performance.averageLatenessHours();
             reportBuilder.append("  - Average Delivery Time (Hours): ").append(df.format(averageDeliveryTimeHours)).append("\n");
-            reportBuilder.append("  - Total Deliveries Completed: ").append(totalDeliveriesCompleted).append("\n\n");
+            reportBuilder.append("  - Total Deliveries Completed: ").append(performance.completedDeliveries()).append("\n\n");
+
+            // Lateness percentiles of the successful deliveries (on-time deliveries count as 0 hours late)
+            reportBuilder.append("Lateness Percentiles (Hours: p50 / p90 / p95 / p99)\n");
+            appendPercentiles(reportBuilder, "Overall", metrics.getLateness());
+            if (metrics.getLatenessByMonth().size() > 1) {
+                reportBuilder.append("  - By Month:\n");
+                metrics.getLatenessByMonth().forEach((yearMonth, histogram) -> appendPercentiles(reportBuilder, "  " + yearMonth, histogram));
+            }
+            reportBuilder.append("  - By Route:\n");
+            metrics.getLatenessByRoute().forEach((route, histogram) ->
+                    appendPercentiles(reportBuilder, "  " + (route.isEmpty() ? "(no route)" : route), histogram));
+            reportBuilder.append("  - By Driver:\n");
+            metrics.getLatenessByDriver().forEach((driverId, histogram) ->
+                    appendPercentiles(reportBuilder, "  " + (driverId.isEmpty() ? "(no driver)" : driverId), histogram));
+            reportBuilder.append("\n");
 
             // 2. Customer Satisfaction (Proxy)
             reportBuilder.append("Customer Satisfaction (Proxy)\n");
             double deliveriesWithoutDelaysRate = onTimeDeliveryRate; // Using same metric as on-time for proxy
             reportBuilder.append("  - Deliveries Without Delays: ").append(df.format(deliveriesWithoutDelaysRate)).append(" %\n\n");
 
-            // 3. Shipment Volumes
+            // 3. Shipment Volumes (created_at determines "processed" within period)
             reportBuilder.append("Shipment Volumes\n");
-            reportBuilder.append("  - Total Shipments Processed: ").append(periodShipments.size()).append("\n");
+            reportBuilder.append("  - Total Shipments Processed: ").append(metrics.getShipmentsCreated()).append("\n");
 
             // Volume by Package Type (based on simple keywords in package_contents)
-            Map<String, Long> volumeByPackageType = periodShipments.stream()
-                    .map(s -> {
-                        String contents = s.getPackageContents() != null ? s.getPackageContents().toLowerCase() : "";
-                        if (contents.contains("parcel") || contents.contains("box")) return "Parcels";
-                        if (contents.contains("document") || contents.contains("letter")) return "Documents/Letters";
-                        if (contents.contains("fragile")) return "Fragile Items";
-                        return "Other";
-                    })
-                    .collect(Collectors.groupingBy(type -> type, Collectors.counting()));
             reportBuilder.append("  - Volume by Package Type:\n");
-            volumeByPackageType.forEach((type, count) -> reportBuilder.append("    - ").append(type).append(": ").append(count).append("\n"));
+            metrics.getShipmentsByPackageType().forEach((type, count) -> reportBuilder.append("    - ").append(type).append(": ").append(count).append("\n"));
             reportBuilder.append("\n");
 
-            // Volume by Route (based on Shipment.current_location as a proxy)
-            Map<String, Long> volumeByRoute = periodShipments.stream()
-                    .filter(s -> s.getCurrentLocation() != null && !s.getCurrentLocation().trim().isEmpty())
-                    .collect(Collectors.groupingBy(Shipment::getCurrentLocation, Collectors.counting()));
+            // Volume by Route (based on Shipment.current_location as a proxy, which the rollup does not track)
+            Map<String, Long> volumeByRoute = metrics.getShipmentsByLocation();
             reportBuilder.append("  - Volume by Route:\n");
             if (volumeByRoute.isEmpty()) {
                 reportBuilder.append("    - No specific routes recorded for this period.\n");
@@ -184,7 +186,7 @@ public class ReportController {
 
             // Save the generated report
             Report report = new Report(reportId, reportName, new Timestamp(System.currentTimeMillis()),
-                    startDate, endDate, generatedBy, "Monthly Logistics", reportContent); // "Monthly Logistics" as report type
+                    startDate, endDate, generatedBy, singleMonth ? "Monthly Logistics" : "Range Logistics", reportContent);
             boolean success = reportDAO.addReport(report);
             if (!success) {
                 System.err.println("Failed to save report to database after generation.");
@@ -204,6 +206,249 @@ public class ReportController {
         return reportContent;
     }
 
+    /**
+     * Generates a driver leaderboard for a period and saves it: deliveries completed, on-time rate,
+     * failure rate and average lateness per driver, best on-time rate first. The drivers' deliveries
+     * are grouped by personnel ID in the database, so only one row per driver is transferred.
+     * @param reportName The name of the report.
+     * @param periodStart The first day of the report period.
+     * @param periodEnd The last day of the report period.
+     * @param generatedBy The user generating the report.
+     * @return The formatted report content string.
+     * @throws IllegalArgumentException if the period ends before it starts.
+     */
+    public String generateDriverLeaderboard(String reportName, LocalDate periodStart, LocalDate periodEnd, String generatedBy) {
+        if (periodEnd.isBefore(periodStart)) {
+            throw new IllegalArgumentException("The end of the report period is before its start.");
+        }
+        String reportId = "RPT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        Date startDate = Date.valueOf(periodStart);
+        Date endDate = Date.valueOf(periodEnd);
+        String reportContent;
+
+        try {
+            List<DriverPerformance> drivers = new ArrayList<>(analyticsDAO.getDriverPerformance(startDate, endDate));
+            drivers.sort(Comparator.comparingDouble((DriverPerformance driver) -> driver.performance().onTimeRate()).reversed()
+                    .thenComparing(Comparator.comparingLong((DriverPerformance driver) -> driver.performance().completedDeliveries()).reversed())
+                    .thenComparing(DriverPerformance::personnelId));
+
+            StringBuilder reportBuilder = new StringBuilder();
+            DecimalFormat df = new DecimalFormat("0.00");
+            reportBuilder.append("--- Driver Leaderboard (").append(periodStart).append(" to ").append(periodEnd).append(") ---\n\n");
+            if (drivers.isEmpty()) {
+                reportBuilder.append("No deliveries were completed or failed in this period.\n");
+            }
+            int rank = 1;
+            for (DriverPerformance driver : drivers) {
+                DeliveryPerformance performance = driver.performance();
+                reportBuilder.append(rank++).append(". ")
+                        .append(driver.name() != null ? driver.name() : "(unknown)").append(" (").append(driver.personnelId()).append(")\n");
+                reportBuilder.append("  - Deliveries Completed: ").append(performance.completedDeliveries()).append("\n");
+                reportBuilder.append("  - On-time Delivery Rate: ").append(df.format(performance.onTimeRate())).append(" %\n");
+                reportBuilder.append("  - Failure Rate: ").append(df.format(driver.failureRate())).append(" %\n");
+                reportBuilder.append("  - Average Lateness (Hours): ").append(df.format(performance.averageLatenessHours())).append("\n\n");
+            }
+            reportContent = reportBuilder.toString();
+
+            Report report = new Report(reportId, reportName, new Timestamp(System.currentTimeMillis()),
+                    startDate, endDate, generatedBy, "Driver Leaderboard", reportContent);
+            if (!reportDAO.addReport(report)) {
+                System.err.println("Failed to save driver leaderboard to database after generation.");
+                return "Report generated, but failed to save to database.";
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error during driver leaderboard generation: " + e.getMessage());
+            return "Error retrieving data for report: " + e.getMessage();
+        }
+        return reportContent;
+    }
+
+    /**
+     * Appends one "label: p50 / p90 / p95 / p99 (n deliveries)" line, in hours.
+     */
+    private static void appendPercentiles(StringBuilder reportBuilder, String label, LatenessHistogram histogram) {
+        DecimalFormat df = new DecimalFormat("0.00");
+        reportBuilder.append("  - ").append(label).append(": ");
+        if (histogram.getCount() == 0) {
+            reportBuilder.append("no deliveries\n");
+            return;
+        }
+        double[] percentiles = {50, 90, 95, 99};
+        for (int i = 0; i < percentiles.length; i++) {
+            if (i > 0) {
+                reportBuilder.append(" / ");
+            }
+            reportBuilder.append(df.format(histogram.percentileSeconds(percentiles[i]) / 3600.0));
+        }
+        reportBuilder.append(" (").append(histogram.getCount()).append(" deliveries)\n");
+    }
+
+    /**
+     * Collects the figures of a period on the report pool, one fork-join task per calendar month.
+     */
+    private ReportAccumulator collectRange(LocalDate periodStart, LocalDate periodEnd) throws SQLException {
+        List<LocalDate[]> months = new ArrayList<>();
+        for (LocalDate from = periodStart; !from.isAfter(periodEnd); from = from.with(TemporalAdjusters.firstDayOfNextMonth())) {
+            LocalDate monthEnd = from.with(TemporalAdjusters.lastDayOfMonth());
+            months.add(new LocalDate[]{from, monthEnd.isBefore(periodEnd) ? monthEnd : periodEnd});
+        }
+        try {
+            return REPORT_POOL.invoke(new MonthPartitionTask(analyticsDAO, kpiRollupDAO, months, 0, months.size()));
+        } catch (CompletionException e) {
+            // Fork-join may wrap the task's exception once more when it crosses threads
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Collects the figures of one calendar month, or of the part of it that lies inside the report period.
+     * A whole month is summed from its KPI rollup groups, which are cached once the month has ended; a partial
+     * month at either end of a custom range is aggregated from the raw rows, as the rollup cannot split it;
+     * its lateness buckets come from the delivery facts, which carry the route the monthly buckets use.
+     */
+    private static ReportAccumulator collectMonth(AnalyticsDAO analyticsDAO, KpiRollupDAO kpiRollupDAO,
+                                                  LocalDate from, LocalDate to) throws SQLException {
+        if (from.getDayOfMonth() == 1 && to.equals(from.with(TemporalAdjusters.lastDayOfMonth()))) {
+            List<KpiRollup> rollups = kpiRollupDAO.getMonthlyRollups(from.getYear(), from.getMonthValue());
+            ReportAccumulator month = (rollups.size() >= PARALLEL_FOLD_THRESHOLD ? rollups.parallelStream() : rollups.stream())
+                    .collect(ReportAccumulator.collector());
+            month.addLatenessBuckets(YearMonth.from(from), kpiRollupDAO.getMonthlyLatenessBuckets(from.getYear(), from.getMonthValue()));
+            return month;
+        }
+        ReportAccumulator partial = new ReportAccumulator();
+        partial.addDeliveryPerformance(analyticsDAO.getDeliveryPerformance(Date.valueOf(from), Date.valueOf(to)));
+        partial.addPackageTypeCounts(analyticsDAO.countShipmentsByPackageType(Date.valueOf(from), Date.valueOf(to)));
+        partial.addLatenessBuckets(YearMonth.from(from), kpiRollupDAO.getLatenessBuckets(Date.valueOf(from), Date.valueOf(to)));
+        return partial;
+    }
+
+    /**
+     * Splits a run of month partitions in half until one month is left, then merges the partials on the way back.
+     * It is given the DAOs rather than reaching into the controller, so a queued task holds nothing else.
+     */
+    private static final class MonthPartitionTask extends RecursiveTask<ReportAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final AnalyticsDAO analyticsDAO;
+        private final KpiRollupDAO kpiRollupDAO;
+        private final List<LocalDate[]> months;
+        private final int start;
+        private final int end;
+
+        MonthPartitionTask(AnalyticsDAO analyticsDAO, KpiRollupDAO kpiRollupDAO, List<LocalDate[]> months, int start, int end) {
+            this.analyticsDAO = analyticsDAO;
+            this.kpiRollupDAO = kpiRollupDAO;
+            this.months = months;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ReportAccumulator compute() {
+            if (end - start == 1) {
+                try {
+                    return collectMonth(analyticsDAO, kpiRollupDAO, months.get(start)[0], months.get(start)[1]);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }
+            int middle = (start + end) >>> 1;
+            MonthPartitionTask left = new MonthPartitionTask(analyticsDAO, kpiRollupDAO, months, start, middle);
+            left.fork();
+            ReportAccumulator right = new MonthPartitionTask(analyticsDAO, kpiRollupDAO, months, middle, end).compute();
+            return left.join().combine(right);
+        }
+    }
+
+    /**
+     * Formats a report's period for the table: "month/year" for a single month, otherwise "start to end".
+     */
+    private static String describePeriod(Report report) {
+        if (report.getStartDate() == null || report.getEndDate() == null) {
+            return "N/A";
+        }
+        LocalDate start = report.getStartDate().toLocalDate();
+        LocalDate end = report.getEndDate().toLocalDate();
+        if (start.getDayOfMonth() == 1 && end.equals(start.with(TemporalAdjusters.lastDayOfMonth()))) {
+            return start.getMonthValue() + "/" + start.getYear();
+        }
+        return start + " to " + end;
+    }
+
+    /**
+     * Exports the delivery and shipment rows behind a report to two files in a directory,
+     * "<reportId>-deliveries" and "<reportId>-shipments" with a .csv or .jsonl extension.
+     * Rows are streamed from the database cursor straight into the file, so the export needs no
+     * more memory for a year of data than for a day. The files are written one after the other.
+     * @param reportId The ID of the report whose period is exported.
+     * @param directory The directory to write the files to.
+     * @param format The file format.
+     * @return A message describing the outcome, for display to the user.
+     */
+    public String exportReportData(String reportId, Path directory, RecordFileWriter.Format format) {
+        String extension = format == RecordFileWriter.Format.CSV ? ".csv" : ".jsonl";
+        try {
+            Report report = reportDAO.getReportById(reportId);
+            if (report == null) {
+                return "Report " + reportId + " was not found.";
+            }
+            if (report.getStartDate() == null || report.getEndDate() == null) {
+                return "Report " + reportId + " has no period to export.";
+            }
+            Date startDate = report.getStartDate();
+            Date endDate = report.getEndDate();
+
+            long deliveries;
+            try (RecordFileWriter writer = new RecordFileWriter(directory.resolve(reportId + "-deliveries" + extension), format,
+                    "delivery_id", "shipment_id", "personnel_id", "actual_delivery_date", "actual_delivery_time",
+                    "delivery_outcome", "delivery_notes", "created_at", "updated_at")) {
+                deliveryDAO.forEachDeliveryBetween(startDate, endDate, delivery -> {
+                    try {
+                        writer.writeRecord(delivery.getDeliveryId(), delivery.getShipmentId(), delivery.getPersonnelId(),
+                                delivery.getActualDeliveryDate(), delivery.getActualDeliveryTime(), delivery.getDeliveryOutcome(),
+                                delivery.getDeliveryNotes(), delivery.getCreatedAt(), delivery.getUpdatedAt());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                deliveries = writer.getRecordCount();
+            }
+
+            long shipments;
+            try (RecordFileWriter writer = new RecordFileWriter(directory.resolve(reportId + "-shipments" + extension), format,
+                    "shipment_id", "sender_name", "sender_address", "receiver_name", "receiver_address", "package_contents",
+                    "weight_kg", "dimensions_cm", "delivery_status", "current_location", "scheduled_delivery_date",
+                    "estimated_delivery_time", "assigned_driver_id", "created_at", "updated_at")) {
+                shipmentDAO.forEachShipmentCreatedBetween(startDate, endDate, shipment -> {
+                    try {
+                        writer.writeRecord(shipment.getShipmentId(), shipment.getSenderName(), shipment.getSenderAddress(),
+                                shipment.getReceiverName(), shipment.getReceiverAddress(), shipment.getPackageContents(),
+                                shipment.getWeightKg(), shipment.getDimensionsCm(), shipment.getDeliveryStatus(),
+                                shipment.getCurrentLocation(), shipment.getScheduledDeliveryDate(),
+                                shipment.getEstimatedDeliveryTime(), shipment.getAssignedDriverId(),
+                                shipment.getCreatedAt(), shipment.getUpdatedAt());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                shipments = writer.getRecordCount();
+            }
+            return "Exported " + deliveries + " deliveries and " + shipments + " shipments to " + directory + ".";
+        } catch (SQLException e) {
+            System.err.println("Database error during report export: " + e.getMessage());
+            return "Error retrieving data for export: " + e.getMessage();
+        } catch (IOException | UncheckedIOException e) {
+            String message = e instanceof UncheckedIOException ? e.getCause().getMessage() : e.getMessage();
+            System.err.println("Error writing report export: " + message);
+            return "Error writing export files: " + message;
+        }
+    }
+
     /**
      * Deletes a report record from the system.
      * @param reportId The ID of the report to delete.
@@ -219,6 +464,24 @@ public class ReportController {
         }
     }
 
+    /**
+     * A "Report Data" table cell that defers decompressing the report body until the cell is rendered
+     * or read; the table only renders the rows in view. The report keeps the text once decompressed.
+     */
+    private static final class ReportDataCell {
+        private final Report report;
+
+        ReportDataCell(Report report) {
+            this.report = report;
+        }
+
+        @Override
+        public String toString() {
+            String reportData = report.getReportData();
+            return reportData != null ? reportData : "";
+        }
+    }
+
     /**
      * Refreshes the report table in the UI by fetching all reports from the database.
      */
@@ -236,10 +499,9 @@ public class ReportController {
                         report.getReportId(),
                         report.getReportName(),
                         report.getGeneratedDate(),
-                        (report.getStartDate() != null && report.getEndDate() != null) ?
-                                report.getStartDate().toLocalDate().getMonthValue() + "/" + report.getStartDate().toLocalDate().getYear() : "N/A",
+                        describePeriod(report),
                         report.getGeneratedBy(),
-                        report.getReportData()
+                        new ReportDataCell(report) // Decompressed only when the row is displayed or selected
                 });
             }
         } catch (SQLException e) {
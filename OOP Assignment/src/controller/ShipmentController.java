@@ -1,44 +1,95 @@
 // controller/ShipmentController.java
 package controller;
 
+import DAO.RepositoryListener;
 import DAO.ShipmentDAO;
+import DAO.ShipmentRepository;
+import DAO.ShipmentSnapshot;
+import DAO.ShipmentSnapshotFile;
+import Model.DeliveryStatus;
 import Model.Shipment;
+import Model.ShipmentSummary;
 
 import javax.swing.JTable;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller for managing Shipment-related operations.
  * This class handles the business logic for adding, updating, and deleting shipments.
+ * Every committed write is announced through the shared {@link ShipmentRepository}. While a table
+ * is attached, its {@link ShipmentSnapshot} is kept current by delta sync whenever the repository
+ * reports a change, whichever panel caused it. The snapshot reads unchanged rows from the
+ * memory-mapped snapshot file, so only the changes made since the file was built are on the heap.
+ * The same snapshot is the source of the shipment selection lists on the other tabs
+ * (see {@link #getShipmentSummaries(boolean)}), so the application holds one copy of the table.
  */
 public class ShipmentController {
 
+    // A snapshot file older than this is rebuilt from the database instead of being caught up by delta
+    private static final long SNAPSHOT_FILE_MAX_AGE_MS = 24 * 60 * 60_000L;
+
+    // Opens or builds the snapshot file off the Swing event thread; a build streams the whole table
+    private static final ExecutorService SNAPSHOT_FILE_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "shipment-snapshot-file");
+        t.setDaemon(true); // Must not keep the Swing application alive
+        return t;
+    });
+
     private ShipmentDAO shipmentDAO;
-    private DefaultTableModel shipmentTableModel; // Can be null initially, set by the view
+    private AbstractTableModel shipmentTableModel; // Can be null initially, set by the view
+    private final ShipmentRepository shipmentRepository; // Announces shipment changes to every tab
+    private final ShipmentSnapshot shipmentSnapshot; // Copy of the table behind the shipment table model, synced by delta
+    private ShipmentSnapshotFile snapshotFile; // Base of the snapshot while a table is attached; closed on detach
+    private boolean snapshotFileLoading; // A file is being opened or built in the background (event thread only)
+    private final RepositoryListener tableListener = () -> SwingUtilities.invokeLater(this::refreshShipmentTable);
 
     /**
      * Constructor for ShipmentController.
      * @param shipmentDAO The DAO for Shipment operations.
      * @param shipmentTableModel The table model for displaying shipment data in the UI (can be null if set later).
      */
-    public ShipmentController(ShipmentDAO shipmentDAO, DefaultTableModel shipmentTableModel) {
+    public ShipmentController(ShipmentDAO shipmentDAO, AbstractTableModel shipmentTableModel) {
         this.shipmentDAO = shipmentDAO;
-        this.shipmentTableModel = shipmentTableModel;
+        this.shipmentRepository = ShipmentRepository.getInstance();
+        this.shipmentSnapshot = new ShipmentSnapshot(shipmentDAO.newDeltaSnapshot());
+        setTableModel(shipmentTableModel);
     }
 
     /**
      * Sets the table model for this controller. This is useful when the table model
      * is created by the view panel and then passed to the controller.
-     * @param shipmentTableModel The DefaultTableModel to use.
+     * While a table model is set, the controller listens for shipment changes; passing null
+     * unsubscribes it, releases the snapshot file and frees the changes held on the heap.
+     * @param shipmentTableModel A table model that reads from {@link #getShipmentSnapshot()}, or null to detach the table.
      */
-    public void setTableModel(DefaultTableModel shipmentTableModel) {
+    public void setTableModel(AbstractTableModel shipmentTableModel) {
         this.shipmentTableModel = shipmentTableModel;
+        shipmentRepository.removeListener(tableListener); // Never subscribed twice
+        if (shipmentTableModel != null) {
+            shipmentRepository.addListener(tableListener);
+        } else {
+            shipmentSnapshot.close();
+            releaseSnapshotFile();
+        }
+    }
+
+    /**
+     * @return The copy of the Shipments table that the attached table model reads from.
+     */
+    public ShipmentSnapshot getShipmentSnapshot() {
+        return shipmentSnapshot;
     }
 
 
@@ -65,7 +116,7 @@ public class ShipmentController {
                     deliveryStatus, "Warehouse", (Date) null, (Time) null, (String) null); // Initial location & null driver/dates
             boolean success = shipmentDAO.addShipment(shipment);
             if (success) {
-                // No table refresh here; handled by panel's refreshShipmentTable
+                refreshRepository(); // Subscribed tables redraw themselves
             }
             return success;
         } catch (SQLException e) {
@@ -104,7 +155,7 @@ public class ShipmentController {
                     (Time) estimatedDeliveryTime, (String) assignedDriverId);
             boolean success = shipmentDAO.updateShipment(shipment);
             if (success) {
-                // No table refresh here; handled by panel's refreshShipmentTable
+                refreshRepository(); // Subscribed tables redraw themselves
             }
             return success;
         } catch (SQLException e) {
@@ -113,12 +164,85 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * Updates only the location and delivery status of a shipment.
+     * @param shipmentId The ID of the shipment to update.
+     * @param currentLocation The new current location.
+     * @param deliveryStatus The new delivery status.
+     * @return true if shipment was successfully updated, false otherwise.
+     */
+    public boolean updateLocationAndStatus(String shipmentId, String currentLocation, String deliveryStatus) {
+        try {
+            boolean success = shipmentDAO.updateLocationAndStatus(shipmentId, currentLocation, deliveryStatus);
+            if (success) {
+                refreshRepository();
+            }
+            return success;
+        } catch (SQLException e) {
+            System.err.println("Error updating shipment location: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Updates only the scheduled delivery date and estimated delivery time of a shipment.
+     * @param shipmentId The ID of the shipment to update.
+     * @param scheduledDeliveryDate The new scheduled delivery date.
+     * @param estimatedDeliveryTime The new estimated delivery time.
+     * @return true if shipment was successfully updated, false otherwise.
+     */
+    public boolean updateEta(String shipmentId, Date scheduledDeliveryDate, Time estimatedDeliveryTime) {
+        try {
+            boolean success = shipmentDAO.updateEta(shipmentId, scheduledDeliveryDate, estimatedDeliveryTime);
+            if (success) {
+                refreshRepository();
+            }
+            return success;
+        } catch (SQLException e) {
+            System.err.println("Error updating shipment ETA: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Assigns a driver to a shipment and sets its schedule.
+     * @param shipmentId The ID of the shipment to update.
+     * @param assignedDriverId The ID of the driver to assign.
+     * @param scheduledDeliveryDate The scheduled delivery date (can be null).
+     * @param estimatedDeliveryTime The estimated delivery time (can be null).
+     * @param deliveryStatus The new delivery status, or null to keep the current one.
+     * @param currentLocation The new current location, or null to keep the current one.
+     * @return true if shipment was successfully updated, false otherwise.
+     */
+    public boolean assignDriver(String shipmentId, String assignedDriverId, Date scheduledDeliveryDate,
+                                Time estimatedDeliveryTime, String deliveryStatus, String currentLocation) {
+        try {
+            boolean success = shipmentDAO.assignDriver(shipmentId, assignedDriverId, scheduledDeliveryDate,
+                    estimatedDeliveryTime, deliveryStatus, currentLocation);
+            if (success) {
+                refreshRepository();
+            }
+            return success;
+        } catch (SQLException e) {
+            System.err.println("Error assigning driver to shipment: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Retrieves a Shipment object by its ID.
+     * While the snapshot is loaded it is looked up there, through the snapshot file's hash index;
+     * a shipment it does not hold yet is read from the database.
      * @param shipmentId The ID of the shipment to retrieve.
      * @return The Shipment object, or null if not found.
      */
     public Shipment getShipmentById(String shipmentId) {
+        if (shipmentSnapshot.isLoaded()) {
+            Shipment shipment = shipmentSnapshot.getById(shipmentId);
+            if (shipment != null) {
+                return shipment;
+            }
+        }
         try {
             return shipmentDAO.getShipmentById(shipmentId);
         } catch (SQLException e) {
@@ -127,6 +251,37 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * Retrieves the ID, sender, receiver and status of shipments, ordered by ID, for selection lists.
+     * While the snapshot is loaded they are read from it, after bringing it up to date; before that
+     * (the table has not been attached or is still warming up) they are read with a projection query.
+     * @param assignableOnly If true, shipments that are already "Delivered" or "Failed" are left out.
+     * @return A list of ShipmentSummary objects (empty if they could not be read).
+     */
+    public List<ShipmentSummary> getShipmentSummaries(boolean assignableOnly) {
+        if (!shipmentSnapshot.isLoaded()) {
+            try {
+                return shipmentDAO.getShipmentSummaries(assignableOnly);
+            } catch (SQLException e) {
+                System.err.println("Error retrieving shipment summaries: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+        syncSnapshot();
+        List<ShipmentSummary> summaries = new ArrayList<>(shipmentSnapshot.size());
+        for (int position = 0; position < shipmentSnapshot.size(); position++) {
+            ShipmentSummary summary = new ShipmentSummary(shipmentSnapshot.getShipmentId(position),
+                    shipmentSnapshot.getSenderName(position), shipmentSnapshot.getReceiverName(position),
+                    shipmentSnapshot.getDeliveryStatus(position));
+            DeliveryStatus status = DeliveryStatus.fromLabel(summary.deliveryStatus());
+            if (!assignableOnly || status == null || !status.isFinal()) {
+                summaries.add(summary);
+            }
+        }
+        summaries.sort(Comparator.comparing(ShipmentSummary::shipmentId)); // Changed rows follow the base file's rows
+        return summaries;
+    }
+
     /**
      * Deletes a shipment record from the system.
      * @param shipmentId The ID of the shipment to delete.
@@ -136,7 +291,7 @@ public class ShipmentController {
         try {
             boolean success = shipmentDAO.deleteShipment(shipmentId);
             if (success) {
-                // No table refresh here; handled by panel's refreshShipmentTable
+                refreshRepository(); // Subscribed tables redraw themselves
             }
             return success;
         } catch (SQLException e) {
@@ -146,36 +301,102 @@ public class ShipmentController {
     }
 
     /**
-     * Refreshes the shipment table in the UI by fetching all shipments from the database.
+     * Refreshes the shipment table in the UI.
+     * Only the shipments changed or deleted since the last refresh are fetched from the database;
+     * the table is redrawn only if something changed. Before the first refresh the snapshot file
+     * is opened, or built, in the background, and the table fills in once it is ready.
      */
     public void refreshShipmentTable() {
         if (shipmentTableModel == null) { // Defensive check
             System.err.println("ShipmentTableModel is null in controller. Cannot refresh table.");
             return;
         }
+        if (!shipmentSnapshot.isLoaded() && snapshotFile == null) {
+            warmUpSnapshot();
+            return;
+        }
+        syncSnapshot();
+    }
+
+    /**
+     * Fetches the changes since the last sync into the snapshot and, if any arrived, redraws the
+     * table, whose rows may have moved. Whoever reads the snapshot syncs through here.
+     */
+    private void syncSnapshot() {
         try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            // Clear existing data from the table model
-            shipmentTableModel.setRowCount(0);
-            // Add new data
-            for (Shipment shipment : shipments) {
-                shipmentTableModel.addRow(new Object[]{
-                        shipment.getShipmentId(),
-                        shipment.getSenderName(),
-                        shipment.getReceiverName(),
-                        shipment.getPackageContents(),
-                        shipment.getDeliveryStatus(),
-                        shipment.getCurrentLocation(),
-                        shipment.getAssignedDriverId(),
-                        shipment.getScheduledDeliveryDate(),
-                        shipment.getEstimatedDeliveryTime()
-                });
+            if (shipmentSnapshot.sync() && shipmentTableModel != null) {
+                shipmentTableModel.fireTableDataChanged();
             }
         } catch (SQLException e) {
             System.err.println("Error refreshing shipment table: " + e.getMessage());
         }
     }
 
+    /**
+     * Opens the shipment snapshot file in the background, building it when missing or too old,
+     * and then makes it the base of the snapshot on the event thread, so the first sync only
+     * fetches the changes made since the file was built.
+     */
+    private void warmUpSnapshot() {
+        if (snapshotFileLoading) {
+            return;
+        }
+        snapshotFileLoading = true;
+        SNAPSHOT_FILE_EXECUTOR.execute(() -> {
+            ShipmentSnapshotFile file = null;
+            try {
+                file = ShipmentSnapshotFile.openOrBuild(shipmentDAO, ShipmentSnapshotFile.defaultPath(), SNAPSHOT_FILE_MAX_AGE_MS);
+            } catch (SQLException | IOException e) {
+                System.err.println("Error loading shipment snapshot file: " + e.getMessage());
+            }
+            ShipmentSnapshotFile loaded = file;
+            SwingUtilities.invokeLater(() -> applySnapshotFile(loaded));
+        });
+    }
+
+    /**
+     * Takes over the file opened by {@link #warmUpSnapshot()} and fills the table. If the file
+     * could not be opened, the table is loaded onto the heap instead; if the table was detached
+     * in the meantime, the file is released right away.
+     */
+    private void applySnapshotFile(ShipmentSnapshotFile file) {
+        snapshotFileLoading = false;
+        if (shipmentTableModel == null) {
+            if (file != null) {
+                file.close();
+            }
+            return;
+        }
+        if (file != null) {
+            releaseSnapshotFile();
+            snapshotFile = file;
+            shipmentSnapshot.useBase(file);
+        }
+        try {
+            shipmentSnapshot.sync(); // Without a file this is the full load
+        } catch (SQLException e) {
+            System.err.println("Error refreshing shipment table: " + e.getMessage());
+        }
+        shipmentTableModel.fireTableDataChanged();
+    }
+
+    /**
+     * Unmaps the snapshot file now rather than when it is garbage collected.
+     */
+    private void releaseSnapshotFile() {
+        if (snapshotFile != null) {
+            snapshotFile.close();
+            snapshotFile = null;
+        }
+    }
+
+    /**
+     * Announces a committed write, so every subscribed table, this controller's included, reloads once.
+     */
+    private void refreshRepository() {
+        shipmentRepository.shipmentsChanged();
+    }
+
     /**
      * Provides access to the ShipmentDAO instance.
      * This is used by views (like TrackShipmentsPanel) to directly fetch all shipments
@@ -0,0 +1,94 @@
+// util/CompressedText.java
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses long text for storage in a text column. A compressed value is the header "DFL1:"
+ * followed by the Base64 form of the Deflate-compressed UTF-8 bytes. Anything without the header
+ * is plain text, so values stored before compression was introduced read back unchanged.
+ * Report text is highly repetitive, so the stored form is typically several times smaller
+ * even after the Base64 overhead.
+ */
+public final class CompressedText {
+
+    /** Marks a compressed value; the digit is the format version. */
+    public static final String HEADER = "DFL1:";
+
+    private CompressedText() {
+    }
+
+    /**
+     * Returns the stored form of a text: compressed, unless that would not make it shorter.
+     * Text that happens to start with the header is always compressed, so it cannot be misread.
+     * @param text The text to store, or null.
+     * @return The stored form, or null if text is null.
+     */
+    public static String compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4 + 64);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                output.write(chunk, 0, length);
+            }
+        } finally {
+            deflater.end(); // Frees the native zlib memory now rather than at finalization
+        }
+        String compressed = HEADER + Base64.getEncoder().encodeToString(output.toByteArray());
+        if (compressed.length() >= text.length() && !text.startsWith(HEADER)) {
+            return text;
+        }
+        return compressed;
+    }
+
+    /**
+     * Returns the text a stored value stands for.
+     * @param stored A value returned by {@link #compress(String)}, or plain text stored without compression.
+     * @return The original text, or null if stored is null.
+     * @throws IllegalArgumentException if the value has the header but is not valid compressed data.
+     */
+    public static String decompress(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Base64.getDecoder().decode(stored.substring(HEADER.length())));
+            ByteArrayOutputStream output = new ByteArrayOutputStream(stored.length() * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(chunk);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Compressed text is truncated.");
+                }
+                output.write(chunk, 0, length);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed text is corrupt: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * @param stored A stored value, or null.
+     * @return true if the value is in compressed form.
+     */
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(HEADER);
+    }
+}
@@ -0,0 +1,262 @@
+// util/ConnectionPool.java
+package util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections are opened lazily up to a maximum size and reused afterwards. The pool
+ * validates connections that sat idle for a while, retires connections older than their
+ * maximum lifetime, times out callers that wait too long for a free connection, and logs
+ * the borrower's stack trace when a connection is held longer than the leak threshold.
+ * Each pooled connection also keeps an LRU cache of its prepared statements.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxPoolSize;
+    private final long acquireTimeoutMillis;
+    private final long idleValidationMillis;
+    private final long maxLifetimeMillis;
+    private final long leakDetectionMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits; // One permit per connection that may be handed out
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    /**
+     * Constructor for ConnectionPool.
+     * @param url The JDBC URL of the database.
+     * @param user The database username.
+     * @param password The database password.
+     * @param maxPoolSize The maximum number of open connections.
+     * @param acquireTimeoutMillis How long a caller may wait for a free connection.
+     * @param idleValidationMillis Idle time after which a connection is validated before reuse.
+     * @param maxLifetimeMillis Age after which a connection is closed and replaced (0 disables).
+     * @param leakDetectionMillis Borrow time after which a leak warning is logged (0 disables).
+     * @param statementCacheSize Prepared statements cached per connection (0 disables).
+     */
+    public ConnectionPool(String url, String user, String password, int maxPoolSize,
+                          long acquireTimeoutMillis, long idleValidationMillis,
+                          long maxLifetimeMillis, long leakDetectionMillis, int statementCacheSize) {
+        if (maxPoolSize <= 0) {
+            throw new IllegalArgumentException("maxPoolSize must be positive");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxPoolSize = maxPoolSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleValidationMillis = idleValidationMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakDetectionMillis = leakDetectionMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxPoolSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true); // Must not keep the Swing application alive
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(30_000L, leakDetectionMillis > 0 ? leakDetectionMillis / 2 : 30_000L));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool is not full.
+     * Closing the returned connection gives it back to the pool.
+     * @return A pooled `Connection`.
+     * @throws SQLException if no connection becomes available within the acquire timeout
+     *                      or a new connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxPoolSize + ", all in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeUsableIdleConnection();
+            if (pooled == null) {
+                pooled = new PooledConnection(this, DriverManager.getConnection(url, user, password), statementCacheSize);
+            }
+            borrowedConnections.add(pooled);
+            return pooled.borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently returned idle connection that is still usable, discarding stale ones.
+     */
+    private PooledConnection takeUsableIdleConnection() {
+        long now = System.currentTimeMillis();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (pooled.isExpired(now, maxLifetimeMillis)) {
+                pooled.closePhysical();
+                continue;
+            }
+            if (pooled.getIdleMillis(now) >= idleValidationMillis && !isValid(pooled)) {
+                pooled.closePhysical();
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private static boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.getPhysical().isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. Called by the connection proxy on close().
+     * @param pooled The connection being returned.
+     */
+    void release(PooledConnection pooled) {
+        if (!borrowedConnections.remove(pooled)) {
+            return; // Already returned
+        }
+        try {
+            boolean reusable = !shutdown && !pooled.isBroken()
+                    && !pooled.isExpired(System.currentTimeMillis(), maxLifetimeMillis);
+            if (reusable) {
+                try {
+                    pooled.reset();
+                } catch (SQLException e) {
+                    System.err.println("Discarding pooled connection that could not be reset: " + e.getMessage());
+                    reusable = false;
+                }
+            }
+            if (reusable) {
+                idleConnections.offerFirst(pooled); // LIFO keeps the hottest connections in use
+            } else {
+                pooled.closePhysical();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Periodic maintenance: retires idle connections past their lifetime and reports leaks.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idleConnections.iterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if (pooled.isExpired(now, maxLifetimeMillis) && idleConnections.removeFirstOccurrence(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+
+        if (leakDetectionMillis > 0) {
+            for (PooledConnection pooled : borrowedConnections) {
+                Throwable trace = pooled.getBorrowTrace();
+                if (!pooled.isLeakReported() && trace != null && pooled.getBorrowedMillis(now) >= leakDetectionMillis) {
+                    pooled.setLeakReported(true);
+                    System.err.println("Possible connection leak: connection held for "
+                            + pooled.getBorrowedMillis(now) + " ms without being closed. Borrowed at:");
+                    trace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new ones.
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    // --- Statistics ---
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    public int getActiveCount() {
+        return borrowedConnections.size();
+    }
+
+    void recordStatementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
+    }
+
+    void recordStatementCacheEviction() {
+        statementCacheEvictions.incrementAndGet();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.get();
+    }
+
+    /**
+     * @return The fraction of prepareStatement() calls answered from a statement cache (0.0 - 1.0).
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
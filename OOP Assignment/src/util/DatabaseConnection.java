@@ -2,16 +2,18 @@
 package util; // THIS MUST BE 'package util;'
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
 
 /**
  * Utility class for managing database connections.
  * This class provides a static method to get a database connection
  * and includes basic error handling for connection issues.
+ * Connections are served from a bounded {@link ConnectionPool} so DAOs do not pay
+ * for a new TCP/MySQL handshake on every call.
  * It is now placed in the 'util' package for better architectural separation.
  */
 public class DatabaseConnection {
@@ -22,6 +24,23 @@ public class DatabaseConnection {
     private static final String DB_URL = "jdbc:mysql://localhost:3306/fasttrack_logistics"; // Your database URL
     private static final String DB_USER = "root"; // Your database username
     private static final String DB_PASSWORD = ""; // Your database password (empty string if no password)
+    // Driver options: server-side prepared statements, so cached statements skip the parse on the server,
+    // and batch rewriting, so JDBC batches of INSERTs are sent as multi-row INSERT statements.
+    private static final String DB_URL_OPTIONS = "useServerPrepStmts=true&rewriteBatchedStatements=true";
+
+    // --- Connection Pool Configuration ---
+    private static final int POOL_MAX_SIZE = 10; // Maximum number of open connections
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = 30_000; // How long a caller waits for a free connection
+    private static final long POOL_IDLE_VALIDATION_MS = 30_000; // Validate connections idle longer than this before reuse
+    private static final long POOL_MAX_LIFETIME_MS = 30 * 60_000; // Replace connections older than this (below MySQL wait_timeout)
+    private static final long POOL_LEAK_DETECTION_MS = 60_000; // Log the borrower's stack trace if held longer than this
+    private static final int STATEMENT_CACHE_SIZE = 64; // Prepared statements kept open per pooled connection
+
+    // --- Streaming Configuration ---
+    // Integer.MIN_VALUE tells MySQL Connector/J to stream rows one at a time instead of buffering the whole result.
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static volatile ConnectionPool pool; // Created lazily by getPool()
 
     // --- Constructor ---
     // Private constructor to prevent instantiation, as this is a utility class
@@ -30,29 +49,111 @@ public class DatabaseConnection {
     }
 
     /**
-     * Establishes and returns a connection to the database.
+     * Returns a connection to the database.
+     * Connections come from a shared {@link ConnectionPool}; the JDBC driver is loaded and
+     * the pool is created on first use. Closing the returned connection (directly or through
+     * {@link #closeConnection(Connection)}) hands it back to the pool.
+     * Inside a {@link UnitOfWork} the unit's connection is returned instead, so the
+     * calling DAO joins its transaction.
      *
      * @return A `Connection` object to the database.
-     * @throws SQLException If a database access error occurs or the URL is null.
+     * @throws SQLException If a database access error occurs or no pooled connection becomes available in time.
      */
     public static Connection getConnection() throws SQLException {
-        Connection connection = null;
+        Connection unitOfWorkConnection = UnitOfWork.currentConnection();
+        if (unitOfWorkConnection != null) {
+            return unitOfWorkConnection;
+        }
         try {
-            // Register the JDBC driver (optional for newer JDBC versions but good practice for MySQL)
-            // This line requires the 'mysql-connector-j-x.x.x.jar' to be in your project's classpath.
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Establish the connection
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            // System.out.println("Database connection established successfully."); // For debugging
+            return getPool().getConnection();
         } catch (SQLException e) {
             System.err.println("Error connecting to the database: " + e.getMessage());
             throw e; // Re-throw the exception to be handled by the caller
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found. Ensure 'mysql-connector-j-x.x.x.jar' is in your classpath: " + e.getMessage());
-            throw new SQLException("JDBC Driver not found", e); // Wrap and re-throw as SQLException
         }
-        return connection;
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first use.
+     * @return The application-wide `ConnectionPool`.
+     * @throws SQLException If the JDBC driver cannot be loaded.
+     */
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        // Register the JDBC driver once for the lifetime of the pool.
+                        // This line requires the 'mysql-connector-j-x.x.x.jar' to be in your project's classpath.
+                        Class.forName("com.mysql.cj.jdbc.Driver");
+                    } catch (ClassNotFoundException e) {
+                        System.err.println("MySQL JDBC Driver not found. Ensure 'mysql-connector-j-x.x.x.jar' is in your classpath: " + e.getMessage());
+                        throw new SQLException("JDBC Driver not found", e); // Wrap and re-throw as SQLException
+                    }
+                    String url = DB_URL + (DB_URL.contains("?") ? "&" : "?") + DB_URL_OPTIONS;
+                    current = new ConnectionPool(url, DB_USER, DB_PASSWORD, POOL_MAX_SIZE,
+                            POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_VALIDATION_MS,
+                            POOL_MAX_LIFETIME_MS, POOL_LEAK_DETECTION_MS, STATEMENT_CACHE_SIZE);
+                    final ConnectionPool created = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "connection-pool-shutdown"));
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Creates a forward-only, read-only statement that streams its results row by row.
+     * Used by the DAO forEach* methods to walk whole tables in constant memory.
+     * While a streamed result is open, no other statement may be executed on the same connection.
+     * @param connection The connection to create the statement on.
+     * @return A streaming `Statement`.
+     * @throws SQLException If the statement cannot be created.
+     */
+    public static Statement createStreamingStatement(Connection connection) throws SQLException {
+        Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(STREAMING_FETCH_SIZE);
+        return stmt;
+    }
+
+    /**
+     * Prepares a forward-only, read-only statement that streams its results row by row,
+     * for forEach* walks that take parameters. The same restrictions as for
+     * {@link #createStreamingStatement(Connection)} apply.
+     * @param connection The connection to prepare the statement on.
+     * @param sql The SQL query.
+     * @return A streaming `PreparedStatement`.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection connection, String sql) throws SQLException {
+        PreparedStatement pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(STREAMING_FETCH_SIZE);
+        return pstmt;
+    }
+
+    /**
+     * Reads the current time from the database clock.
+     * Watermarks for delta queries must come from the same clock that writes updated_at.
+     * @return The database's CURRENT_TIMESTAMP.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Timestamp getDatabaseTime() throws SQLException {
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = getConnection();
+            stmt = conn.createStatement();
+            rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP");
+            rs.next();
+            return rs.getTimestamp(1);
+        } finally {
+            closeConnection(rs);
+            closeConnection(stmt);
+            closeConnection(conn);
+        }
     }
 
     /**
@@ -99,13 +200,14 @@ public class DatabaseConnection {
 
     /**
      * Closes the given database connection.
+     * For pooled connections this returns the connection to the pool.
      * @param connection The `Connection` object to be closed.
      */
     public static void closeConnection(Connection connection) {
         if (connection != null) {
             try {
                 connection.close();
-                // System.out.println("Database connection closed."); // For debugging
+                // System.out.println("Database connection returned to pool."); // For debugging
             } catch (SQLException e) {
                 System.err.println("Error closing the database connection: " + e.getMessage());
             }
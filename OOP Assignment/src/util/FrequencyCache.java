@@ -0,0 +1,259 @@
+// util/FrequencyCache.java
+package util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded, thread-safe in-memory cache with frequency-aware eviction.
+ * Entries are kept in LRU order, but a new entry only displaces the least recently used
+ * one if its key has been requested more often recently (TinyLFU-style admission).
+ * Access frequencies are estimated with a small count-min sketch whose counters are halved
+ * periodically, so keys that were popular long ago lose their advantage. This keeps one-off
+ * lookups, such as a full scan of IDs, from flushing the entries that are used all the time.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class FrequencyCache<K, V> {
+
+    /**
+     * Loads a value on a cache miss.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @param <E> The exception the loader may throw.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_COUNT = 15; // Counters saturate like 4-bit counters
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+    private final int[][] sketch; // Count-min sketch of recent access frequencies
+    private final int sketchMask;
+    private final int resetThreshold; // Sketch increments after which all counters are halved
+    private int sketchIncrements;
+    private long invalidations; // Bumped on every invalidation; guards read-through against stale loads
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long rejectionCount;
+
+    /**
+     * Constructor for FrequencyCache.
+     * @param maxSize The maximum number of entries kept.
+     */
+    public FrequencyCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // Access order gives LRU iteration
+        int width = Integer.highestOneBit(Math.max(16, maxSize * 2 - 1)) << 1;
+        this.sketch = new int[SKETCH_DEPTH][width];
+        this.sketchMask = width - 1;
+        this.resetThreshold = maxSize * 10;
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     * A loaded value is not cached if the cache was invalidated while it was being loaded,
+     * so a concurrent write can never be overwritten by an older read. Null values are not cached.
+     * @param key The key to look up.
+     * @param loader Loads the value if it is not cached.
+     * @return The cached or loaded value (may be null).
+     * @throws E if the loader fails.
+     */
+    public <E extends Exception> V get(K key, Loader<? super K, ? extends V, E> loader) throws E {
+        long stamp;
+        synchronized (this) {
+            recordAccess(key);
+            V value = entries.get(key);
+            if (value != null) {
+                hitCount++;
+                return value;
+            }
+            missCount++;
+            stamp = invalidations;
+        }
+        V loaded = loader.load(key); // Outside the lock so slow loads do not block other readers
+        if (loaded != null) {
+            synchronized (this) {
+                if (stamp == invalidations) {
+                    admit(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value for a key without loading it.
+     * Counts as a hit or a miss in the statistics.
+     * @param key The key to look up.
+     * @return The cached value, or null if it is not cached.
+     */
+    public synchronized V getIfPresent(K key) {
+        recordAccess(key);
+        V value = entries.get(key);
+        if (value != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the current invalidation stamp, to be passed to {@link #putIfNotInvalidated}.
+     * Take the stamp before reading from the database.
+     * @return The current stamp.
+     */
+    public synchronized long getInvalidationStamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a value that was read from the database, unless the cache was invalidated since
+     * the given stamp was taken.
+     * @param key The key of the value.
+     * @param value The value to cache (ignored if null).
+     * @param stamp The stamp taken before the value was read.
+     */
+    public synchronized void putIfNotInvalidated(K key, V value, long stamp) {
+        if (value != null && stamp == invalidations) {
+            admit(key, value);
+        }
+    }
+
+    /**
+     * Removes a key from the cache. Call after every write to the underlying data.
+     * @param key The key to remove.
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries from the cache. Frequency history is kept.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Inserts or replaces an entry, evicting or rejecting based on access frequency when full.
+     */
+    private void admit(K key, V value) {
+        if (entries.containsKey(key) || entries.size() < maxSize) {
+            entries.put(key, value);
+            return;
+        }
+        Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+        Map.Entry<K, V> victim = it.next(); // Least recently used entry
+        if (frequency(key) > frequency(victim.getKey())) {
+            it.remove();
+            evictionCount++;
+            entries.put(key, value);
+        } else {
+            rejectionCount++; // The newcomer is colder than what it would displace
+        }
+    }
+
+    // --- Frequency sketch ---
+
+    private void recordAccess(K key) {
+        int hash = spread(key.hashCode());
+        boolean incremented = false;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (sketch[row][index] < MAX_COUNT) {
+                sketch[row][index]++;
+                incremented = true;
+            }
+        }
+        if (incremented && ++sketchIncrements >= resetThreshold) {
+            age();
+        }
+    }
+
+    private int frequency(K key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            min = Math.min(min, sketch[row][indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Halves every counter so the sketch reflects recent rather than all-time popularity.
+     */
+    private void age() {
+        for (int[] row : sketch) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        sketchIncrements /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = hash * (0x9E3779B9 + row * 0x7F4A7C15); // A different odd multiplier per row
+        return (h ^ (h >>> 16)) & sketchMask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45D9F3B;
+        return hash ^ (hash >>> 16);
+    }
+
+    // --- Statistics ---
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of entries removed to make room for a more frequently used one.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The number of loaded values that were not cached because the cache was full of hotter entries.
+     */
+    public synchronized long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * @return The fraction of lookups answered from the cache (0.0 - 1.0).
+     */
+    public synchronized double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,197 @@
+// util/PooledConnection.java
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps one physical database connection owned by a {@link ConnectionPool}.
+ * Callers never see this class directly; they receive a {@link Connection} proxy
+ * whose close() hands the physical connection back to the pool instead of closing it.
+ */
+class PooledConnection implements InvocationHandler {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache; // Null when statement caching is disabled
+    private final long createdAt;
+
+    private volatile long lastReturnedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowTrace; // Where the current borrower obtained the connection
+    private volatile boolean leakReported;
+    private volatile boolean logicallyClosed = true;
+    private volatile boolean broken; // Set when the driver reported a fatal error
+
+    // Session state changed by the borrower that must be reset before reuse
+    private boolean autoCommitChanged;
+    private boolean readOnlyChanged;
+
+    private final Connection proxy;
+
+    /**
+     * Creates a wrapper around a freshly opened physical connection.
+     * @param pool The pool that owns this connection.
+     * @param physical The physical JDBC connection.
+     * @param statementCacheSize The number of prepared statements to cache (0 disables caching).
+     */
+    PooledConnection(ConnectionPool pool, Connection physical, int statementCacheSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize, pool) : null;
+        this.createdAt = System.currentTimeMillis();
+        this.lastReturnedAt = this.createdAt;
+        this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+    }
+
+    // --- Pool bookkeeping ---
+
+    /**
+     * Marks this connection as handed out to a caller.
+     * @return The proxy to hand to the caller.
+     */
+    Connection borrow() {
+        borrowedAt = System.currentTimeMillis();
+        borrowTrace = new Throwable("Connection borrowed by thread '" + Thread.currentThread().getName() + "'");
+        leakReported = false;
+        logicallyClosed = false;
+        return proxy;
+    }
+
+    /**
+     * Restores default session state so the next borrower sees a clean connection.
+     * @throws SQLException if the connection cannot be reset (it is then discarded by the pool).
+     */
+    void reset() throws SQLException {
+        if (statementCache != null) {
+            statementCache.reclaimAll();
+        }
+        if (autoCommitChanged) {
+            if (!physical.getAutoCommit()) {
+                physical.rollback(); // Never leak an unfinished transaction to the next borrower
+                physical.setAutoCommit(true);
+            }
+            autoCommitChanged = false;
+        }
+        if (readOnlyChanged) {
+            physical.setReadOnly(false);
+            readOnlyChanged = false;
+        }
+        physical.clearWarnings();
+        lastReturnedAt = System.currentTimeMillis();
+        borrowTrace = null;
+    }
+
+    /**
+     * Closes the underlying physical connection, ignoring errors.
+     */
+    void closePhysical() {
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled database connection: " + e.getMessage());
+        }
+    }
+
+    boolean isExpired(long now, long maxLifetimeMillis) {
+        return maxLifetimeMillis > 0 && now - createdAt >= maxLifetimeMillis;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    long getIdleMillis(long now) {
+        return now - lastReturnedAt;
+    }
+
+    long getBorrowedMillis(long now) {
+        return now - borrowedAt;
+    }
+
+    Throwable getBorrowTrace() {
+        return borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void setLeakReported(boolean leakReported) {
+        this.leakReported = leakReported;
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    // --- Proxy dispatch ---
+
+    @Override
+    public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                if (!logicallyClosed) {
+                    logicallyClosed = true;
+                    pool.release(this);
+                }
+                return null;
+            case "isClosed":
+                return logicallyClosed || physical.isClosed();
+            case "equals":
+                return proxyInstance == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxyInstance);
+            case "toString":
+                return "PooledConnection[" + physical + "]";
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxyInstance)) {
+                    return proxyInstance;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class<?>) args[0]).isInstance(proxyInstance)) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (logicallyClosed) {
+            throw new SQLException("Connection has already been returned to the pool.");
+        }
+        if ("prepareStatement".equals(name) && statementCache != null) {
+            return statementCache.prepare(method, args, proxy);
+        }
+        if ("setAutoCommit".equals(name)) {
+            autoCommitChanged = true;
+        } else if ("setReadOnly".equals(name)) {
+            readOnlyChanged = true;
+        }
+
+        try {
+            return method.invoke(physical, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                broken = true;
+            }
+            throw cause;
+        }
+    }
+
+    /**
+     * Connection-level failures (SQLState class 08) mean the physical connection must not be reused.
+     */
+    private static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
@@ -0,0 +1,201 @@
+// util/RecordFileWriter.java
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records to a CSV or JSON Lines file as they arrive, so an export never holds the
+ * dataset or its full text in memory. Each record is formatted into a reused StringBuilder,
+ * encoded as UTF-8 into a direct buffer and written to a FileChannel whenever the buffer fills.
+ * The direct buffer is allocated once per thread and reused by every export on that thread, so
+ * only one writer may be open at a time on a thread. A writer is not thread-safe.
+ */
+public class RecordFileWriter implements AutoCloseable {
+
+    /** The file formats a writer can produce. */
+    public enum Format {
+        /** Comma-separated values with a header row (RFC 4180 quoting). */
+        CSV,
+        /** One JSON object per line, keyed by column name. */
+        JSON_LINES
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private final FileChannel channel;
+    private final Format format;
+    private final String[] columns;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(256);
+    private long recordCount;
+
+    /**
+     * Creates (or truncates) the file and, for CSV, writes the header row.
+     * @param path The file to write.
+     * @param format The file format.
+     * @param columns The column names, in the order values are passed to {@link #writeRecord(Object...)}.
+     * @throws IOException if the file cannot be opened or written.
+     */
+    public RecordFileWriter(Path path, Format format, String... columns) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.format = format;
+        this.columns = columns.clone();
+        this.buffer = BUFFERS.get();
+        this.buffer.clear();
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsvField(columns[i]);
+            }
+            line.append('\n');
+            writeLine();
+        }
+    }
+
+    /**
+     * Writes one record.
+     * @param values One value per column; null is written as an empty CSV field or JSON null,
+     *               numbers and booleans as JSON literals, anything else as its toString().
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeRecord(Object... values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+        }
+        if (format == Format.CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                if (values[i] != null) {
+                    appendCsvField(values[i].toString());
+                }
+            }
+        } else {
+            line.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendJsonString(columns[i]);
+                line.append(':');
+                Object value = values[i];
+                if (value == null) {
+                    line.append("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    line.append(value);
+                } else {
+                    appendJsonString(value.toString());
+                }
+            }
+            line.append('}');
+        }
+        line.append('\n');
+        writeLine();
+        recordCount++;
+    }
+
+    /**
+     * @return The number of records written so far, not counting the CSV header.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    private void appendCsvField(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Encodes the pending line into the buffer, draining the buffer to the channel whenever it is full.
+     */
+    private void writeLine() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        line.setLength(0);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes whatever is still buffered and closes the file.
+     * @throws IOException if the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                encoder.encode(CharBuffer.allocate(0), buffer, true);
+                encoder.flush(buffer);
+                drain();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+// util/StatementCache.java
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * LRU cache of prepared statements for one pooled connection, keyed by SQL text.
+ * The DAO layer only uses fixed SQL strings, so after warm-up every prepareStatement()
+ * call is answered from here instead of a parse/prepare round trip to the server.
+ * Statements are handed out as proxies; closing the proxy returns the statement to the
+ * cache with its parameters cleared and its fetch size restored, so streaming statements
+ * (see DatabaseConnection.prepareStreamingStatement) are reused as well. A connection is only used by one thread at a time,
+ * so this class needs no locking of its own.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final ConnectionPool pool; // Receives hit/miss/eviction counts
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * Constructor for StatementCache.
+     * @param physical The physical connection statements are prepared on.
+     * @param maxSize The maximum number of statements kept open on the connection.
+     * @param pool The owning pool, which aggregates the cache statistics.
+     */
+    StatementCache(Connection physical, int maxSize, ConnectionPool pool) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.pool = pool;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true); // Access order gives LRU iteration
+    }
+
+    /**
+     * Returns a cached statement for the given prepareStatement() call, preparing a new one on a miss.
+     * @param method The prepareStatement overload being invoked.
+     * @param args The arguments of the call; the first one is the SQL text.
+     * @param connectionProxy The pooled connection proxy, returned from Statement.getConnection().
+     * @return A statement proxy whose close() returns the statement to the cache.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    PreparedStatement prepare(Method method, Object[] args, Connection connectionProxy) throws SQLException {
+        String key = args.length == 1 ? (String) args[0] : Arrays.deepToString(args);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            pool.recordStatementCacheHit();
+            return cached.checkOut(connectionProxy);
+        }
+
+        pool.recordStatementCacheMiss();
+        PreparedStatement statement = invokePrepare(method, args);
+        if (cached != null) {
+            // Same SQL is already checked out (nested use); hand out an uncached statement.
+            return statement;
+        }
+        cached = new CachedStatement(key, statement, statement.getFetchSize());
+        statements.put(key, cached);
+        evictOverflow();
+        return cached.checkOut(connectionProxy);
+    }
+
+    private PreparedStatement invokePrepare(Method method, Object[] args) throws SQLException {
+        try {
+            return (PreparedStatement) method.invoke(physical, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Failed to prepare statement.", cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Failed to prepare statement.", e);
+        }
+    }
+
+    /**
+     * Closes least recently used statements that are not checked out until the cache fits its bound.
+     */
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                eldest.closePhysical();
+                pool.recordStatementCacheEviction();
+            }
+        }
+    }
+
+    /**
+     * Returns statements the borrower forgot to close, so the next borrower starts clean.
+     */
+    void reclaimAll() {
+        List<CachedStatement> outstanding = new ArrayList<>();
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                outstanding.add(cached);
+            }
+        }
+        for (CachedStatement cached : outstanding) {
+            cached.checkIn();
+        }
+    }
+
+    /**
+     * One cached physical statement plus the handle currently lent out for it.
+     */
+    private final class CachedStatement {
+        private final String key;
+        private final PreparedStatement statement;
+        private final int defaultFetchSize; // Restored on check-in when a borrower changes it
+        private boolean inUse;
+        private boolean batched;
+        private boolean fetchSizeChanged;
+        private boolean discard; // Statement-level settings were changed; do not reuse
+        private Handle handle;
+
+        CachedStatement(String key, PreparedStatement statement, int defaultFetchSize) {
+            this.key = key;
+            this.statement = statement;
+            this.defaultFetchSize = defaultFetchSize;
+        }
+
+        PreparedStatement checkOut(Connection connectionProxy) {
+            inUse = true;
+            handle = new Handle(this, connectionProxy);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, handle);
+        }
+
+        void checkIn() {
+            if (handle != null) {
+                handle.closed = true;
+                handle = null;
+            }
+            inUse = false;
+            try {
+                if (!discard) {
+                    statement.clearParameters();
+                    if (batched) {
+                        statement.clearBatch();
+                    }
+                    if (fetchSizeChanged) {
+                        statement.setFetchSize(defaultFetchSize);
+                    }
+                    statement.clearWarnings();
+                }
+            } catch (SQLException e) {
+                discard = true;
+            }
+            batched = false;
+            fetchSizeChanged = false;
+            if (discard) {
+                statements.remove(key);
+                closePhysical();
+            }
+        }
+
+        void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached PreparedStatement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind the statement proxies given to DAO code.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement owner;
+        private final Connection connectionProxy;
+        private boolean closed;
+
+        Handle(CachedStatement owner, Connection connectionProxy) {
+            this.owner = owner;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        owner.checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionProxy;
+                case "equals":
+                    return proxyInstance == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyInstance);
+                case "toString":
+                    return "CachedStatement[" + owner.key + "]";
+                case "addBatch":
+                    owner.batched = true;
+                    break;
+                case "setFetchSize":
+                    owner.fetchSizeChanged = true;
+                    break;
+                case "setFetchDirection":
+                case "setMaxRows":
+                case "setMaxFieldSize":
+                case "setQueryTimeout":
+                case "setEscapeProcessing":
+                case "setPoolable":
+                case "setCursorName":
+                    owner.discard = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("PreparedStatement has already been closed.");
+            }
+            try {
+                return method.invoke(owner.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
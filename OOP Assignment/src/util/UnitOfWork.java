@@ -0,0 +1,147 @@
+// util/UnitOfWork.java
+package util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups several DAO calls into one database transaction on one connection.
+ * While a unit of work is open on a thread, {@link DatabaseConnection#getConnection()} returns
+ * its connection to every DAO call made from that thread, and closing that connection from DAO
+ * code is ignored. Nothing is written until {@link #commit()}; closing an uncommitted unit rolls
+ * it back. DAO methods that manage their own transaction (the bulk inserts) must not be called
+ * inside a unit of work.
+ *
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin()) {
+ *     deliveryDAO.addDelivery(delivery);
+ *     shipmentDAO.assignDriver(...);
+ *     uow.commit();
+ * }
+ * </pre>
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection connection; // The pooled connection owned by this unit
+    private final Connection sharedConnection; // Handed to DAOs; close() is a no-op
+    private final List<Runnable> completionCallbacks = new ArrayList<>();
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+        this.sharedConnection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxyInstance, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        return null; // The unit of work closes the connection
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Starts a unit of work on the current thread.
+     * @return The new unit of work; close it (ideally with try-with-resources) when done.
+     * @throws SQLException if no connection is available or a unit of work is already open on this thread.
+     */
+    public static UnitOfWork begin() throws SQLException {
+        if (CURRENT.get() != null) {
+            throw new SQLException("A unit of work is already open on this thread.");
+        }
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            DatabaseConnection.closeConnection(conn);
+            throw e;
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(conn);
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Returns the connection of the unit of work open on the current thread, if any.
+     * @return The shared connection, or null if no unit of work is open.
+     */
+    static Connection currentConnection() {
+        UnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork == null ? null : unitOfWork.sharedConnection;
+    }
+
+    /**
+     * Tells whether a unit of work is open on the current thread.
+     * @return true if DAO calls on this thread currently join a unit of work.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Registers an action to run once the unit of work open on the current thread has ended,
+     * whether it was committed or rolled back. Used to invalidate caches only after other
+     * connections can see the outcome.
+     * @param callback The action to run.
+     * @return true if the action was registered, false if no unit of work is open.
+     */
+    public static boolean runAfterCompletion(Runnable callback) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            return false;
+        }
+        unitOfWork.completionCallbacks.add(callback);
+        return true;
+    }
+
+    /**
+     * Commits all changes made in this unit of work.
+     * @throws SQLException if the commit fails (the unit is then rolled back on close).
+     */
+    public void commit() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unit of work has already been closed.");
+        }
+        connection.commit();
+        committed = true;
+    }
+
+    /**
+     * Rolls back any uncommitted changes and returns the connection to the pool.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CURRENT.remove();
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error ending unit of work: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(connection);
+        }
+        for (Runnable callback : completionCallbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error running unit of work completion callback: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -4,7 +4,9 @@ package view;
 import controller.ShipmentController;
 import controller.DeliveryPersonnelController;
 import Model.Shipment;
-import Model.DeliveryPersonnel;
+import Model.DeliveryStatus;
+import Model.ShipmentSummary;
+import Model.PersonnelSummary;
 import DAO.ShipmentDAO;
 import DAO.DeliveryPersonnelDAO;
 
@@ -23,7 +25,6 @@ public class AssignDriversPanel extends JPanel {
 
     private ShipmentController shipmentController;
     private DeliveryPersonnelController personnelController;
-    private ShipmentDAO shipmentDAO; // To populate shipment combo box
     private DeliveryPersonnelDAO personnelDAO; // To populate personnel combo box
 
     // UI Components for input
@@ -38,14 +39,14 @@ public class AssignDriversPanel extends JPanel {
      * Constructor for AssignDriversPanel.
      * @param shipmentController The controller for shipment operations.
      * @param personnelController The controller for personnel operations (to get available drivers).
-     * @param shipmentDAO The DAO for shipment data.
+     * @param shipmentDAO Not used any more: the shipment combo box is filled from the shipment controller's
+     *                    snapshot. Kept so the constructor stays as it is.
      * @param personnelDAO The DAO for personnel data.
      */
     public AssignDriversPanel(ShipmentController shipmentController, DeliveryPersonnelController personnelController,
                               ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO) {
         this.shipmentController = shipmentController;
         this.personnelController = personnelController;
-        this.shipmentDAO = shipmentDAO;
         this.personnelDAO = personnelDAO;
         // No table model here as this panel is primarily for interaction, not displaying a full table.
 
@@ -145,47 +146,22 @@ public class AssignDriversPanel extends JPanel {
                 estimatedTime = Time.valueOf(estimatedTimeField.getText());
             }
 
-            // Retrieve the current shipment to update
-            Shipment shipmentToUpdate = shipmentController.getShipmentById(selectedShipmentId);
-            if (shipmentToUpdate == null) {
-                JOptionPane.showMessageDialog(this, "Selected Shipment not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // Update shipment details
-            shipmentToUpdate.setAssignedDriverId(selectedDriverId);
-            shipmentToUpdate.setScheduledDeliveryDate(scheduledDate);
-            shipmentToUpdate.setEstimatedDeliveryTime(estimatedTime);
-            // Assuming "In Transit" or "Assigned" status upon driver assignment
-            if (!"Delivered".equalsIgnoreCase(shipmentToUpdate.getDeliveryStatus()) &&
-                    !"Failed".equalsIgnoreCase(shipmentToUpdate.getDeliveryStatus())) {
-                shipmentToUpdate.setDeliveryStatus("Assigned");
-                shipmentToUpdate.setCurrentLocation("With Driver: " + selectedDriverId);
+            // Assuming "Assigned" status upon driver assignment, unless the shipment is already finished.
+            // The current status was loaded into the status field when the shipment was selected.
+            String newStatus = null; // null keeps the current status and location
+            String newLocation = null;
+            DeliveryStatus currentStatus = DeliveryStatus.fromLabel(deliveryStatusField.getText());
+            if (currentStatus == null || !currentStatus.isFinal()) {
+                newStatus = "Assigned";
+                newLocation = "With Driver: " + selectedDriverId;
             }
 
-            boolean success = shipmentController.updateShipment(
-                    shipmentToUpdate.getShipmentId(),
-                    shipmentToUpdate.getSenderName(),
-                    shipmentToUpdate.getSenderAddress(),
-                    shipmentToUpdate.getReceiverName(),
-                    shipmentToUpdate.getReceiverAddress(),
-                    shipmentToUpdate.getPackageContents(),
-                    shipmentToUpdate.getWeightKg(),
-                    shipmentToUpdate.getDimensionsCm(),
-                    shipmentToUpdate.getDeliveryStatus(),
-                    shipmentToUpdate.getCurrentLocation(),
-                    shipmentToUpdate.getScheduledDeliveryDate(),
-                    shipmentToUpdate.getEstimatedDeliveryTime(),
-                    shipmentToUpdate.getAssignedDriverId()
-            );
+            boolean success = shipmentController.assignDriver(selectedShipmentId, selectedDriverId,
+                    scheduledDate, estimatedTime, newStatus, newLocation);
 
             if (success) {
                 // Optionally update personnel status (e.g., from 'Available' to 'On Duty')
-                DeliveryPersonnel assignedPersonnel = personnelController.getPersonnelById(selectedDriverId);
-                if (assignedPersonnel != null) {
-                    assignedPersonnel.setAvailabilityStatus("On Duty");
-                    personnelController.updatePersonnel(assignedPersonnel); // This uses the overloaded updatePersonnel(Personnel obj)
-                }
+                personnelController.updateAvailabilityStatus(selectedDriverId, "On Duty");
 
                 JOptionPane.showMessageDialog(this, "Driver assigned successfully!");
                 clearFields();
@@ -224,14 +200,10 @@ public class AssignDriversPanel extends JPanel {
     private void populateShipmentComboBox() {
         shipmentIdComboBox.removeAllItems();
         shipmentIdComboBox.addItem(""); // Add a blank default option
-        try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            for (Shipment shipment : shipments) {
-                // Displaying ID and Sender Name for better context
-                shipmentIdComboBox.addItem(shipment.getShipmentId() + " (" + shipment.getSenderName() + " to " + shipment.getReceiverName() + ")");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error populating shipment combo box: " + e.getMessage());
+        List<ShipmentSummary> shipments = shipmentController.getShipmentSummaries(false); // From the shared snapshot
+        for (ShipmentSummary shipment : shipments) {
+            // Displaying ID and Sender Name for better context
+            shipmentIdComboBox.addItem(shipment.shipmentId() + " (" + shipment.senderName() + " to " + shipment.receiverName() + ")");
         }
     }
 
@@ -242,9 +214,9 @@ public class AssignDriversPanel extends JPanel {
         assignedDriverIdComboBox.removeAllItems();
         assignedDriverIdComboBox.addItem(""); // Add a blank default option
         try {
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-            for (DeliveryPersonnel personnel : personnelList) {
-                assignedDriverIdComboBox.addItem(personnel.getPersonnelId() + " (" + personnel.getName() + ")");
+            List<PersonnelSummary> personnelList = personnelDAO.getPersonnelSummaries(true); // Only personnel who can take a delivery
+            for (PersonnelSummary personnel : personnelList) {
+                assignedDriverIdComboBox.addItem(personnel.personnelId() + " (" + personnel.name() + ")");
             }
         } catch (SQLException e) {
             System.err.println("Error populating personnel combo box: " + e.getMessage());
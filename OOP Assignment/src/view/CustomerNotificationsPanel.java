@@ -2,8 +2,8 @@
 package view;
 
 import controller.NotificationController;
-import DAO.ShipmentDAO;
-import Model.Shipment;
+import controller.ShipmentController;
+import Model.ShipmentSummary;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -18,7 +18,7 @@ import java.util.List;
 public class CustomerNotificationsPanel extends JPanel {
 
     private NotificationController notificationController;
-    private ShipmentDAO shipmentDAO; // Needed to populate shipment combo box
+    private ShipmentController shipmentController; // Needed to populate shipment combo box
     private DefaultTableModel notificationTableModel; // To show relevant customer notifications
 
     // UI Components for input
@@ -31,11 +31,11 @@ public class CustomerNotificationsPanel extends JPanel {
     /**
      * Constructor for CustomerNotificationsPanel.
      * @param notificationController The controller for notification logic.
-     * @param shipmentDAO The DAO for Shipment data (to populate combo box).
+     * @param shipmentController The shared shipment controller, whose snapshot fills the shipment combo box.
      */
-    public CustomerNotificationsPanel(NotificationController notificationController, ShipmentDAO shipmentDAO) {
+    public CustomerNotificationsPanel(NotificationController notificationController, ShipmentController shipmentController) {
         this.notificationController = notificationController;
-        this.shipmentDAO = shipmentDAO;
+        this.shipmentController = shipmentController;
         this.notificationTableModel = new DefaultTableModel(new String[]{"ID", "Shipment ID", "Contact (Receiver)", "Message", "Type", "Status", "Timestamp"}, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -237,13 +237,9 @@ public class CustomerNotificationsPanel extends JPanel {
     private void populateShipmentComboBox() {
         shipmentComboBox.removeAllItems();
         shipmentComboBox.addItem(""); // Add a blank default option
-        try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            for (Shipment shipment : shipments) {
-                shipmentComboBox.addItem(shipment.getShipmentId() + " (" + shipment.getSenderName() + " to " + shipment.getReceiverName() + ")");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error populating shipment combo box: " + e.getMessage());
+        List<ShipmentSummary> shipments = shipmentController.getShipmentSummaries(false);
+        for (ShipmentSummary shipment : shipments) {
+            shipmentComboBox.addItem(shipment.shipmentId() + " (" + shipment.senderName() + " to " + shipment.receiverName() + ")");
         }
     }
 
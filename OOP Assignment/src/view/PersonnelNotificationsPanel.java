@@ -3,7 +3,7 @@ package view;
 
 import controller.NotificationController;
 import DAO.DeliveryPersonnelDAO;
-import Model.DeliveryPersonnel;
+import Model.PersonnelSummary;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -238,9 +238,9 @@ public class PersonnelNotificationsPanel extends JPanel {
         personnelComboBox.removeAllItems();
         personnelComboBox.addItem(""); // Add a blank default option
         try {
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-            for (DeliveryPersonnel personnel : personnelList) {
-                personnelComboBox.addItem(personnel.getPersonnelId() + " (" + personnel.getName() + ")");
+            List<PersonnelSummary> personnelList = personnelDAO.getPersonnelSummaries(false);
+            for (PersonnelSummary personnel : personnelList) {
+                personnelComboBox.addItem(personnel.personnelId() + " (" + personnel.name() + ")");
             }
         } catch (SQLException e) {
             System.err.println("Error populating personnel combo box: " + e.getMessage());
@@ -3,6 +3,7 @@ package view;
 
 import controller.ReportController;
 import Model.Report;
+import util.RecordFileWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -28,6 +29,9 @@ public class ReportPanel extends JPanel {
     private JTextField generatedByField;
     private JComboBox<String> monthComboBox; // New: Month selection
     private JComboBox<Integer> yearComboBox; // New: Year selection
+    private JComboBox<String> periodComboBox; // Month, quarter, year or custom range
+    private JTextField fromDateField; // Custom range start
+    private JTextField toDateField; // Custom range end
     private JTextArea reportDataArea; // Now for displaying generated structured report
 
     /**
@@ -62,7 +66,7 @@ public class ReportPanel extends JPanel {
         add(scrollPane, BorderLayout.CENTER);
 
         // Input Fields Panel (Top part for metadata and period selection)
-        JPanel topInputPanel = new JPanel(new GridLayout(3, 4, 10, 10)); // 3 rows, 4 columns
+        JPanel topInputPanel = new JPanel(new GridLayout(4, 4, 10, 10)); // 4 rows, 4 columns
         topInputPanel.setBorder(BorderFactory.createTitledBorder("Report Details and Period Selection"));
 
         reportIdField = new JTextField(20);
@@ -79,6 +83,10 @@ public class ReportPanel extends JPanel {
         Integer[] years = IntStream.rangeClosed(currentYear - 5, currentYear + 1).boxed().toArray(Integer[]::new);
         yearComboBox = new JComboBox<>(years);
         yearComboBox.setSelectedItem(currentYear); // Set current year as default
+        // Quarter uses the quarter of the selected month; Custom uses the date fields
+        periodComboBox = new JComboBox<>(new String[] {"Month", "Quarter", "Year", "Custom"});
+        fromDateField = new JTextField(20);
+        toDateField = new JTextField(20);
 
         topInputPanel.add(new JLabel("Report ID:")); topInputPanel.add(reportIdField);
         topInputPanel.add(new JLabel("Report Name:")); topInputPanel.add(reportNameField);
@@ -86,8 +94,9 @@ public class ReportPanel extends JPanel {
 
         topInputPanel.add(new JLabel("Select Month:")); topInputPanel.add(monthComboBox);
         topInputPanel.add(new JLabel("Select Year:")); topInputPanel.add(yearComboBox);
-        // Add empty cells to fill the grid if not using all 4 columns for input
-        topInputPanel.add(new JLabel("")); topInputPanel.add(new JLabel(""));
+        topInputPanel.add(new JLabel("Period:")); topInputPanel.add(periodComboBox);
+        topInputPanel.add(new JLabel("From (YYYY-MM-DD):")); topInputPanel.add(fromDateField);
+        topInputPanel.add(new JLabel("To (YYYY-MM-DD):")); topInputPanel.add(toDateField);
 
 
         // Report Display Area (Middle part)
@@ -110,11 +119,15 @@ public class ReportPanel extends JPanel {
         // Button Panel (Bottom part)
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         JButton generateButton = new JButton("Generate Report");
+        JButton leaderboardButton = new JButton("Driver Leaderboard");
+        JButton exportButton = new JButton("Export Rows");
         JButton deleteButton = new JButton("Delete Report");
         JButton clearButton = new JButton("Clear Fields");
         JButton refreshButton = new JButton("Refresh Table");
 
         buttonPanel.add(generateButton);
+        buttonPanel.add(leaderboardButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(clearButton);
         buttonPanel.add(refreshButton);
@@ -122,6 +135,8 @@ public class ReportPanel extends JPanel {
 
         // Action Listeners
         generateButton.addActionListener(e -> generateReportAction());
+        leaderboardButton.addActionListener(e -> generateLeaderboardAction());
+        exportButton.addActionListener(e -> exportReportAction());
         deleteButton.addActionListener(e -> deleteReportAction());
         clearButton.addActionListener(e -> clearFields());
         refreshButton.addActionListener(e -> refreshReportTable());
@@ -138,25 +153,38 @@ public class ReportPanel extends JPanel {
      * Handles the action for generating a new structured report.
      */
     private void generateReportAction() {
+        generateAction(false);
+    }
+
+    /**
+     * Handles the action for generating a driver leaderboard over the selected period.
+     */
+    private void generateLeaderboardAction() {
+        generateAction(true);
+    }
+
+    /**
+     * Generates a logistics report or a driver leaderboard for the selected period and shows it.
+     * @param leaderboard true for a driver leaderboard, false for a logistics report.
+     */
+    private void generateAction(boolean leaderboard) {
         String reportName = reportNameField.getText();
         String generatedBy = generatedByField.getText();
-        int month = monthComboBox.getSelectedIndex() + 1; // Month index is 0-11, SQL month is 1-12
-        int year = (int) yearComboBox.getSelectedItem();
 
         if (reportName.isEmpty() || generatedBy.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Report Name and Generated By fields cannot be empty.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        LocalDate[] period = selectedPeriod();
+        if (period == null) {
+            return;
+        }
 
         try {
             // Generate report content (this now handles all calculations)
-            String generatedContent = reportController.generateStructuredReport(
-                    reportName,
-                    month,
-                    year,
-                    generatedBy
-            );
-
+            String generatedContent = leaderboard
+                    ? reportController.generateDriverLeaderboard(reportName, period[0], period[1], generatedBy)
+                    : reportController.generateRangeReport(reportName, period[0], period[1], generatedBy);
             if (generatedContent != null && !generatedContent.isEmpty()) {
                 reportDataArea.setText(generatedContent);
                 JOptionPane.showMessageDialog(this, "Report generated and saved!");
@@ -173,6 +201,67 @@ public class ReportPanel extends JPanel {
         }
     }
 
+    /**
+     * Works out the first and last day of the selected period: the selected month, its quarter,
+     * the selected year, or the custom From/To dates.
+     * @return The first and last day, or null (after telling the user) if the custom dates are invalid
+     *         or the To date is before the From date.
+     */
+    private LocalDate[] selectedPeriod() {
+        int month = monthComboBox.getSelectedIndex() + 1; // Month index is 0-11, SQL month is 1-12
+        int year = (int) yearComboBox.getSelectedItem();
+        String period = (String) periodComboBox.getSelectedItem();
+        if ("Quarter".equals(period)) {
+            LocalDate quarterStart = LocalDate.of(year, (month - 1) / 3 * 3 + 1, 1);
+            return new LocalDate[]{quarterStart, quarterStart.plusMonths(3).minusDays(1)};
+        } else if ("Year".equals(period)) {
+            return new LocalDate[]{LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)};
+        } else if ("Custom".equals(period)) {
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = Date.valueOf(fromDateField.getText().trim()).toLocalDate();
+                to = Date.valueOf(toDateField.getText().trim()).toLocalDate();
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }
+            if (to.isBefore(from)) {
+                JOptionPane.showMessageDialog(this, "The To date cannot be before the From date.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }
+            return new LocalDate[]{from, to};
+        }
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        return new LocalDate[]{monthStart, monthStart.plusMonths(1).minusDays(1)};
+    }
+
+    /**
+     * Handles the action for exporting the delivery and shipment rows behind the selected report.
+     */
+    private void exportReportAction() {
+        String reportIdToExport = reportIdField.getText();
+        if (reportIdToExport.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select a report to export.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Directory");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Object[] formats = {"CSV", "JSON Lines"};
+        int choice = JOptionPane.showOptionDialog(this, "Export format:", "Export Rows", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE, null, formats, formats[0]);
+        if (choice < 0) {
+            return;
+        }
+        RecordFileWriter.Format format = choice == 0 ? RecordFileWriter.Format.CSV : RecordFileWriter.Format.JSON_LINES;
+        String message = reportController.exportReportData(reportIdToExport, chooser.getSelectedFile().toPath(), format);
+        JOptionPane.showMessageDialog(this, message);
+    }
+
     /**
      * Handles the action for deleting a report.
      */
@@ -211,15 +300,22 @@ public class ReportPanel extends JPanel {
                 String[] parts = monthYear.split("/");
                 monthComboBox.setSelectedIndex(Integer.parseInt(parts[0]) - 1); // Month is 1-indexed in string, 0-indexed in combobox
                 yearComboBox.setSelectedItem(Integer.parseInt(parts[1]));
+                periodComboBox.setSelectedItem("Month");
             } catch (NumberFormatException ex) {
                 System.err.println("Error parsing month/year from table: " + ex.getMessage());
             }
+        } else if (monthYear != null && monthYear.contains(" to ")) { // A range report: "start to end"
+            String[] parts = monthYear.split(" to ");
+            periodComboBox.setSelectedItem("Custom");
+            fromDateField.setText(parts[0]);
+            toDateField.setText(parts[1]);
         } else {
             monthComboBox.setSelectedIndex(0);
             yearComboBox.setSelectedItem(Year.now().getValue());
         }
 
-        reportDataArea.setText((String) reportTableModel.getValueAt(selectedRow, 5)); // Get from "Report Data" column
+        Object reportData = reportTableModel.getValueAt(selectedRow, 5); // Get from "Report Data" column
+        reportDataArea.setText(reportData != null ? reportData.toString() : ""); // The cell decompresses the data on demand
     }
 
     /**
@@ -231,6 +327,9 @@ public class ReportPanel extends JPanel {
         generatedByField.setText("");
         monthComboBox.setSelectedIndex(LocalDate.now().getMonthValue() - 1); // Set to current month
         yearComboBox.setSelectedItem(Year.now().getValue()); // Set to current year
+        periodComboBox.setSelectedIndex(0);
+        fromDateField.setText("");
+        toDateField.setText("");
         reportDataArea.setText("");
     }
 
@@ -2,10 +2,10 @@
 package view;
 
 import controller.DeliveryController;
-import DAO.ShipmentDAO;
+import controller.ShipmentController;
 import DAO.DeliveryPersonnelDAO;
-import Model.Shipment;
-import Model.DeliveryPersonnel;
+import Model.ShipmentSummary;
+import Model.PersonnelSummary;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel; // Still needed for the controller's table model, though not used in this view directly
@@ -22,7 +22,7 @@ import java.util.List;
 public class ScheduleDeliveriesPanel extends JPanel {
 
     private DeliveryController deliveryController;
-    private ShipmentDAO shipmentDAO; // Needed to populate combo boxes
+    private ShipmentController shipmentController; // Needed to populate combo boxes
     private DeliveryPersonnelDAO personnelDAO; // Needed to populate combo boxes
 
     // UI Components for input
@@ -34,12 +34,12 @@ public class ScheduleDeliveriesPanel extends JPanel {
     /**
      * Constructor for ScheduleDeliveriesPanel.
      * @param deliveryController The controller responsible for delivery logic.
-     * @param shipmentDAO The DAO for Shipment data (to populate combo box).
+     * @param shipmentController The shared shipment controller, whose snapshot fills the shipment combo box.
      * @param personnelDAO The DAO for Personnel data (to populate combo box).
      */
-    public ScheduleDeliveriesPanel(DeliveryController deliveryController, ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO) {
+    public ScheduleDeliveriesPanel(DeliveryController deliveryController, ShipmentController shipmentController, DeliveryPersonnelDAO personnelDAO) {
         this.deliveryController = deliveryController;
-        this.shipmentDAO = shipmentDAO;
+        this.shipmentController = shipmentController;
         this.personnelDAO = personnelDAO;
         // The table model is owned by a different DeliveryPanel (e.g., TrackDeliveriesPanel)
         // so no table model setup here.
@@ -148,13 +148,9 @@ public class ScheduleDeliveriesPanel extends JPanel {
     private void populateShipmentComboBox() {
         shipmentComboBox.removeAllItems();
         shipmentComboBox.addItem(""); // Add a blank default option
-        try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            for (Shipment shipment : shipments) {
-                shipmentComboBox.addItem(shipment.getShipmentId() + " (" + shipment.getSenderName() + " to " + shipment.getReceiverName() + ")");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error populating shipment combo box: " + e.getMessage());
+        List<ShipmentSummary> shipments = shipmentController.getShipmentSummaries(true); // Only shipments that can still be delivered
+        for (ShipmentSummary shipment : shipments) {
+            shipmentComboBox.addItem(shipment.shipmentId() + " (" + shipment.senderName() + " to " + shipment.receiverName() + ")");
         }
     }
 
@@ -165,9 +161,9 @@ public class ScheduleDeliveriesPanel extends JPanel {
         personnelComboBox.removeAllItems();
         personnelComboBox.addItem(""); // Add a blank default option
         try {
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-            for (DeliveryPersonnel personnel : personnelList) {
-                personnelComboBox.addItem(personnel.getPersonnelId() + " (" + personnel.getName() + ")");
+            List<PersonnelSummary> personnelList = personnelDAO.getPersonnelSummaries(true); // Only personnel who can take a delivery
+            for (PersonnelSummary personnel : personnelList) {
+                personnelComboBox.addItem(personnel.personnelId() + " (" + personnel.name() + ")");
             }
         } catch (SQLException e) {
             System.err.println("Error populating personnel combo box: " + e.getMessage());
@@ -5,7 +5,6 @@ import controller.ShipmentController;
 import Model.Shipment;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.math.BigDecimal;
 import java.sql.Date;
@@ -19,7 +18,7 @@ import java.sql.SQLException; // Needed for try-catch blocks
 public class ShipmentPanel extends JPanel {
 
     private ShipmentController shipmentController;
-    private DefaultTableModel shipmentTableModel;
+    private ShipmentTableModel shipmentTableModel;
 
     // UI Components for input
     private JTextField shipmentIdField;
@@ -43,13 +42,8 @@ public class ShipmentPanel extends JPanel {
     public ShipmentPanel(ShipmentController shipmentController) {
         this.shipmentController = shipmentController;
         // The table model needs to be set in the controller that this panel owns.
-        // It's better to create it here and pass it.
-        this.shipmentTableModel = new DefaultTableModel(new String[]{"ID", "Sender", "Receiver", "Contents", "Status", "Location", "Driver ID", "Scheduled Date", "Estimated Time"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make cells non-editable
-            }
-        };
+        // It reads the rows from the controller's shipment snapshot rather than holding a copy.
+        this.shipmentTableModel = new ShipmentTableModel(shipmentController.getShipmentSnapshot());
         this.shipmentController.setTableModel(this.shipmentTableModel); // Set the table model in the controller
 
         setLayout(new BorderLayout());
@@ -149,8 +143,7 @@ public class ShipmentPanel extends JPanel {
             );
             if (success) {
                 JOptionPane.showMessageDialog(this, "Shipment added successfully!");
-                clearFields();
-                refreshShipmentTable();
+                clearFields(); // The controller's change notification reloads the table
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to add shipment.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -194,8 +187,7 @@ public class ShipmentPanel extends JPanel {
             );
             if (success) {
                 JOptionPane.showMessageDialog(this, "Shipment updated successfully!");
-                clearFields();
-                refreshShipmentTable();
+                clearFields(); // The controller's change notification reloads the table
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to update shipment.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -220,8 +212,7 @@ public class ShipmentPanel extends JPanel {
             boolean success = shipmentController.deleteShipment(shipmentIdToDelete);
             if (success) {
                 JOptionPane.showMessageDialog(this, "Shipment deleted successfully!");
-                clearFields();
-                refreshShipmentTable();
+                clearFields(); // The controller's change notification reloads the table
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to delete shipment. It might be linked to deliveries.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -278,6 +269,24 @@ public class ShipmentPanel extends JPanel {
         assignedDriverIdField.setText("");
     }
 
+    /**
+     * Attaches the table to the controller again when the panel is shown, so it receives change notifications.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        shipmentController.setTableModel(shipmentTableModel);
+    }
+
+    /**
+     * Detaches the table when the panel is removed, so the controller stops notifying it and drops its copy.
+     */
+    @Override
+    public void removeNotify() {
+        shipmentController.setTableModel(null);
+        super.removeNotify();
+    }
+
     /**
      * Refreshes the shipment table by fetching data from the controller.
      * This method is public so MainApplication can call it when the tab is selected.
@@ -0,0 +1,60 @@
+// view/ShipmentTableModel.java
+package view;
+
+import DAO.ShipmentSnapshot;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model for the shipment table. Cells are read from the controller's {@link ShipmentSnapshot}
+ * when they are drawn, so the table keeps no copy of its rows; with a snapshot file as the base,
+ * unchanged rows come straight from the memory-mapped file.
+ */
+public class ShipmentTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMNS = {"ID", "Sender", "Receiver", "Contents", "Status", "Location",
+            "Driver ID", "Scheduled Date", "Estimated Time"};
+
+    private final ShipmentSnapshot snapshot;
+
+    /**
+     * Constructor for ShipmentTableModel.
+     * @param snapshot The copy of the table to show.
+     */
+    public ShipmentTableModel(ShipmentSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public int getRowCount() {
+        return snapshot.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return snapshot.getShipmentId(row);
+            case 1: return snapshot.getSenderName(row);
+            case 2: return snapshot.getReceiverName(row);
+            case 3: return snapshot.getPackageContents(row);
+            case 4: return snapshot.getDeliveryStatus(row);
+            case 5: return snapshot.getCurrentLocation(row);
+            case 6: return snapshot.getAssignedDriverId(row);
+            case 7: return snapshot.getScheduledDeliveryDate(row);
+            case 8: return snapshot.getEstimatedDeliveryTime(row);
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+}
@@ -2,7 +2,10 @@
 package view;
 
 import controller.ShipmentController;
+import DAO.RepositoryListener;
+import DAO.ShipmentRepository;
 import Model.Shipment;
+import Model.DeliveryStatus;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -10,6 +13,8 @@ import java.awt.*;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Time;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.text.SimpleDateFormat;
 
@@ -20,6 +25,8 @@ import java.text.SimpleDateFormat;
  * - ETA adjustments
  * - Delay recording
  * - Comprehensive status tracking
+ * Shipments are loaded one page at a time (keyset pagination on shipment ID),
+ * with the status and ID filters applied by the database.
  */
 public class TrackShipmentsPanel extends JPanel {
 
@@ -45,6 +52,19 @@ public class TrackShipmentsPanel extends JPanel {
     private JButton recordDelayButton;
     private JButton viewHistoryButton;
 
+    // Paging state: only the page being viewed is loaded from the database
+    private static final int PAGE_SIZE = 100;
+    private String currentPageAfterId; // Keyset of the current page (null for the first page)
+    private String nextPageAfterId; // Last ID on the current page, null if there is no next page
+    private final Deque<String> previousPageAfterIds = new ArrayDeque<>(); // Keysets of earlier pages (null stored as "")
+    private int currentPageNumber = 1;
+    private JButton previousPageButton;
+    private JButton nextPageButton;
+    private JLabel pageLabel;
+
+    // Reloads the current page whenever shipments change, whichever tab changed them; subscribed while shown
+    private final RepositoryListener repositoryListener = () -> SwingUtilities.invokeLater(this::refreshShipmentTable);
+
     /**
      * Constructor for TrackShipmentsPanel.
      * @param shipmentController The controller responsible for shipment data.
@@ -61,7 +81,6 @@ public class TrackShipmentsPanel extends JPanel {
                 return false; // Make cells read-only
             }
         };
-        this.shipmentController.setTableModel(this.shipmentTableModel);
 
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -69,6 +88,24 @@ public class TrackShipmentsPanel extends JPanel {
         refreshShipmentTable(); // Initial load
     }
 
+    /**
+     * Subscribes to shipment change notifications while the panel is shown.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ShipmentRepository.getInstance().addListener(repositoryListener);
+    }
+
+    /**
+     * Unsubscribes when the panel is removed, so the repository does not keep it alive.
+     */
+    @Override
+    public void removeNotify() {
+        ShipmentRepository.getInstance().removeListener(repositoryListener);
+        super.removeNotify();
+    }
+
     /**
      * Initializes the UI components for the Shipment Tracking panel.
      */
@@ -180,11 +217,23 @@ public class TrackShipmentsPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(shipmentTable);
         add(scrollPane, BorderLayout.CENTER);
 
+        // Paging controls
+        JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        previousPageButton = new JButton("< Previous");
+        nextPageButton = new JButton("Next >");
+        pageLabel = new JLabel("Page 1");
+        pagingPanel.add(previousPageButton);
+        pagingPanel.add(pageLabel);
+        pagingPanel.add(nextPageButton);
+        add(pagingPanel, BorderLayout.SOUTH);
+
         // Action Listeners
         searchButton.addActionListener(e -> searchShipmentByIdAction());
         clearSearchButton.addActionListener(e -> clearFilterAction());
-        refreshTableButton.addActionListener(e -> refreshShipmentTable());
-        filterStatusComboBox.addActionListener(e -> refreshShipmentTable());
+        refreshTableButton.addActionListener(e -> reloadFromFirstPage());
+        filterStatusComboBox.addActionListener(e -> reloadFromFirstPage());
+        previousPageButton.addActionListener(e -> previousPageAction());
+        nextPageButton.addActionListener(e -> nextPageAction());
         updateLocationButton.addActionListener(e -> updateLocationAction());
         updateEtaButton.addActionListener(e -> updateEtaAction());
         recordDelayButton.addActionListener(e -> recordDelayAction());
@@ -221,6 +270,42 @@ public class TrackShipmentsPanel extends JPanel {
     private void clearFilterAction() {
         searchShipmentIdField.setText("");
         filterStatusComboBox.setSelectedItem("All");
+        reloadFromFirstPage();
+    }
+
+    /**
+     * Shows the next page of shipments, if there is one.
+     */
+    private void nextPageAction() {
+        if (nextPageAfterId == null) {
+            return;
+        }
+        previousPageAfterIds.push(currentPageAfterId == null ? "" : currentPageAfterId);
+        currentPageAfterId = nextPageAfterId;
+        currentPageNumber++;
+        refreshShipmentTable();
+    }
+
+    /**
+     * Shows the previous page of shipments, if there is one.
+     */
+    private void previousPageAction() {
+        if (previousPageAfterIds.isEmpty()) {
+            return;
+        }
+        String afterId = previousPageAfterIds.pop();
+        currentPageAfterId = afterId.isEmpty() ? null : afterId;
+        currentPageNumber--;
+        refreshShipmentTable();
+    }
+
+    /**
+     * Resets paging to the first page (e.g. after a filter change) and reloads the table.
+     */
+    private void reloadFromFirstPage() {
+        currentPageAfterId = null;
+        previousPageAfterIds.clear();
+        currentPageNumber = 1;
         refreshShipmentTable();
     }
 
@@ -237,42 +322,24 @@ public class TrackShipmentsPanel extends JPanel {
         String shipmentId = (String) shipmentTableModel.getValueAt(selectedRow, 0);
         String newLocation = (String) locationComboBox.getSelectedItem();
 
+        String currentStatus = (String) shipmentTableModel.getValueAt(selectedRow, 4);
+
         try {
-            Shipment shipment = shipmentController.getShipmentById(shipmentId);
-            if (shipment != null) {
-                // Determine appropriate status based on location
-                String newStatus = shipment.getDeliveryStatus();
-                if (newLocation.equals("Delivered")) {
-                    newStatus = "Delivered";
-                } else if (newLocation.equals("Warehouse")) {
-                    newStatus = "Pending";
-                } else if (!newStatus.equals("Delivered") && !newStatus.equals("Failed")) {
-                    newStatus = "In Transit";
-                }
+            // Determine appropriate status based on location (current status comes from the table row)
+            String newStatus = currentStatus;
+            DeliveryStatus currentStatusCode = DeliveryStatus.fromLabel(currentStatus);
+            if (newLocation.equals("Delivered")) {
+                newStatus = "Delivered";
+            } else if (newLocation.equals("Warehouse")) {
+                newStatus = "Pending";
+            } else if (currentStatusCode == null || !currentStatusCode.isFinal()) {
+                newStatus = "In Transit";
+            }
 
-                shipment.setCurrentLocation(newLocation);
-                shipment.setDeliveryStatus(newStatus);
+            boolean success = shipmentController.updateLocationAndStatus(shipmentId, newLocation, newStatus);
 
-                boolean success = shipmentController.updateShipment(
-                        shipment.getShipmentId(),
-                        shipment.getSenderName(),
-                        shipment.getSenderAddress(),
-                        shipment.getReceiverName(),
-                        shipment.getReceiverAddress(),
-                        shipment.getPackageContents(),
-                        shipment.getWeightKg(),
-                        shipment.getDimensionsCm(),
-                        newStatus,
-                        newLocation,
-                        shipment.getScheduledDeliveryDate(),
-                        shipment.getEstimatedDeliveryTime(),
-                        shipment.getAssignedDriverId()
-                );
-
-                if (success) {
-                    refreshShipmentTable();
-                    JOptionPane.showMessageDialog(this, "Location updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                }
+            if (success) { // The change notification reloads the page
+                JOptionPane.showMessageDialog(this, "Location updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
             }
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error updating location: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -294,28 +361,10 @@ public class TrackShipmentsPanel extends JPanel {
         Time newTime = new Time(((java.util.Date)etaTimeSpinner.getValue()).getTime());
 
         try {
-            Shipment shipment = shipmentController.getShipmentById(shipmentId);
-            if (shipment != null) {
-                boolean success = shipmentController.updateShipment(
-                        shipment.getShipmentId(),
-                        shipment.getSenderName(),
-                        shipment.getSenderAddress(),
-                        shipment.getReceiverName(),
-                        shipment.getReceiverAddress(),
-                        shipment.getPackageContents(),
-                        shipment.getWeightKg(),
-                        shipment.getDimensionsCm(),
-                        shipment.getDeliveryStatus(),
-                        shipment.getCurrentLocation(),
-                        newDate,
-                        newTime,
-                        shipment.getAssignedDriverId()
-                );
+            boolean success = shipmentController.updateEta(shipmentId, newDate, newTime);
 
-                if (success) {
-                    refreshShipmentTable();
-                    JOptionPane.showMessageDialog(this, "ETA updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                }
+            if (success) { // The change notification reloads the page
+                JOptionPane.showMessageDialog(this, "ETA updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
             }
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error updating ETA: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -375,8 +424,7 @@ public class TrackShipmentsPanel extends JPanel {
                         shipment.getAssignedDriverId()
                 );
 
-                if (success) {
-                    refreshShipmentTable();
+                if (success) { // The change notification reloads the page
                     JOptionPane.showMessageDialog(this, "Delay recorded successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
 
                     // Clear delay fields
@@ -421,24 +469,31 @@ public class TrackShipmentsPanel extends JPanel {
     }
 
     /**
-     * Refreshes the shipment table based on the selected filter.
+     * Refreshes the current page of the shipment table based on the selected filter.
+     * The status filter and the Shipment ID field (as an ID prefix) are applied in SQL.
      */
     public void refreshShipmentTable() {
         try {
-            List<Shipment> allShipments = shipmentController.getShipmentDAO().getAllShipments();
-            shipmentTableModel.setRowCount(0); // Clear existing data
-
             String selectedStatus = (String) filterStatusComboBox.getSelectedItem();
             String searchId = searchShipmentIdField.getText().trim();
 
-            for (Shipment shipment : allShipments) {
-                boolean matchesStatus = "All".equals(selectedStatus) || selectedStatus.equalsIgnoreCase(shipment.getDeliveryStatus());
-                boolean matchesId = searchId.isEmpty() || shipment.getShipmentId().equalsIgnoreCase(searchId);
+            // Fetch one extra row to find out whether a next page exists
+            List<Shipment> page = shipmentController.getShipmentDAO()
+                    .getShipmentsPage(currentPageAfterId, PAGE_SIZE + 1, selectedStatus, searchId);
+            boolean hasNextPage = page.size() > PAGE_SIZE;
+            if (hasNextPage) {
+                page = page.subList(0, PAGE_SIZE);
+            }
 
-                if (matchesStatus && matchesId) {
-                    addShipmentToTable(shipment);
-                }
+            shipmentTableModel.setRowCount(0); // Clear existing data
+            for (Shipment shipment : page) {
+                addShipmentToTable(shipment);
             }
+
+            nextPageAfterId = hasNextPage ? page.get(page.size() - 1).getShipmentId() : null;
+            previousPageButton.setEnabled(!previousPageAfterIds.isEmpty());
+            nextPageButton.setEnabled(hasNextPage);
+            pageLabel.setText("Page " + currentPageNumber);
         } catch (SQLException e) {
             System.err.println("Error refreshing shipment table for tracking: " + e.getMessage());
             JOptionPane.showMessageDialog(this, "Error loading shipment data: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
@@ -450,7 +505,7 @@ public class TrackShipmentsPanel extends JPanel {
      */
     private void addShipmentToTable(Shipment shipment) {
         String delayInfo = "";
-        if ("Delayed".equalsIgnoreCase(shipment.getDeliveryStatus())) {
+        if (shipment.getDeliveryStatusCode() == DeliveryStatus.DELAYED) {
             // Extract most recent delay info from package contents
             String contents = shipment.getPackageContents();
             if (contents.contains("[DELAY")) {
@@ -0,0 +1,17 @@
+// AllTests.java
+
+/**
+ * Runs every test class in this folder. Compile the src and test folders together and run this
+ * class; it stops with an AssertionError at the first failing case.
+ */
+public class AllTests {
+
+    public static void main(String[] args) throws Exception {
+        DAO.ShipmentSnapshotFileTest.main(args);
+        Model.LatenessHistogramTest.main(args);
+        Model.ReportAccumulatorTest.main(args);
+        util.BloomFilterTest.main(args);
+        util.CompressedTextTest.main(args);
+        util.FrequencyCacheTest.main(args);
+    }
+}
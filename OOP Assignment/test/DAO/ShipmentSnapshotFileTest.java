@@ -0,0 +1,161 @@
+// dao/ShipmentSnapshotFileTest.java
+package DAO;
+
+import Model.Shipment;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static util.Check.equal;
+import static util.Check.isTrue;
+import static util.Check.run;
+
+/**
+ * Tests for the {@link ShipmentSnapshotFile} encoding: every field of every record, including nulls
+ * and non-ASCII text in the string heap, reads back as written, both from the file just built and
+ * after reopening it. The table is streamed from a stub DAO, so no database is needed.
+ */
+public class ShipmentSnapshotFileTest {
+
+    public static void main(String[] args) throws Exception {
+        run("records and strings round-trip through a built file", ShipmentSnapshotFileTest::roundTrip);
+        run("a reopened file reads the same records", ShipmentSnapshotFileTest::reopen);
+        run("the hash index finds every ID and only those", ShipmentSnapshotFileTest::index);
+        run("an empty table gives an empty snapshot", ShipmentSnapshotFileTest::emptyTable);
+        run("a closed file refuses reads", ShipmentSnapshotFileTest::closedFile);
+    }
+
+    static void roundTrip() throws Exception {
+        List<Shipment> shipments = shipments();
+        try (ShipmentSnapshotFile file = build(shipments)) {
+            equal(shipments.size(), file.size(), "size");
+            equal(new Timestamp(1_700_000_000_000L), file.getBuiltAt(), "built at");
+            for (int row = 0; row < shipments.size(); row++) {
+                assertSameShipment(shipments.get(row), file.get(row));
+                assertFieldReaders(shipments.get(row), file, row);
+            }
+        }
+    }
+
+    static void reopen() throws Exception {
+        List<Shipment> shipments = shipments();
+        Path path;
+        try (ShipmentSnapshotFile file = build(shipments)) {
+            path = file.getFile();
+        }
+        try (ShipmentSnapshotFile reopened = ShipmentSnapshotFile.open(path)) {
+            equal(shipments.size(), reopened.size(), "size");
+            List<Shipment> read = new ArrayList<>();
+            reopened.forEach(read::add);
+            for (int row = 0; row < shipments.size(); row++) {
+                assertSameShipment(shipments.get(row), read.get(row));
+            }
+        }
+    }
+
+    static void index() throws Exception {
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            shipments.add(shipment("SHP-" + i, "Sender " + i, "Pending"));
+        }
+        try (ShipmentSnapshotFile file = build(shipments)) {
+            for (int i = 0; i < 1_000; i++) {
+                equal(i, file.indexOf("SHP-" + i), "record of SHP-" + i);
+            }
+            equal(-1, file.indexOf("SHP-1000"), "unknown ID");
+            equal(null, file.getById("nope"), "unknown ID lookup");
+            equal("Sender 512", file.getById("SHP-512").getSenderName(), "lookup by ID");
+        }
+    }
+
+    static void emptyTable() throws Exception {
+        try (ShipmentSnapshotFile file = build(List.of())) {
+            equal(0, file.size(), "size");
+            equal(-1, file.indexOf("SHP-1"), "lookup in an empty file");
+        }
+    }
+
+    static void closedFile() throws Exception {
+        ShipmentSnapshotFile file = build(shipments());
+        file.close();
+        try {
+            file.getShipmentId(0);
+        } catch (IllegalStateException expected) {
+            return;
+        }
+        throw new AssertionError("expected IllegalStateException after close");
+    }
+
+    private static List<Shipment> shipments() {
+        Shipment full = new Shipment("SHP-1", "Ana Müller", "Hauptstraße 1, Zürich", "李雷", "北京市 1",
+                "Books", new BigDecimal("12.345"), "30x20x10", "in transit", "Depot A",
+                Date.valueOf("2026-03-14"), Time.valueOf("16:45:30"), "DRV-7");
+        full.setCreatedAt(new Timestamp(1_690_000_000_123L));
+        full.setUpdatedAt(new Timestamp(1_695_000_000_456L));
+        Shipment sparse = new Shipment("SHP-2", "Bo", null, "Cy", null, null, null, null, null, null, null, null, null);
+        Shipment emptyStrings = new Shipment("SHP-3", "", "", "", "", "", new BigDecimal("0"), "", "Delivered", "",
+                Date.valueOf("1999-12-31"), Time.valueOf("00:00:00"), "");
+        emptyStrings.setCreatedAt(new Timestamp(0));
+        return List.of(full, sparse, emptyStrings, shipment("SHP-4", "Ana Müller", "Pending"));
+    }
+
+    private static Shipment shipment(String id, String sender, String status) {
+        return new Shipment(id, sender, "A", "R", "RA", "Parcel", new BigDecimal("1.5"), "1x1x1", status, "Hub",
+                Date.valueOf("2026-01-05"), Time.valueOf("10:00:00"), null);
+    }
+
+    private static ShipmentSnapshotFile build(List<Shipment> shipments) throws Exception {
+        ShipmentDAO stub = new ShipmentDAO() {
+            @Override
+            public void forEachShipment(Consumer<? super Shipment> action) {
+                shipments.forEach(action);
+            }
+        };
+        Path dir = Files.createTempDirectory("snapshot-test");
+        dir.toFile().deleteOnExit();
+        Path path = dir.resolve("shipments.snapshot");
+        path.toFile().deleteOnExit();
+        return ShipmentSnapshotFile.build(stub, path, new Timestamp(1_700_000_000_000L));
+    }
+
+    private static void assertSameShipment(Shipment expected, Shipment actual) {
+        String id = expected.getShipmentId();
+        equal(expected.getShipmentId(), actual.getShipmentId(), id + " ID");
+        equal(expected.getSenderName(), actual.getSenderName(), id + " sender");
+        equal(expected.getSenderAddress(), actual.getSenderAddress(), id + " sender address");
+        equal(expected.getReceiverName(), actual.getReceiverName(), id + " receiver");
+        equal(expected.getReceiverAddress(), actual.getReceiverAddress(), id + " receiver address");
+        equal(expected.getPackageContents(), actual.getPackageContents(), id + " contents");
+        equal(expected.getWeightKg(), actual.getWeightKg(), id + " weight (value and scale)");
+        equal(expected.getDimensionsCm(), actual.getDimensionsCm(), id + " dimensions");
+        equal(expected.getDeliveryStatus(), actual.getDeliveryStatus(), id + " status");
+        equal(expected.getCurrentLocation(), actual.getCurrentLocation(), id + " location");
+        equal(expected.getScheduledDeliveryDate(), actual.getScheduledDeliveryDate(), id + " scheduled date");
+        equal(expected.getEstimatedDeliveryTime(), actual.getEstimatedDeliveryTime(), id + " estimated time");
+        equal(expected.getAssignedDriverId(), actual.getAssignedDriverId(), id + " driver");
+        equal(expected.getCreatedAt(), actual.getCreatedAt(), id + " created at");
+        equal(expected.getUpdatedAt(), actual.getUpdatedAt(), id + " updated at");
+    }
+
+    private static void assertFieldReaders(Shipment expected, ShipmentSnapshotFile file, int row) {
+        String id = expected.getShipmentId();
+        equal(expected.getShipmentId(), file.getShipmentId(row), id + " ID reader");
+        equal(expected.getSenderName(), file.getSenderName(row), id + " sender reader");
+        equal(expected.getReceiverName(), file.getReceiverName(row), id + " receiver reader");
+        equal(expected.getPackageContents(), file.getPackageContents(row), id + " contents reader");
+        equal(expected.getDeliveryStatus(), file.getDeliveryStatus(row), id + " status reader");
+        isTrue(expected.getDeliveryStatus() == null || expected.getDeliveryStatus() == file.getDeliveryStatus(row),
+                id + " status reader should return the canonical instance");
+        equal(expected.getCurrentLocation(), file.getCurrentLocation(row), id + " location reader");
+        equal(expected.getAssignedDriverId(), file.getAssignedDriverId(row), id + " driver reader");
+        equal(expected.getScheduledDeliveryDate(), file.getScheduledDeliveryDate(row), id + " date reader");
+        equal(expected.getEstimatedDeliveryTime(), file.getEstimatedDeliveryTime(row), id + " time reader");
+    }
+}
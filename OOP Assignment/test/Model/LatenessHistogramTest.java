@@ -0,0 +1,93 @@
+// model/LatenessHistogramTest.java
+package Model;
+
+import static util.Check.equal;
+import static util.Check.isTrue;
+import static util.Check.near;
+import static util.Check.run;
+
+/**
+ * Tests for {@link LatenessHistogram}: bucketing, percentiles within the promised error, and
+ * merging, which must give the same histogram as recording everything in one.
+ */
+public class LatenessHistogramTest {
+
+    public static void main(String[] args) throws Exception {
+        run("bucketOf puts on-time deliveries in bucket 0 and clamps the tail", LatenessHistogramTest::bucketOf);
+        run("percentiles are within 2.5% of the recorded lateness", LatenessHistogramTest::percentiles);
+        run("merge equals recording into one histogram", LatenessHistogramTest::mergeMatchesSingleHistogram);
+        run("recordBucket round-trips bucketOf", LatenessHistogramTest::recordBucketRoundTrip);
+        run("copy is independent of the original", LatenessHistogramTest::copyIsIndependent);
+    }
+
+    static void bucketOf() {
+        equal(0, LatenessHistogram.bucketOf(0), "on time");
+        equal(0, LatenessHistogram.bucketOf(-60), "early");
+        equal(1, LatenessHistogram.bucketOf(1), "one second late");
+        equal(LatenessHistogram.MAX_BUCKET, LatenessHistogram.bucketOf(Long.MAX_VALUE), "clamped");
+        for (long seconds = 1; seconds < 10_000_000; seconds = seconds * 3 + 1) {
+            int bucket = LatenessHistogram.bucketOf(seconds);
+            isTrue(Math.pow(LatenessHistogram.GAMMA, bucket - 1) <= seconds * (1 + 1e-9)
+                    && seconds < Math.pow(LatenessHistogram.GAMMA, bucket) * (1 + 1e-9),
+                    seconds + " s is outside bucket " + bucket);
+        }
+    }
+
+    static void percentiles() {
+        LatenessHistogram histogram = new LatenessHistogram();
+        for (int i = 0; i < 50; i++) {
+            histogram.record(0); // Half the deliveries on time
+        }
+        for (int minutes = 1; minutes <= 50; minutes++) {
+            histogram.record(minutes * 60L);
+        }
+        equal(100L, histogram.getCount(), "count");
+        equal(0.0, histogram.percentileSeconds(50), "p50 is on time");
+        near(45 * 60, histogram.percentileSeconds(95), 45 * 60 * 0.025, "p95");
+        near(50 * 60, histogram.percentileSeconds(100), 50 * 60 * 0.025, "p100");
+        equal(0.0, new LatenessHistogram().percentileSeconds(95), "empty histogram");
+    }
+
+    static void mergeMatchesSingleHistogram() {
+        LatenessHistogram all = new LatenessHistogram();
+        LatenessHistogram first = new LatenessHistogram();
+        LatenessHistogram second = new LatenessHistogram();
+        for (long seconds = 0; seconds < 5_000; seconds += 7) {
+            all.record(seconds);
+            (seconds % 2 == 0 ? first : second).record(seconds);
+        }
+        long secondCount = second.getCount();
+        LatenessHistogram merged = first.merge(second);
+        equal(all.getCount(), merged.getCount(), "count");
+        for (double percentile = 1; percentile <= 100; percentile += 1) {
+            equal(all.percentileSeconds(percentile), merged.percentileSeconds(percentile), "p" + percentile);
+        }
+        equal(secondCount, second.getCount(), "the merged-in histogram is unchanged");
+    }
+
+    static void recordBucketRoundTrip() {
+        LatenessHistogram recorded = new LatenessHistogram();
+        LatenessHistogram bucketed = new LatenessHistogram();
+        long[] lateness = {0, 30, 30, 600, 3_600, 86_400};
+        for (long seconds : lateness) {
+            recorded.record(seconds);
+        }
+        bucketed.recordBucket(LatenessHistogram.bucketOf(0), 1);
+        bucketed.recordBucket(LatenessHistogram.bucketOf(30), 2);
+        bucketed.recordBucket(LatenessHistogram.bucketOf(600), 1);
+        bucketed.recordBucket(LatenessHistogram.bucketOf(3_600), 1);
+        bucketed.recordBucket(LatenessHistogram.bucketOf(86_400), 1);
+        for (double percentile : new double[]{10, 50, 75, 90, 100}) {
+            equal(recorded.percentileSeconds(percentile), bucketed.percentileSeconds(percentile), "p" + percentile);
+        }
+    }
+
+    static void copyIsIndependent() {
+        LatenessHistogram original = new LatenessHistogram();
+        original.record(120);
+        LatenessHistogram copy = original.copy();
+        copy.record(7_200);
+        equal(1L, original.getCount(), "original count");
+        equal(2L, copy.getCount(), "copy count");
+    }
+}
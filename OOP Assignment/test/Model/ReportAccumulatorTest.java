@@ -0,0 +1,113 @@
+// model/ReportAccumulatorTest.java
+package Model;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static util.Check.equal;
+import static util.Check.run;
+
+/**
+ * Tests for {@link ReportAccumulator}: combining partials must give the same figures as one
+ * accumulator fed everything, in any grouping, which is what the parallel month fold relies on.
+ */
+public class ReportAccumulatorTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2026, 2);
+
+    public static void main(String[] args) throws Exception {
+        run("combine equals adding everything to one accumulator", ReportAccumulatorTest::combineMatchesSequential);
+        run("the parallel collector matches the sequential one", ReportAccumulatorTest::parallelCollector);
+        run("combine leaves the other partial unchanged", ReportAccumulatorTest::combineDoesNotShareState);
+        run("average lateness is over overdue deliveries only", ReportAccumulatorTest::averageOverOverdue);
+    }
+
+    static void combineMatchesSequential() {
+        ReportAccumulator all = new ReportAccumulator();
+        ReportAccumulator january = new ReportAccumulator();
+        ReportAccumulator february = new ReportAccumulator();
+        for (KpiRollup rollup : rollups()) {
+            all.add(rollup);
+            (rollup.month() == 1 ? january : february).add(rollup);
+        }
+        feedExtras(all, JANUARY);
+        feedExtras(january, JANUARY);
+        feedExtras(all, FEBRUARY);
+        feedExtras(february, FEBRUARY);
+
+        assertSameFigures(all, january.combine(february));
+    }
+
+    static void parallelCollector() {
+        List<KpiRollup> rollups = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rollups.addAll(rollups());
+        }
+        ReportAccumulator sequential = rollups.stream().collect(ReportAccumulator.collector());
+        ReportAccumulator parallel = rollups.parallelStream().collect(ReportAccumulator.collector());
+        assertSameFigures(sequential, parallel);
+    }
+
+    static void combineDoesNotShareState() {
+        ReportAccumulator target = new ReportAccumulator();
+        ReportAccumulator other = new ReportAccumulator();
+        feedExtras(other, JANUARY);
+        target.combine(other);
+        target.combine(other); // A shared histogram would now be doubled in other too
+        equal(2L, other.getLatenessByRoute().get("North").getCount(), "other's route histogram");
+        equal(4L, target.getLatenessByRoute().get("North").getCount(), "target's route histogram");
+        equal(Map.of("Depot", 3L), other.getShipmentsByLocation(), "other's locations");
+    }
+
+    static void averageOverOverdue() {
+        ReportAccumulator accumulator = new ReportAccumulator();
+        // Four late deliveries, of which two had a due time and were 1 h and 3 h late
+        accumulator.addDeliveryPerformance(new DeliveryPerformance(10, 6, 4, 2, 4 * 3_600));
+        equal(2.0, accumulator.deliveryPerformance().averageLatenessHours(), "average lateness in hours");
+        equal(60.0, accumulator.deliveryPerformance().onTimeRate(), "on-time rate, in percent");
+    }
+
+    private static List<KpiRollup> rollups() {
+        return List.of(
+                new KpiRollup(2026, 1, "North", "Box", "D1", 5, 4, 3, 1, 1, 600),
+                new KpiRollup(2026, 1, "South", "Envelope", "D2", 2, 2, 1, 1, 0, 0),
+                new KpiRollup(2026, 1, "North", "Envelope", "", 1, 0, 0, 0, 0, 0),
+                new KpiRollup(2026, 2, "North", "Box", "D1", 3, 3, 1, 2, 2, 7_200),
+                new KpiRollup(2026, 2, "South", "Pallet", "D3", 4, 1, 1, 0, 0, 0));
+    }
+
+    private static void feedExtras(ReportAccumulator accumulator, YearMonth month) {
+        accumulator.addLocationCounts(Map.of("Depot", 3L));
+        accumulator.addLatenessBuckets(month, List.of(
+                new LatenessBucketCount("North", "D1", LatenessHistogram.bucketOf(600), 1),
+                new LatenessBucketCount("North", "D2", 0, 1),
+                new LatenessBucketCount("South", "D1", LatenessHistogram.bucketOf(7_200), 2)));
+    }
+
+    private static void assertSameFigures(ReportAccumulator expected, ReportAccumulator actual) {
+        equal(expected.getShipmentsCreated(), actual.getShipmentsCreated(), "shipments created");
+        equal(expected.deliveryPerformance(), actual.deliveryPerformance(), "delivery performance");
+        equal(expected.getShipmentsByPackageType(), actual.getShipmentsByPackageType(), "package types");
+        equal(expected.getShipmentsByLocation(), actual.getShipmentsByLocation(), "locations");
+        assertSameHistogram(expected.getLateness(), actual.getLateness(), "overall lateness");
+        assertSameHistograms(expected.getLatenessByMonth(), actual.getLatenessByMonth(), "lateness by month");
+        assertSameHistograms(expected.getLatenessByRoute(), actual.getLatenessByRoute(), "lateness by route");
+        assertSameHistograms(expected.getLatenessByDriver(), actual.getLatenessByDriver(), "lateness by driver");
+    }
+
+    private static <K> void assertSameHistograms(Map<K, LatenessHistogram> expected, Map<K, LatenessHistogram> actual,
+                                                 String message) {
+        equal(expected.keySet(), actual.keySet(), message + " keys");
+        expected.forEach((key, histogram) -> assertSameHistogram(histogram, actual.get(key), message + " " + key));
+    }
+
+    private static void assertSameHistogram(LatenessHistogram expected, LatenessHistogram actual, String message) {
+        equal(expected.getCount(), actual.getCount(), message + " count");
+        for (double percentile : new double[]{25, 50, 90, 95, 100}) {
+            equal(expected.percentileSeconds(percentile), actual.percentileSeconds(percentile), message + " p" + percentile);
+        }
+    }
+}
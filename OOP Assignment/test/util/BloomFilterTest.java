@@ -0,0 +1,40 @@
+// util/BloomFilterTest.java
+package util;
+
+import static util.Check.isTrue;
+import static util.Check.run;
+
+/**
+ * Tests for {@link BloomFilter}: no false negatives, and a false positive rate near the one it was sized for.
+ */
+public class BloomFilterTest {
+
+    public static void main(String[] args) throws Exception {
+        run("every added string is reported as possibly present", BloomFilterTest::noFalseNegatives);
+        run("the false positive rate stays near the configured one", BloomFilterTest::falsePositiveRate);
+    }
+
+    static void noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("SHP-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            isTrue(filter.mightContain("SHP-" + i), "SHP-" + i + " was added");
+        }
+    }
+
+    static void falsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("SHP-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("UNKNOWN-" + i)) {
+                falsePositives++;
+            }
+        }
+        isTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups, expected about 1000");
+    }
+}
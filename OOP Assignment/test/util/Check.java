@@ -0,0 +1,49 @@
+// util/Check.java
+package util;
+
+import java.util.Objects;
+
+/**
+ * Assertions for the test classes. The project has no test framework on its class path, so each
+ * test class is a plain program whose main method throws AssertionError on the first failure.
+ */
+public final class Check {
+
+    private Check() {
+    }
+
+    public static void isTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void equal(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    public static void near(double expected, double actual, double tolerance, String message) {
+        if (Math.abs(expected - actual) > tolerance) {
+            throw new AssertionError(message + ": expected <" + expected + "> +/- " + tolerance + " but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Runs one test case and reports it, so a failing run shows which case broke.
+     * @param name The name printed for the case.
+     * @param test The case to run.
+     * @throws Exception if the case fails.
+     */
+    public static void run(String name, TestCase test) throws Exception {
+        test.run();
+        System.out.println("ok   " + name);
+    }
+
+    /** One test case; may throw any exception to fail. */
+    @FunctionalInterface
+    public interface TestCase {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,74 @@
+// util/CompressedTextTest.java
+package util;
+
+import static util.Check.equal;
+import static util.Check.isTrue;
+import static util.Check.run;
+
+/**
+ * Tests for {@link CompressedText}: every stored form reads back as the original text, plain
+ * values written before compression pass through, and damaged values are reported.
+ */
+public class CompressedTextTest {
+
+    public static void main(String[] args) throws Exception {
+        run("report text is compressed and round-trips", CompressedTextTest::reportTextRoundTrip);
+        run("short text is stored as plain text", CompressedTextTest::shortTextStaysPlain);
+        run("text that looks compressed is always compressed", CompressedTextTest::headerLikeText);
+        run("non-ASCII text round-trips", CompressedTextTest::unicodeRoundTrip);
+        run("null and legacy plain values pass through", CompressedTextTest::nullAndLegacy);
+        run("truncated or corrupt values are rejected", CompressedTextTest::damagedValues);
+    }
+
+    static void reportTextRoundTrip() {
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            report.append("Driver D").append(i % 20).append(": 12 deliveries, on-time rate 91.7%, average lateness 0.40 h\n");
+        }
+        String text = report.toString();
+        String stored = CompressedText.compress(text);
+        isTrue(CompressedText.isCompressed(stored), "repetitive text should be compressed");
+        isTrue(stored.length() * 4 < text.length(), "stored form should be several times smaller");
+        equal(text, CompressedText.decompress(stored), "round trip");
+    }
+
+    static void shortTextStaysPlain() {
+        equal("OK", CompressedText.compress("OK"), "short text");
+        equal("", CompressedText.compress(""), "empty text");
+        equal("", CompressedText.decompress(CompressedText.compress("")), "empty round trip");
+    }
+
+    static void headerLikeText() {
+        String text = CompressedText.HEADER + "not really compressed";
+        String stored = CompressedText.compress(text);
+        isTrue(!stored.equals(text), "must not be stored as is, or it would be misread");
+        equal(text, CompressedText.decompress(stored), "round trip");
+    }
+
+    static void unicodeRoundTrip() {
+        String text = "Zürich → Kraków, 東京 ✓ ".repeat(200);
+        equal(text, CompressedText.decompress(CompressedText.compress(text)), "round trip");
+    }
+
+    static void nullAndLegacy() {
+        equal(null, CompressedText.compress(null), "compress null");
+        equal(null, CompressedText.decompress(null), "decompress null");
+        equal("Report saved before compression", CompressedText.decompress("Report saved before compression"), "legacy value");
+    }
+
+    static void damagedValues() {
+        String stored = CompressedText.compress("Lorem ipsum dolor sit amet. ".repeat(100));
+        expectRejected(stored.substring(0, stored.length() / 2), "truncated");
+        expectRejected(CompressedText.HEADER + "AAAAAAAA", "corrupt");
+        expectRejected(CompressedText.HEADER + "not base64!", "not Base64");
+    }
+
+    private static void expectRejected(String stored, String message) {
+        try {
+            CompressedText.decompress(stored);
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError(message + ": expected IllegalArgumentException");
+    }
+}
@@ -0,0 +1,74 @@
+// util/FrequencyCacheTest.java
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static util.Check.equal;
+import static util.Check.isTrue;
+import static util.Check.run;
+
+/**
+ * Tests for {@link FrequencyCache}: read-through loading, the size bound, frequency-based admission,
+ * and that a load racing with an invalidation is not cached.
+ */
+public class FrequencyCacheTest {
+
+    public static void main(String[] args) throws Exception {
+        run("a hit does not call the loader again", FrequencyCacheTest::readThrough);
+        run("the cache never grows beyond its size", FrequencyCacheTest::sizeBound);
+        run("frequently read keys survive a short scan of one-off keys", FrequencyCacheTest::scanResistance);
+        run("a value loaded across an invalidation is not cached", FrequencyCacheTest::staleLoadRejected);
+    }
+
+    static void readThrough() {
+        FrequencyCache<String, String> cache = new FrequencyCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            equal("value of A", cache.get("A", key -> {
+                loads.incrementAndGet();
+                return "value of " + key;
+            }), "value");
+        }
+        equal(1, loads.get(), "loads");
+        equal(2L, cache.getHitCount(), "hits");
+        equal(null, cache.get("B", key -> null), "null is returned");
+        equal(1, cache.size(), "null is not cached");
+    }
+
+    static void sizeBound() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(50);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(i, key -> key);
+        }
+        isTrue(cache.size() <= 50, "size " + cache.size());
+    }
+
+    static void scanResistance() {
+        FrequencyCache<String, String> cache = new FrequencyCache<>(10);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) {
+                cache.get("hot-" + i, key -> key);
+            }
+        }
+        for (int i = 0; i < 40; i++) { // Within one aging period (ten accesses per entry), so the hot counts still stand
+            cache.get("cold-" + i, key -> key);
+        }
+        for (int i = 0; i < 10; i++) {
+            equal("hot-" + i, cache.getIfPresent("hot-" + i), "hot-" + i + " after the scan");
+        }
+    }
+
+    static void staleLoadRejected() {
+        FrequencyCache<String, String> cache = new FrequencyCache<>(10);
+        equal("old", cache.get("A", key -> {
+            cache.invalidate(key); // A write lands while the old value is being read
+            return "old";
+        }), "the loaded value is still returned");
+        equal(null, cache.getIfPresent("A"), "but not cached");
+
+        long stamp = cache.getInvalidationStamp();
+        cache.invalidateAll();
+        cache.putIfNotInvalidated("A", "old", stamp);
+        equal(null, cache.getIfPresent("A"), "putIfNotInvalidated after an invalidation");
+    }
+}